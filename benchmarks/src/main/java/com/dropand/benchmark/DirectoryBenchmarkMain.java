@@ -0,0 +1,23 @@
+package com.dropand.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 성능 측정 실행 진입점
+ *
+ * JMH 명령행 옵션을 그대로 받고, 할당률을 함께 보도록 gc 프로파일러를 항상 추가합니다.
+ * 예: java -jar benchmarks.jar "DirectoryServiceBenchmark.(move|delete)" -p shape=WIDE -p size=50000
+ */
+public class DirectoryBenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,408 @@
+package com.dropand.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 실행 중인 애플리케이션의 REST API에 실제와 비슷한 요청 비율로 부하를 주는 도구
+ *
+ * 주요 기능:
+ * 1. 트리 조회, 하위 디렉토리 조회, 이동, 순서 변경, 생성, 삭제를 가중치 비율로 섞어 여러 스레드에서 요청
+ *    (스레드 하나가 클라이언트 하나, think-ms로 요청 사이 대기 시간 지정)
+ * 2. 조회 대상은 시작할 때 받은 트리 상위 단계의 디렉토리에서 고르고,
+ *    이동/순서 변경/삭제는 각 스레드가 직접 만든 디렉토리에만 하여 기존 트리를 망가뜨리지 않음
+ * 3. 예열 구간을 뺀 측정 구간의 요청별 처리량, 오류 수, 거절(503) 수, 지연 시간 p50/p99/p999/최대값을 표로 출력
+ *
+ * 실행 예 (프로젝트 루트에서, 애플리케이션이 떠 있는 상태):
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.dropand.benchmark.DirectoryLoadDriver \
+ *     --url=http://localhost:8080 --threads=8 --warmup=10 --duration=60 \
+ *     --mix=tree=5,children=45,create=15,move=15,reorder=10,delete=10
+ * </pre>
+ * 큰 트리는 dropand.synthetic.nodes 설정으로 애플리케이션을 시작해 만듭니다.
+ *
+ * 요청 스레드 방식 비교 (동시 클라이언트 1000개, 같은 트리와 요청 비율로 두 번 실행):
+ * <pre>
+ * java -jar target/dropand-1.0.0.jar                                       (스레드 풀, 기본)
+ * java -jar target/dropand-1.0.0.jar --spring.threads.virtual.enabled=true (가상 스레드, Java 21 이상)
+ * ... DirectoryLoadDriver --threads=1000 --think-ms=50 --timeout=30 --warmup=20 --duration=60
+ * </pre>
+ */
+public class DirectoryLoadDriver {
+
+    private static final String API = "/api/directories";
+
+    /**
+     * 조회/생성 대상으로 쓸 기존 디렉토리의 최대 수
+     */
+    private static final int MAX_TARGETS = 100_000;
+
+    /**
+     * 요청 종류
+     */
+    enum Operation {
+        TREE("GET /tree"),
+        CHILDREN("GET /{id}/children"),
+        CREATE("POST /"),
+        MOVE("POST /{id}/move"),
+        REORDER("PUT /order"),
+        DELETE("DELETE /{id}");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * 클라이언트 스레드의 스택 크기 (수천 개를 띄울 수 있도록 작게)
+     */
+    private static final long CLIENT_STACK_SIZE = 256 * 1024;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final int threads;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int treeDepth;
+    private final long thinkMillis;
+    private final Duration requestTimeout;
+    private final Map<Operation, Integer> mix;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private long[] targetIds;
+
+    DirectoryLoadDriver(Map<String, String> options) {
+        baseUrl = options.getOrDefault("url", "http://localhost:8080").replaceAll("/+$", "");
+        threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        treeDepth = Integer.parseInt(options.getOrDefault("tree-depth", "2"));
+        thinkMillis = Long.parseLong(options.getOrDefault("think-ms", "0"));
+        requestTimeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "30")));
+        mix = parseMix(options.getOrDefault("mix", "tree=5,children=45,create=15,move=15,reorder=10,delete=10"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("옵션은 --이름=값 형식이어야 합니다: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new DirectoryLoadDriver(options).run();
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("요청 비율 형식이 올바르지 않습니다: " + part);
+            }
+            int weight = Integer.parseInt(pair[1]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("요청 비율은 0 이상이어야 합니다: " + part);
+            }
+            weights.put(Operation.valueOf(pair[0].toUpperCase()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("요청 비율의 합은 1 이상이어야 합니다.");
+        }
+        return weights;
+    }
+
+    void run() throws Exception {
+        targetIds = loadTargets();
+        System.out.printf("대상 디렉토리 %d개, 스레드 %d개, 대기 %dms, 예열 %d초, 측정 %d초, 요청 비율 %s%n",
+            targetIds.length, threads, thinkMillis, warmupSeconds, durationSeconds, mix);
+
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + warmupSeconds * 1_000_000_000L;
+        long measureUntil = measureFrom + durationSeconds * 1_000_000_000L;
+        List<Worker> workers = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(i, measureFrom, measureUntil, done);
+            workers.add(worker);
+            Thread thread = new Thread(null, worker, "load-" + i, CLIENT_STACK_SIZE);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        report(workers);
+    }
+
+    /**
+     * 트리 상위 단계를 받아 조회/생성 대상으로 쓸 디렉토리 ID를 모읍니다.
+     */
+    private long[] loadTargets() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + API + "/tree?depth=3")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("트리를 받지 못했습니다. 상태 코드: " + response.statusCode());
+        }
+        List<Long> ids = new ArrayList<>();
+        ArrayDeque<JsonNode> queue = new ArrayDeque<>();
+        objectMapper.readTree(response.body()).forEach(queue::add);
+        while (!queue.isEmpty() && ids.size() < MAX_TARGETS) {
+            JsonNode directory = queue.poll();
+            ids.add(directory.get("id").asLong());
+            directory.path("children").forEach(queue::add);
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("대상 디렉토리가 없습니다. 트리가 비어 있습니다.");
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void report(List<Worker> workers) {
+        System.out.printf("%n%-20s %9s %7s %7s %10s %10s %10s %10s %10s%n",
+            "요청", "건수", "오류", "거절", "처리량/s", "p50(ms)", "p99(ms)", "p999(ms)", "최대(ms)");
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder merged = new LatencyRecorder();
+            long errors = 0;
+            long rejected = 0;
+            for (Worker worker : workers) {
+                merged.addAll(worker.latencies.get(operation));
+                errors += worker.errors.get(operation)[0];
+                rejected += worker.errors.get(operation)[1];
+            }
+            if (merged.size == 0) {
+                continue;
+            }
+            total += merged.size;
+            long[] sorted = merged.sorted();
+            System.out.printf("%-20s %9d %7d %7d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                operation.label, sorted.length, errors, rejected, sorted.length / (double) durationSeconds,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                millis(percentile(sorted, 0.999)), millis(sorted[sorted.length - 1]));
+        }
+        System.out.printf("%-20s %9d %7s %7s %10.1f%n", "전체", total, "", "", total / (double) durationSeconds);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * 요청 하나의 지연 시간(나노초)을 모으는 배열
+     */
+    private static final class LatencyRecorder {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LatencyRecorder other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * 측정 구간이 끝날 때까지 요청을 연달아 보내는 스레드
+     */
+    private final class Worker implements Runnable {
+        private final int index;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final CountDownLatch done;
+        private final SplittableRandom random;
+        private final Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+
+        /**
+         * 요청별 [오류 수 (거절 포함), 거절(503) 수]
+         */
+        private final Map<Operation, long[]> errors = new EnumMap<>(Operation.class);
+
+        /**
+         * 이 스레드가 만든 디렉토리 ID와 현재 부모 ID (이동/순서 변경/삭제 대상)
+         */
+        private final List<long[]> created = new ArrayList<>();
+        private final Operation[] weighted;
+        private long nameSequence;
+
+        private Worker(int index, long measureFrom, long measureUntil, CountDownLatch done) {
+            this.index = index;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.done = done;
+            this.random = new SplittableRandom(index * 7919L + 1);
+            List<Operation> slots = new ArrayList<>();
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyRecorder());
+                errors.put(operation, new long[2]);
+                for (int i = 0; i < mix.getOrDefault(operation, 0); i++) {
+                    slots.add(operation);
+                }
+            }
+            weighted = slots.toArray(new Operation[0]);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (System.nanoTime() < measureUntil) {
+                    Operation operation = weighted[random.nextInt(weighted.length)];
+                    if (created.isEmpty() && (operation == Operation.MOVE || operation == Operation.REORDER
+                        || operation == Operation.DELETE)) {
+                        operation = Operation.CREATE;
+                    }
+                    execute(operation);
+                    if (thinkMillis > 0) {
+                        Thread.sleep(thinkMillis);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private void execute(Operation operation) {
+            HttpRequest request;
+            long[] own = null;
+            int ownIndex = -1;
+            long newParentId = 0;
+            switch (operation) {
+                case TREE -> request = get(API + "/tree?depth=" + treeDepth);
+                case CHILDREN -> request = get(API + "/" + randomTarget() + "/children?limit=100");
+                case CREATE -> {
+                    newParentId = randomTarget();
+                    request = send("POST", API, "{\"name\":\"ld" + runId + "t" + index + "n" + (nameSequence++)
+                        + "\",\"parentId\":" + newParentId + "}");
+                }
+                case MOVE -> {
+                    ownIndex = random.nextInt(created.size());
+                    own = created.get(ownIndex);
+                    newParentId = randomTarget();
+                    request = send("POST", API + "/" + own[0] + "/move", "{\"parentId\":" + newParentId + "}");
+                }
+                case REORDER -> {
+                    own = created.get(random.nextInt(created.size()));
+                    request = send("PUT", API + "/order", "[{\"id\":" + own[0] + ",\"parentId\":" + own[1]
+                        + ",\"sortOrder\":" + random.nextInt(1 << 20) + "}]");
+                }
+                case DELETE -> {
+                    ownIndex = random.nextInt(created.size());
+                    own = created.get(ownIndex);
+                    request = send("DELETE", API + "/" + own[0], null);
+                }
+                default -> throw new IllegalStateException("알 수 없는 요청: " + operation);
+            }
+
+            long startedAt = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                record(operation, startedAt, 0);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            boolean ok = response.statusCode() / 100 == 2;
+            record(operation, startedAt, response.statusCode());
+            if (!ok) {
+                return;
+            }
+            switch (operation) {
+                case CREATE -> created.add(new long[]{createdId(response.body()), newParentId});
+                case MOVE -> own[1] = newParentId;
+                case DELETE -> removeCreated(ownIndex);
+                default -> {
+                }
+            }
+        }
+
+        /**
+         * @param status 응답 상태 코드 (응답을 받지 못했으면 0)
+         */
+        private void record(Operation operation, long startedAt, int status) {
+            long finishedAt = System.nanoTime();
+            if (startedAt < measureFrom || finishedAt > measureUntil) {
+                return;
+            }
+            latencies.get(operation).add(finishedAt - startedAt);
+            if (status / 100 != 2) {
+                errors.get(operation)[0]++;
+            }
+            if (status == 503) {
+                errors.get(operation)[1]++;
+            }
+        }
+
+        private long createdId(String body) {
+            try {
+                return objectMapper.readTree(body).get("id").asLong();
+            } catch (IOException e) {
+                throw new IllegalStateException("생성 응답을 읽지 못했습니다: " + body, e);
+            }
+        }
+
+        private void removeCreated(int ownIndex) {
+            int last = created.size() - 1;
+            created.set(ownIndex, created.get(last));
+            created.remove(last);
+        }
+
+        private long randomTarget() {
+            return targetIds[random.nextInt(targetIds.length)];
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout).GET().build();
+        }
+
+        private HttpRequest send(String method, String path, String json) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout);
+            if (json == null) {
+                return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+            }
+            return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.dropand.benchmark;
+
+import com.dropand.DropAndApplication;
+import com.dropand.domain.Directory;
+import com.dropand.repository.DirectoryRepository;
+import com.dropand.service.DirectoryChangeJournal;
+import com.dropand.service.DirectoryHierarchyIndex;
+import com.dropand.service.DirectoryTreeCache;
+import com.dropand.service.DirectoryTreeSnapshot;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 같은 디렉토리 트리를 담는 여러 메모리 표현의 크기를 비교하는 도구
+ *
+ * 주요 기능:
+ * 1. 웹 서버 없이 애플리케이션 컨텍스트를 띄우고 합성 트리(dropand.synthetic.*)를 만듦
+ * 2. 다음 표현을 하나씩 만들어 GC 뒤 힙 사용량 차이(힙 밖이면 direct 버퍼 사용량 차이)를 측정
+ *    - 엔티티 그래프: 읽기 전용 트랜잭션에서 모든 Directory와 자식 컬렉션을 적재 (영속성 컨텍스트 포함)
+ *    - 트리 스냅샷: findAllNodes()로 만든 DirectoryTreeSnapshot (이름과 경로 문자열 포함)
+ *    - 계층 색인: 힙 배열과 힙 밖 버퍼 두 가지 (부모/자식 관계만 보관)
+ * 3. 표현별 전체 바이트 수와 디렉토리당 바이트 수를 표로 출력
+ *
+ * 실행 예 (프로젝트 루트에서):
+ * <pre>
+ * java -Xmx2g -cp benchmarks/target/benchmarks.jar com.dropand.benchmark.DirectoryMemoryFootprint \
+ *     --nodes=100000 --max-depth=8 --fan-out=uniform:1-16
+ * </pre>
+ * 측정값은 GC 뒤 사용량의 차이이므로 실행마다 몇 퍼센트 정도 달라질 수 있습니다.
+ */
+public class DirectoryMemoryFootprint {
+
+    private final int nodes;
+    private final int maxDepth;
+    private final String fanOut;
+
+    /**
+     * 측정하는 동안 표현이 수거되지 않도록 붙잡아 두는 목록
+     */
+    private final List<Object> retained = new ArrayList<>();
+
+    DirectoryMemoryFootprint(Map<String, String> options) {
+        this.nodes = Integer.parseInt(options.getOrDefault("nodes", "100000"));
+        this.maxDepth = Integer.parseInt(options.getOrDefault("max-depth", "8"));
+        this.fanOut = options.getOrDefault("fan-out", "uniform:1-16");
+        if (nodes < 1) {
+            throw new IllegalArgumentException("디렉토리 수는 1 이상이어야 합니다: " + nodes);
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("옵션은 --이름=값 형식이어야 합니다: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new DirectoryMemoryFootprint(options).run();
+    }
+
+    void run() {
+        List<String> args = new ArrayList<>(Arrays.asList(DirectoryTreeState.BENCHMARK_ARGS));
+        args.add("--dropand.synthetic.nodes=" + nodes);
+        args.add("--dropand.synthetic.max-depth=" + maxDepth);
+        args.add("--dropand.synthetic.fan-out=" + fanOut);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DropAndApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new))) {
+            DirectoryRepository repository = context.getBean(DirectoryRepository.class);
+            DirectoryChangeJournal changeJournal = context.getBean(DirectoryChangeJournal.class);
+            DirectoryTreeSnapshot current = context.getBean(DirectoryTreeCache.class).getSnapshot();
+            TransactionTemplate readTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            readTransaction.setReadOnly(true);
+
+            int size = current.getSize();
+            System.out.printf("디렉토리 %d개, 최대 깊이 %d%n%n", size, current.getMaxDepth());
+            System.out.printf("%-28s %14s %14s%n", "표현", "바이트", "디렉토리당");
+
+            long before = usedHeap();
+            readTransaction.executeWithoutResult(status -> {
+                List<Directory> directories = repository.findAll();
+                for (Directory directory : directories) {
+                    directory.getChildren().size();
+                }
+                retained.add(directories);
+                print("엔티티 그래프", usedHeap() - before, size);
+                retained.clear();
+            });
+
+            long beforeSnapshot = usedHeap();
+            DirectoryTreeSnapshot snapshot = readTransaction.execute(status ->
+                DirectoryTreeSnapshot.build(current.getVersion(), current.getJournalSequence(), repository.findAllNodes(), null));
+            retained.add(snapshot);
+            print("트리 스냅샷", usedHeap() - beforeSnapshot, size);
+
+            long beforeHeapIndex = usedHeap();
+            DirectoryHierarchyIndex heapIndex = new DirectoryHierarchyIndex(changeJournal, false);
+            heapIndex.rebuild(snapshot);
+            retained.add(heapIndex);
+            print("계층 색인 (힙)", usedHeap() - beforeHeapIndex, size);
+
+            long beforeDirectHeap = usedHeap();
+            long beforeDirect = usedDirect();
+            DirectoryHierarchyIndex directIndex = new DirectoryHierarchyIndex(changeJournal, true);
+            directIndex.rebuild(snapshot);
+            retained.add(directIndex);
+            long heapDelta = usedHeap() - beforeDirectHeap;
+            long directDelta = usedDirect() - beforeDirect;
+            print("계층 색인 (힙 밖, 힙 부분)", heapDelta, size);
+            print("계층 색인 (힙 밖, 버퍼)", directDelta, size);
+            retained.clear();
+        }
+    }
+
+    private static void print(String label, long bytes, int size) {
+        System.out.printf("%-28s %14d %14.1f%n", label, bytes, (double) bytes / size);
+    }
+
+    /**
+     * 여러 번 GC를 요청해 더 줄지 않을 때의 힙 사용량을 반환합니다.
+     */
+    private static long usedHeap() {
+        long used = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 10; attempt++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long now = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                return used;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    /**
+     * @return direct 버퍼가 차지하는 바이트 수
+     */
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+            .filter(pool -> "direct".equals(pool.getName()))
+            .mapToLong(BufferPoolMXBean::getMemoryUsed)
+            .sum();
+    }
+}
@@ -0,0 +1,257 @@
+package com.dropand.benchmark;
+
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.service.DirectoryColumnarEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DirectoryService의 주요 연산 성능 측정 클래스
+ *
+ * 주요 기능:
+ * 1. 쓰기 연산: 디렉토리 생성, 하위 트리 이동, 형제 순서 일괄 변경, 하위 트리 삭제
+ * 2. 트리 직렬화: 중첩 JSON, 스트리밍 JSON, 열 단위 바이너리
+ * 3. 계층 조회: 조상 목록, 조상 판별을 트리 스냅샷과 계층 색인으로 각각 수행 (gc 프로파일러로 할당량 비교)
+ * 4. 연산마다 SQL 실행 수를 보조 카운터로 함께 기록
+ *
+ * 쓰기 연산의 시간에는 커밋 후 트리 스냅샷 재생성과 색인 반영까지 포함됩니다.
+ * 트리 모양과 크기는 DirectoryTreeState의 @Param으로 바꿀 수 있습니다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DirectoryServiceBenchmark {
+
+    /**
+     * 순서 변경 측정에서 한 번에 바꾸는 최대 형제 수
+     */
+    private static final int REORDER_SIBLINGS = 100;
+
+    /**
+     * 삭제 측정에서 매번 새로 만들어 삭제하는 하위 트리의 최대 크기
+     */
+    private static final int DELETE_SUBTREE_SIZE = 1000;
+
+    /**
+     * 직렬화 결과를 버리는 출력 스트림 (Jackson이 기록 후 닫아도 계속 쓸 수 있음)
+     */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    /**
+     * 무작위 디렉토리 아래에 새 디렉토리를 만듭니다.
+     */
+    @Benchmark
+    public Directory createDirectory(DirectoryTreeState tree, SqlCounters sql) {
+        Long parentId = tree.randomDirectoryId();
+        String name = tree.nextName("n");
+        sql.begin();
+        Directory created = tree.directoryService.createDirectory(name, parentId);
+        sql.end();
+        return created;
+    }
+
+    /**
+     * 최상위의 두 번째 자식(하위 트리 포함)을 첫 번째 자식 아래로 옮겼다가 다시 최상위로 되돌리기를 번갈아 수행합니다.
+     */
+    @Benchmark
+    public void moveDirectory(DirectoryTreeState tree, MoveTarget move, SqlCounters sql) {
+        Long newParentId = move.next(tree);
+        sql.begin();
+        tree.directoryService.moveDirectory(move.id, newParentId, 0, null);
+        sql.end();
+    }
+
+    /**
+     * 최상위의 자식(최대 REORDER_SIBLINGS개) 순서를 정순과 역순으로 번갈아 바꿉니다.
+     */
+    @Benchmark
+    public void updateDirectoryOrder(DirectoryTreeState tree, ReorderTarget reorder, SqlCounters sql) {
+        List<DirectoryOrderDto> orderList = reorder.next();
+        sql.begin();
+        tree.directoryService.updateDirectoryOrder(orderList);
+        sql.end();
+    }
+
+    /**
+     * 같은 모양의 하위 트리를 매번 새로 만들어 두고 삭제합니다. (생성 시간은 측정에서 제외)
+     */
+    @Benchmark
+    public int deleteDirectory(DirectoryTreeState tree, DeleteTarget target, SqlCounters sql) {
+        sql.begin();
+        int deleted = tree.directoryService.deleteDirectory(target.id);
+        sql.end();
+        return deleted;
+    }
+
+    /**
+     * 캐시된 전체 트리를 중첩 JSON으로 직렬화합니다. (GET /api/directories/tree)
+     */
+    @Benchmark
+    public void serializeTreeJson(DirectoryTreeState tree, SqlCounters sql) throws IOException {
+        sql.begin();
+        tree.objectMapper.writeValue(DISCARD, tree.directoryService.getDirectoryTree());
+        sql.end();
+    }
+
+    /**
+     * 캐시된 전체 트리를 스트리밍 JSON으로 기록합니다. (GET /api/directories/tree?stream=true)
+     */
+    @Benchmark
+    public void streamTreeJson(DirectoryTreeState tree, SqlCounters sql) throws IOException {
+        sql.begin();
+        tree.directoryService.streamDirectoryTree(null).writeTo(DISCARD);
+        sql.end();
+    }
+
+    /**
+     * 현재 스냅샷을 열 단위 바이너리로 인코딩합니다.
+     * 서비스는 스냅샷마다 인코딩 결과를 재사용하므로, 매번 새 인코더로 실제 인코딩 비용을 측정합니다.
+     */
+    @Benchmark
+    public byte[] encodeTreeColumnar(DirectoryTreeState tree, SqlCounters sql) {
+        sql.begin();
+        byte[] encoded = new DirectoryColumnarEncoder(tree.objectMapper).encodeBinary(tree.directoryTreeCache.getSnapshot());
+        sql.end();
+        return encoded;
+    }
+
+    /**
+     * 무작위 디렉토리의 조상 ID 목록을 트리 스냅샷에서 구합니다. (조회마다 목록 생성)
+     */
+    @Benchmark
+    public List<Long> ancestorIdsSnapshot(DirectoryTreeState tree) {
+        return tree.directoryTreeCache.getSnapshot().getAncestorIds(tree.randomDirectoryId());
+    }
+
+    /**
+     * 무작위 디렉토리의 조상 ID 목록을 계층 색인에서 미리 만든 배열에 채웁니다.
+     */
+    @Benchmark
+    public int ancestorIdsIndex(DirectoryTreeState tree, HierarchyBuffer buffer) {
+        return tree.hierarchyIndex.getAncestorIds(tree.randomDirectoryId(), buffer.ids);
+    }
+
+    /**
+     * 최상위 디렉토리가 무작위 디렉토리의 조상인지 트리 스냅샷으로 판별합니다. (전위 순회 구간 비교)
+     */
+    @Benchmark
+    public boolean isAncestorSnapshot(DirectoryTreeState tree) {
+        return tree.directoryTreeCache.getSnapshot().isAncestor(tree.rootId, tree.randomDirectoryId());
+    }
+
+    /**
+     * 최상위 디렉토리가 무작위 디렉토리의 조상인지 계층 색인으로 판별합니다. (부모를 따라 올라감)
+     */
+    @Benchmark
+    public boolean isAncestorIndex(DirectoryTreeState tree) {
+        return tree.hierarchyIndex.isAncestor(tree.rootId, tree.randomDirectoryId());
+    }
+
+    /**
+     * 계층 색인 조회 결과를 받을 스레드별 배열
+     */
+    @State(Scope.Thread)
+    public static class HierarchyBuffer {
+        long[] ids;
+
+        @Setup(Level.Trial)
+        public void allocate(DirectoryTreeState tree) {
+            ids = new long[tree.directoryTreeCache.getSnapshot().getMaxDepth()];
+        }
+    }
+
+    /**
+     * 이동 측정 대상과 번갈아 옮길 부모
+     */
+    @State(Scope.Thread)
+    public static class MoveTarget {
+        Long id;
+        private boolean moved;
+
+        @Setup(Level.Trial)
+        public void select(DirectoryTreeState tree) {
+            if (tree.childIds.size() < 2) {
+                throw new IllegalStateException("이동 측정에는 최상위 자식이 두 개 이상 필요합니다.");
+            }
+            id = tree.childIds.get(1);
+        }
+
+        Long next(DirectoryTreeState tree) {
+            moved = !moved;
+            return moved ? tree.childIds.get(0) : tree.rootId;
+        }
+    }
+
+    /**
+     * 순서 변경 측정에 번갈아 보낼 정순/역순 요청
+     */
+    @State(Scope.Thread)
+    public static class ReorderTarget {
+        private List<DirectoryOrderDto> forward;
+        private List<DirectoryOrderDto> reversed;
+        private boolean reverse;
+
+        @Setup(Level.Trial)
+        public void prepare(DirectoryTreeState tree) {
+            List<Long> siblings = tree.childIds.subList(0, Math.min(REORDER_SIBLINGS, tree.childIds.size()));
+            forward = new ArrayList<>(siblings.size());
+            reversed = new ArrayList<>(siblings.size());
+            for (int i = 0; i < siblings.size(); i++) {
+                forward.add(order(siblings.get(i), tree.rootId, i));
+                reversed.add(order(siblings.get(siblings.size() - 1 - i), tree.rootId, i));
+            }
+        }
+
+        private static DirectoryOrderDto order(Long id, Long parentId, int sortOrder) {
+            DirectoryOrderDto dto = new DirectoryOrderDto();
+            dto.setId(id);
+            dto.setParentId(parentId);
+            dto.setSortOrder(sortOrder);
+            return dto;
+        }
+
+        List<DirectoryOrderDto> next() {
+            reverse = !reverse;
+            return reverse ? reversed : forward;
+        }
+    }
+
+    /**
+     * 삭제 측정 직전에 만드는 하위 트리
+     */
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+        Long id;
+
+        @Setup(Level.Invocation)
+        public void create(DirectoryTreeState tree) {
+            id = tree.importTree(tree.rootId, tree.shape, tree.nextName("d"), Math.min(tree.size, DELETE_SUBTREE_SIZE));
+        }
+    }
+}
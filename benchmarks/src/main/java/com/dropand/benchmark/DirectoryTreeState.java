@@ -0,0 +1,156 @@
+package com.dropand.benchmark;
+
+import com.dropand.DropAndApplication;
+import com.dropand.dto.DirectoryImportResponse;
+import com.dropand.dto.DirectoryTreeDto;
+import com.dropand.service.DirectoryHierarchyIndex;
+import com.dropand.service.DirectoryService;
+import com.dropand.service.DirectoryTreeCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 애플리케이션 컨텍스트와 측정용 트리를 준비하는 상태 클래스
+ *
+ * 주요 기능:
+ * 1. 웹 서버 없이 애플리케이션 컨텍스트를 띄우고 모든 DataSource를 SQL 수 측정 래퍼로 감쌈
+ * 2. 지정한 모양과 크기의 트리를 일괄 가져오기로 생성 (최상위 디렉토리 /bench 아래)
+ * 3. 측정 연산이 사용할 디렉토리 ID(최상위, 그 자식, 전체)를 미리 조회
+ *
+ * 측정 JVM마다 새 인메모리 DB를 쓰고, 요청/SQL 추적 로그는 측정에 섞이지 않도록 끕니다.
+ */
+@State(Scope.Benchmark)
+public class DirectoryTreeState {
+
+    /**
+     * 애플리케이션 설정을 덮어쓰는 측정용 설정 (명령행 인자로 넘겨 application.properties보다 우선)
+     */
+    static final String[] BENCHMARK_ARGS = {
+        "--spring.datasource.url=jdbc:h2:mem:dropand_bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "--spring.sql.init.mode=never",
+        "--spring.jpa.show-sql=false",
+        "--spring.main.banner-mode=off",
+        "--logging.level.root=WARN",
+        "--logging.level.com.dropand=WARN",
+        "--logging.level.org.springframework.web=WARN",
+        "--logging.level.org.springframework.web.servlet.mvc=WARN",
+        "--logging.level.org.springframework.security=WARN",
+        "--logging.level.org.hibernate.SQL=WARN",
+        "--logging.level.org.hibernate.orm.deprecation=ERROR",
+        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+    };
+
+    @Param({"DEEP", "WIDE", "BALANCED"})
+    public TreeShape shape;
+
+    @Param({"10000"})
+    public int size;
+
+    ConfigurableApplicationContext context;
+    DirectoryService directoryService;
+    DirectoryTreeCache directoryTreeCache;
+    DirectoryHierarchyIndex hierarchyIndex;
+    ObjectMapper objectMapper;
+
+    /**
+     * 최상위 디렉토리 ID
+     */
+    Long rootId;
+
+    /**
+     * 최상위 디렉토리의 자식 ID (정렬 순서대로)
+     */
+    List<Long> childIds;
+
+    /**
+     * 최상위 디렉토리를 포함한 생성된 모든 디렉토리 ID
+     */
+    long[] allIds;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private int nameSequence;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(DropAndApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(BENCHMARK_ARGS);
+        directoryService = context.getBean(DirectoryService.class);
+        directoryTreeCache = context.getBean(DirectoryTreeCache.class);
+        hierarchyIndex = context.getBean(DirectoryHierarchyIndex.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        rootId = importTree(null, shape, TreeShape.ROOT_NAME, size);
+        DirectoryTreeDto root = directoryService.getDirectoryByPath("/" + TreeShape.ROOT_NAME, Integer.MAX_VALUE)
+            .orElseThrow(() -> new IllegalStateException("생성한 트리를 찾지 못했습니다."));
+        childIds = root.getChildren().stream().map(DirectoryTreeDto::getId).toList();
+
+        List<Long> ids = new ArrayList<>(size);
+        ArrayDeque<DirectoryTreeDto> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            DirectoryTreeDto directory = stack.pop();
+            ids.add(directory.getId());
+            directory.getChildren().forEach(stack::push);
+        }
+        allIds = ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * 트리를 일괄 가져오기로 만들고 그 최상위 디렉토리 ID를 반환합니다.
+     *
+     * @param parentId 가져오기 대상 디렉토리 ID (null이면 루트 아래)
+     * @param treeShape 트리 모양
+     * @param rootName 최상위 디렉토리 이름 (대상 아래에서 고유해야 함)
+     * @param treeSize 전체 디렉토리 수
+     * @return 만든 최상위 디렉토리 ID
+     */
+    Long importTree(Long parentId, TreeShape treeShape, String rootName, int treeSize) {
+        byte[] input = treeShape.toNdjson(rootName, treeSize).getBytes(StandardCharsets.UTF_8);
+        DirectoryImportResponse response = directoryService.importDirectories(parentId, new ByteArrayInputStream(input));
+        if (response.getRejectedCount() > 0) {
+            throw new IllegalStateException("측정용 트리 생성 중 거부된 디렉토리가 있습니다: " + response.getRejections());
+        }
+        String parentPath = parentId == null ? "" : directoryTreeCache.getSnapshot().getNode(parentId, 1).getPath();
+        return directoryService.getDirectoryByPath(parentPath + "/" + rootName, 1)
+            .map(DirectoryTreeDto::getId)
+            .orElseThrow(() -> new IllegalStateException("생성한 트리를 찾지 못했습니다: " + rootName));
+    }
+
+    /**
+     * @return 생성된 디렉토리 중 무작위로 고른 ID
+     */
+    Long randomDirectoryId() {
+        return allIds[random.nextInt(allIds.length)];
+    }
+
+    /**
+     * @param prefix 이름 앞부분
+     * @return 측정 중 겹치지 않는 새 디렉토리 이름
+     */
+    String nextName(String prefix) {
+        return prefix + (nameSequence++);
+    }
+}
@@ -0,0 +1,79 @@
+package com.dropand.benchmark;
+
+import com.dropand.config.SqlStatementCounter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+/**
+ * 측정 반복마다 SQL 실행 수를 JMH 보조 카운터로 보고하는 상태 클래스
+ *
+ * 주요 기능:
+ * 1. 측정 대상 연산 안에서 실행된 SQL 수와 JDBC 배치 행 수만 누적 (연산별 준비 작업은 제외)
+ * 2. 반복마다 합계를 결과 표의 ·sqlStatements, ·sqlBatchedRows, ·operations 행으로 보고
+ * 3. 측정 반복이 모두 끝나면 연산당 평균을 출력
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class SqlCounters {
+
+    public long sqlStatements;
+    public long sqlBatchedRows;
+    public long operations;
+
+    private boolean measuring;
+    private long measuredOperations;
+    private long measuredStatements;
+    private long measuredBatchedRows;
+
+    private long statementsBefore;
+    private long batchedRowsBefore;
+
+    @Setup(Level.Iteration)
+    public void reset(IterationParams params) {
+        sqlStatements = 0;
+        sqlBatchedRows = 0;
+        operations = 0;
+        measuring = params.getType() == IterationType.MEASUREMENT;
+    }
+
+    /**
+     * 측정 대상 연산 직전에 호출합니다.
+     */
+    public void begin() {
+        statementsBefore = SqlStatementCounter.statements();
+        batchedRowsBefore = SqlStatementCounter.batchedRows();
+    }
+
+    /**
+     * 측정 대상 연산 직후에 호출합니다.
+     */
+    public void end() {
+        sqlStatements += SqlStatementCounter.statements() - statementsBefore;
+        sqlBatchedRows += SqlStatementCounter.batchedRows() - batchedRowsBefore;
+        operations++;
+    }
+
+    @TearDown(Level.Iteration)
+    public void accumulate() {
+        if (measuring) {
+            measuredOperations += operations;
+            measuredStatements += sqlStatements;
+            measuredBatchedRows += sqlBatchedRows;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (measuredOperations > 0) {
+            System.out.printf("%n연산당 SQL 실행 수: %.2f, 연산당 배치 행 수: %.2f (측정 연산 %d회)%n",
+                (double) measuredStatements / measuredOperations,
+                (double) measuredBatchedRows / measuredOperations, measuredOperations);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.dropand.benchmark;
+
+/**
+ * 측정용 디렉토리 트리 모양
+ *
+ * 주요 기능:
+ * 1. 최상위 디렉토리 하나 아래에 지정한 수만큼의 디렉토리를 일괄 가져오기(NDJSON) 입력으로 생성
+ * 2. 모양마다 이동/삭제 비용을 좌우하는 하위 트리 크기와 형제 수가 달라지도록 구성
+ *
+ * 생성되는 입력의 첫 줄은 최상위 디렉토리이며, 그 바로 아래 자식이 0번부터 순서대로 만들어집니다.
+ */
+public enum TreeShape {
+
+    /**
+     * 깊은 체인: 최상위 아래에 길이 CHAIN_DEPTH의 체인을 여러 개 둠
+     * (경로 길이 제한 때문에 체인 하나의 깊이는 고정하고 개수로 크기를 맞춤)
+     */
+    DEEP {
+        @Override
+        void write(StringBuilder out, int size) {
+            int remaining = size - 1;
+            for (int chain = 0; remaining > 0; chain++) {
+                String parent = ROOT_ID;
+                for (int depth = 0; depth < CHAIN_DEPTH && remaining > 0; depth++, remaining--) {
+                    String id = "c" + chain + "_" + depth;
+                    record(out, id, parent, depth == 0 ? "k" + chain : "c", depth == 0 ? chain : 0);
+                    parent = id;
+                }
+            }
+        }
+    },
+
+    /**
+     * 넓은 팬아웃: 최상위 바로 아래에 나머지 전부를 형제로 둠
+     */
+    WIDE {
+        @Override
+        void write(StringBuilder out, int size) {
+            for (int i = 0; i < size - 1; i++) {
+                record(out, "w" + i, ROOT_ID, "k" + i, i);
+            }
+        }
+    },
+
+    /**
+     * 균형 트리: 모든 디렉토리가 FAN_OUT개의 자식을 갖는 완전 트리 (너비 우선으로 채움)
+     */
+    BALANCED {
+        @Override
+        void write(StringBuilder out, int size) {
+            for (int i = 1; i < size; i++) {
+                int parent = (i - 1) / FAN_OUT;
+                record(out, "b" + i, parent == 0 ? ROOT_ID : "b" + parent, "k" + ((i - 1) % FAN_OUT), (i - 1) % FAN_OUT);
+            }
+        }
+    };
+
+    /**
+     * 깊은 체인 하나의 깊이 (경로 최대 길이 255자 안에 들도록 이름은 한 글자)
+     */
+    static final int CHAIN_DEPTH = 100;
+
+    /**
+     * 균형 트리의 자식 수
+     */
+    static final int FAN_OUT = 10;
+
+    /**
+     * 생성되는 최상위 디렉토리 이름
+     */
+    static final String ROOT_NAME = "bench";
+
+    private static final String ROOT_ID = "root";
+
+    /**
+     * 최상위 디렉토리를 포함해 size개의 디렉토리를 만드는 NDJSON 입력을 만듭니다.
+     *
+     * @param rootName 최상위 디렉토리 이름
+     * @param size 전체 디렉토리 수 (2 이상)
+     * @return NDJSON 입력
+     */
+    public String toNdjson(String rootName, int size) {
+        if (size < 2) {
+            throw new IllegalArgumentException("트리 크기는 2 이상이어야 합니다.");
+        }
+        StringBuilder out = new StringBuilder(size * 48);
+        record(out, ROOT_ID, null, rootName, 0);
+        write(out, size);
+        return out.toString();
+    }
+
+    abstract void write(StringBuilder out, int size);
+
+    private static void record(StringBuilder out, String id, String parentId, String name, int order) {
+        out.append("{\"id\":\"").append(id).append('"');
+        if (parentId != null) {
+            out.append(",\"parentId\":\"").append(parentId).append('"');
+        }
+        out.append(",\"name\":\"").append(name).append("\",\"order\":").append(order).append("}\n");
+    }
+}
@@ -0,0 +1,53 @@
+package com.dropand.config;
+
+import com.dropand.dto.DirectoryRestoreResponse;
+import com.dropand.service.DirectoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 애플리케이션 시작 시 디렉토리 스냅샷을 복원하는 클래스
+ * 
+ * 주요 기능:
+ * 1. dropand.snapshot.restore-path에 지정한 스냅샷 파일이 있으면 초기 데이터 대신 그 내용으로 교체
+ * 2. 메모리 DB라 재시작하면 사라지는 트리를 내보내기 API로 받은 파일에서 되살림
+ * 
+ * 초기 데이터(data.sql, TestDataInitializer)가 모두 적재된 뒤 실행됩니다.
+ */
+
+@Component
+public class SnapshotRestoreInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotRestoreInitializer.class);
+
+    private final DirectoryService directoryService;
+    private final String restorePath;
+
+    public SnapshotRestoreInitializer(DirectoryService directoryService,
+                                      @Value("${dropand.snapshot.restore-path:}") String restorePath) {
+        this.directoryService = directoryService;
+        this.restorePath = restorePath;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreSnapshot() {
+        if (restorePath == null || restorePath.isBlank()) {
+            return;
+        }
+        Path file = Path.of(restorePath.trim());
+        if (!Files.isRegularFile(file)) {
+            log.warn("복원할 스냅샷 파일이 없어 초기 데이터를 유지합니다 - 파일: {}", file);
+            return;
+        }
+        DirectoryRestoreResponse response = directoryService.restoreSnapshot(file);
+        log.info("시작 시 스냅샷 복원 완료 - 파일: {}, 디렉토리 수: {}, 소요 시간: {}ms",
+            file, response.getRestoredCount(), response.getElapsedMillis());
+    }
+}
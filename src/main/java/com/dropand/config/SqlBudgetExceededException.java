@@ -0,0 +1,28 @@
+package com.dropand.config;
+
+/**
+ * SQL 예산 초과를 나타내는 예외 클래스
+ *
+ * 주요 기능:
+ * 1. dropand.sql-budget.mode=fail일 때 요청이나 작업이 허용된 SQL 수를 넘거나 같은 모양의 문장을 너무 많이 반복하면 발생
+ * 2. 초과한 구간을 함께 전달하여 실행 수와 반복된 문장 모양을 확인할 수 있게 함
+ *
+ * 디렉토리 작업은 트랜잭션 커밋 직전에 검사하므로, 쓰기 작업에서 발생하면 변경은 롤백됩니다.
+ * 개발과 테스트에서 N+1 패턴을 바로 드러내기 위한 용도입니다.
+ */
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    private final transient SqlStatementScope scope;
+
+    public SqlBudgetExceededException(String message, SqlStatementScope scope) {
+        super(message);
+        this.scope = scope;
+    }
+
+    /**
+     * 예산을 초과한 구간
+     */
+    public SqlStatementScope getScope() {
+        return scope;
+    }
+}
@@ -0,0 +1,138 @@
+package com.dropand.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 요청과 작업별 SQL 예산을 검사하는 클래스
+ *
+ * 주요 기능:
+ * 1. API 요청 하나, DirectoryService 작업 하나가 실행한 SQL 수를 한도와 비교
+ * 2. 같은 모양의 문장이 한도 이상 반복되면 N+1 패턴으로 보고 (지연 로딩된 parent/children 등)
+ * 3. 초과 시 설정에 따라 경고 로그를 남기거나(warn) 예외를 던짐(fail)
+ *
+ * fail 모드에서 예외로 바꿀 수 있는 범위:
+ * - 작업: DirectoryService가 트랜잭션 커밋 직전에 검사하므로 예산을 넘은 변경은 롤백되고 오류로 응답
+ * - 요청: 변경하지 않는 요청(GET, HEAD 등)이고 응답이 아직 전송되지 않은 경우에만 오류로 응답
+ *   변경 요청은 이미 커밋된 뒤이고, 전송된 응답은 상태를 바꿀 수 없으므로 오류 로그만 남깁니다.
+ *
+ * 설정:
+ * <pre>
+ * dropand.sql-budget.mode          off, warn, fail (기본 warn)
+ * dropand.sql-budget.request-max   API 요청 하나의 SQL 한도
+ * dropand.sql-budget.operation-max 서비스 작업 하나의 SQL 한도
+ * dropand.sql-budget.repeat-max    한 구간에서 같은 모양의 문장을 실행할 수 있는 횟수
+ * dropand.sql-budget.request-exclude 검사하지 않는 경로 패턴 (쉼표로 구분)
+ * </pre>
+ *
+ * 가져오기와 스냅샷 복원처럼 데이터 양에 비례해 배치를 실행하는 요청은 기본으로 검사에서 제외합니다.
+ */
+@Component
+public class SqlStatementBudget {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudget.class);
+
+    /**
+     * 데이터를 바꾸지 않는 HTTP 메소드
+     */
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    public enum Mode {
+        OFF, WARN, FAIL
+    }
+
+    private final Mode mode;
+    private final int requestMax;
+    private final int operationMax;
+    private final int repeatMax;
+    private final Set<String> requestExclude;
+
+    public SqlStatementBudget(@Value("${dropand.sql-budget.mode:warn}") String mode,
+                              @Value("${dropand.sql-budget.request-max:30}") int requestMax,
+                              @Value("${dropand.sql-budget.operation-max:30}") int operationMax,
+                              @Value("${dropand.sql-budget.repeat-max:5}") int repeatMax,
+                              @Value("${dropand.sql-budget.request-exclude:}") List<String> requestExclude) {
+        try {
+            this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("dropand.sql-budget.mode는 off, warn, fail 중 하나여야 합니다: " + mode);
+        }
+        if (requestMax < 0 || operationMax < 0 || repeatMax < 1) {
+            throw new IllegalArgumentException("SQL 한도는 0 이상, 반복 한도는 1 이상이어야 합니다.");
+        }
+        this.requestMax = requestMax;
+        this.operationMax = operationMax;
+        this.repeatMax = repeatMax;
+        this.requestExclude = Set.copyOf(requestExclude);
+    }
+
+    /**
+     * API 요청 하나의 SQL 실행을 검사합니다.
+     * fail 모드라도 변경 요청이거나 응답이 이미 전송된 경우에는 예외 대신 오류 로그를 남깁니다.
+     *
+     * @param method HTTP 메소드
+     * @param uri 매핑된 경로 패턴 (예: /api/directories/{id})
+     * @param scope 요청 동안 열려 있던 구간
+     * @param responseCommitted 응답이 이미 전송되기 시작했는지 여부
+     */
+    public void checkRequest(String method, String uri, SqlStatementScope scope, boolean responseCommitted) {
+        if (requestExclude.contains(uri)) {
+            return;
+        }
+        check("요청 " + method + " " + uri, scope, requestMax, !responseCommitted && canFailRequest(method));
+    }
+
+    /**
+     * DirectoryService 작업 하나의 SQL 실행을 검사합니다.
+     *
+     * @param scope 작업 동안 열려 있던 구간 (이름은 작업 이름)
+     */
+    public void checkOperation(SqlStatementScope scope) {
+        check("작업 " + scope.getName(), scope, operationMax, true);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @param method HTTP 메소드
+     * @return 예산을 넘으면 요청을 오류로 바꿀 수 있는지 여부 (fail 모드의 조회 요청)
+     */
+    public boolean canFailRequest(String method) {
+        return mode == Mode.FAIL && SAFE_METHODS.contains(method);
+    }
+
+    private void check(String target, SqlStatementScope scope, int max, boolean failable) {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        Map<String, Integer> repeated = scope.getRepeatedShapes(repeatMax + 1);
+        if (scope.getStatements() <= max && repeated.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder()
+            .append("SQL 예산 초과 - ").append(target)
+            .append(", 실행 수: ").append(scope.getStatements()).append(" (한도 ").append(max).append(")");
+        if (!repeated.isEmpty()) {
+            message.append(", 반복된 문장 (한도 ").append(repeatMax).append("회):");
+            repeated.forEach((shape, count) -> message.append("\n  [").append(count).append("회] ").append(shape));
+        }
+        if (mode == Mode.FAIL && failable) {
+            throw new SqlBudgetExceededException(message.toString(), scope);
+        }
+        if (mode == Mode.FAIL) {
+            log.error(message.toString());
+        } else {
+            log.warn(message.toString());
+        }
+    }
+}
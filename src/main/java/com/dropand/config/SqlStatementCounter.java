@@ -0,0 +1,159 @@
+package com.dropand.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * 실행된 SQL 수를 스레드별로 세는 데이터소스 래퍼
+ *
+ * 주요 기능:
+ * 1. 컨텍스트의 DataSource 빈을 감싸 JPA와 JDBC 템플릿이 실행하는 모든 문장을 드라이버 바로 앞에서 셈
+ * 2. execute/executeQuery/executeUpdate/executeBatch 호출 하나를 DB 왕복 한 번으로 셈
+ * 3. JDBC 배치에 추가된 행 수(addBatch)는 따로 셈
+ * 4. 열려 있는 SqlStatementScope가 있으면 실행된 문장을 모양별로 기록
+ *
+ * 값은 스레드마다 계속 늘어나기만 하므로, 요청이나 작업 전후의 차이로 그 안에서 실행된 수를 구합니다.
+ * 문장 모양까지 필요하면 open()으로 구간을 엽니다.
+ * 스트리밍 응답처럼 다른 스레드에서 실행된 문장은 그 스레드에 더해집니다.
+ */
+@Component
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    /**
+     * 스레드별 [실행 수, 배치 행 수]
+     */
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * 스레드별로 현재 열려 있는 가장 안쪽 구간
+     */
+    private static final ThreadLocal<SqlStatementScope> CURRENT_SCOPE = new ThreadLocal<>();
+
+    /**
+     * @return 현재 스레드에서 지금까지 실행된 SQL 수 (배치 실행은 한 번)
+     */
+    public static long statements() {
+        return COUNTS.get()[0];
+    }
+
+    /**
+     * @return 현재 스레드에서 지금까지 JDBC 배치에 추가된 행 수
+     */
+    public static long batchedRows() {
+        return COUNTS.get()[1];
+    }
+
+    /**
+     * 현재 스레드에서 실행되는 SQL을 모양별로 기록하는 구간을 엽니다.
+     * 이미 열린 구간이 있으면 그 안에 중첩됩니다.
+     *
+     * @param name 구간 이름
+     * @return 열린 구간 (try-with-resources로 닫음)
+     */
+    public static SqlStatementScope open(String name) {
+        SqlStatementScope scope = new SqlStatementScope(name, CURRENT_SCOPE.get());
+        CURRENT_SCOPE.set(scope);
+        return scope;
+    }
+
+    static void closed(SqlStatementScope scope) {
+        if (CURRENT_SCOPE.get() != scope) {
+            return;
+        }
+        if (scope.getParent() != null) {
+            CURRENT_SCOPE.set(scope.getParent());
+        } else {
+            CURRENT_SCOPE.remove();
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, null);
+        }
+        return bean;
+    }
+
+    private static Object proxy(Class<?> type, Object target, String sql) {
+        return Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type},
+            new CountingHandler(target, sql));
+    }
+
+    /**
+     * 연결과 문장 객체를 차례로 감싸며 실행 호출을 세는 처리기
+     */
+    private static final class CountingHandler implements InvocationHandler {
+        private final Object target;
+
+        /**
+         * PreparedStatement를 만들 때 넘겨진 SQL (그 외에는 null)
+         */
+        private final String sql;
+        private String shape;
+
+        private CountingHandler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("unwrap") || name.equals("isWrapperFor")) {
+                return method.invoke(target, args);
+            }
+            if (target instanceof Statement) {
+                if (name.startsWith("execute")) {
+                    COUNTS.get()[0]++;
+                    SqlStatementScope scope = CURRENT_SCOPE.get();
+                    if (scope != null) {
+                        scope.record(shapeOf(args));
+                    }
+                } else if (name.equals("addBatch")) {
+                    COUNTS.get()[1]++;
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            Class<?> returnType = method.getReturnType();
+            if (result != null && returnType.isInterface()
+                && (returnType == Connection.class || Statement.class.isAssignableFrom(returnType))) {
+                String preparedSql = name.startsWith("prepare") && args != null && args[0] instanceof String text
+                    ? text : null;
+                return proxy(returnType, result, preparedSql);
+            }
+            return result;
+        }
+
+        /**
+         * 실행할 문장의 모양을 구합니다.
+         * PreparedStatement는 만들 때의 SQL을 한 번만 변환해 재사용하고,
+         * Statement.execute(sql)처럼 실행할 때 SQL을 넘기면 그 SQL을 변환합니다.
+         */
+        private String shapeOf(Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String text) {
+                return SqlStatementScope.shapeOf(text);
+            }
+            if (shape == null) {
+                shape = sql != null ? SqlStatementScope.shapeOf(sql) : "(batch)";
+            }
+            return shape;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.dropand.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * API 요청 하나가 실행한 SQL 수를 기록하는 필터
+ *
+ * 주요 기능:
+ * 1. /api/ 요청 전후의 SQL 실행 수 차이를 http.server.requests.sql.statements 분포로 기록
+ * 2. Actuator의 http.server.requests 타이머와 같은 method, uri 태그를 붙여 지연 시간과 나란히 볼 수 있게 함
+ * 3. 요청이 정상 처리되면 SQL 예산을 검사 (한도 초과와 반복된 문장 모양 보고)
+ *    fail 모드의 조회 요청은 검사가 끝날 때까지 응답 flush를 미뤄, 예산을 넘으면 본문 대신 오류로 응답할 수 있게 함
+ *    (응답이 컨테이너 버퍼보다 커서 이미 전송되었거나 변경 요청이면 오류 로그만 남김)
+ *
+ * uri 태그는 매핑된 경로 패턴(/api/directories/{id} 등)이므로 디렉토리 ID마다 지표가 늘어나지 않습니다.
+ * 스트리밍 응답처럼 요청 스레드가 끝난 뒤 실행된 문장은 포함되지 않습니다.
+ */
+@Component
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final SqlStatementBudget sqlBudget;
+
+    public SqlStatementMetricsFilter(MeterRegistry registry, SqlStatementBudget sqlBudget) {
+        this.registry = registry;
+        this.sqlBudget = sqlBudget;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        DeferredFlushResponse deferred = sqlBudget.canFailRequest(request.getMethod())
+            ? new DeferredFlushResponse(response) : null;
+        try (SqlStatementScope scope = SqlStatementCounter.open(request.getMethod() + " " + request.getRequestURI())) {
+            try {
+                filterChain.doFilter(request, deferred != null ? deferred : response);
+            } finally {
+                DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("API 요청 하나가 실행한 SQL 수")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uriPattern(request))
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(scope.getStatements());
+            }
+            if (request.isAsyncStarted()) {
+                // 스트리밍 응답은 다른 스레드에서 기록되므로 이 구간으로는 판단할 수 없음
+                if (deferred != null) {
+                    deferred.release();
+                }
+                return;
+            }
+            try {
+                sqlBudget.checkRequest(request.getMethod(), uriPattern(request), scope, response.isCommitted());
+            } catch (SqlBudgetExceededException e) {
+                response.resetBuffer();
+                throw e;
+            }
+            if (deferred != null) {
+                deferred.release();
+            }
+        }
+    }
+
+    /**
+     * 예산 검사가 끝날 때까지 응답 flush를 미뤄 응답이 전송되지 않게 하는 래퍼
+     * 기록한 내용은 컨테이너 버퍼에 쌓이며, 버퍼가 가득 차면 컨테이너가 전송합니다.
+     */
+    private static final class DeferredFlushResponse extends HttpServletResponseWrapper {
+        private boolean deferring = true;
+        private boolean flushRequested;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private DeferredFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream target = getResponse().getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        target.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        if (deferring) {
+                            flushRequested = true;
+                        } else {
+                            target.flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (deferring) {
+                flushRequested = true;
+            } else {
+                getResponse().flushBuffer();
+            }
+        }
+
+        /**
+         * 미뤄 둔 flush를 실행하고 이후 flush는 바로 전달합니다.
+         */
+        private void release() throws IOException {
+            deferring = false;
+            if (writer != null) {
+                writer.flush();
+            }
+            if (flushRequested) {
+                getResponse().flushBuffer();
+            }
+        }
+    }
+
+    private static String uriPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
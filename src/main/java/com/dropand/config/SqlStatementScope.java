@@ -0,0 +1,131 @@
+package com.dropand.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 한 구간(HTTP 요청, 서비스 작업 등) 안에서 실행된 SQL을 문장 모양별로 세는 클래스
+ *
+ * 주요 기능:
+ * 1. 구간이 열려 있는 동안 현재 스레드에서 실행된 SQL 수를 셈 (배치 실행은 한 번)
+ * 2. 값만 다른 문장을 같은 모양으로 묶어 모양별 실행 수를 기록 (N+1 패턴 탐지용)
+ * 3. 구간은 중첩할 수 있으며, 안쪽 구간의 문장은 바깥 구간에도 함께 기록
+ *
+ * SqlStatementCounter.open()으로 열고 try-with-resources로 닫습니다.
+ * 같은 스레드에서 실행된 문장만 기록하므로, 스트리밍 응답처럼 다른 스레드에서 실행된 문장은 포함되지 않습니다.
+ *
+ * 사용 예 (쿼리 수 검증):
+ * <pre>
+ * try (SqlStatementScope scope = SqlStatementCounter.open("tree")) {
+ *     mockMvc.perform(get("/api/directories/tree"));
+ *     assertEquals(0, scope.getStatements()); // 캐시된 스냅샷만 읽음
+ * }
+ * </pre>
+ */
+public final class SqlStatementScope implements AutoCloseable {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String name;
+    private final SqlStatementScope parent;
+
+    /**
+     * 문장 모양별 실행 수 (처음 실행된 순서)
+     */
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+    private long statements;
+    private boolean closed;
+
+    SqlStatementScope(String name, SqlStatementScope parent) {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    /**
+     * SQL을 문장 모양으로 바꿉니다.
+     * 문자열과 숫자 리터럴은 ?로, 여러 개의 바인딩 변수 목록 (?, ?, ...)은 (?...)로 바꾸고 공백을 하나로 줄입니다.
+     *
+     * @param sql 실행된 SQL
+     * @return 문장 모양
+     */
+    public static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * 이 구간과 바깥 구간들에 문장 하나를 기록합니다.
+     */
+    void record(String shape) {
+        for (SqlStatementScope scope = this; scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    SqlStatementScope getParent() {
+        return parent;
+    }
+
+    /**
+     * @return 구간 이름
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return 이 구간에서 실행된 SQL 수
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * @param shape 문장 모양 (shapeOf()의 결과)
+     * @return 해당 모양의 문장이 실행된 수
+     */
+    public int getCount(String shape) {
+        return shapes.getOrDefault(shape, 0);
+    }
+
+    /**
+     * @return 문장 모양별 실행 수 (처음 실행된 순서)
+     */
+    public Map<String, Integer> getShapes() {
+        return Collections.unmodifiableMap(shapes);
+    }
+
+    /**
+     * 주어진 횟수 이상 반복된 문장 모양을 실행 수가 많은 순서로 반환합니다.
+     *
+     * @param minCount 최소 실행 수
+     * @return 문장 모양별 실행 수
+     */
+    public Map<String, Integer> getRepeatedShapes(int minCount) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+            .filter(entry -> entry.getValue() >= minCount)
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    /**
+     * 구간을 닫고 현재 스레드의 구간을 바깥 구간으로 되돌립니다.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            SqlStatementCounter.closed(this);
+        }
+    }
+}
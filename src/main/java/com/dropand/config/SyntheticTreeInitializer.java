@@ -0,0 +1,69 @@
+package com.dropand.config;
+
+import com.dropand.dto.DirectoryRestoreResponse;
+import com.dropand.service.DirectoryService;
+import com.dropand.service.DirectoryTreeGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 애플리케이션 시작 시 대규모 합성 디렉토리 트리를 만드는 클래스
+ *
+ * 주요 기능:
+ * 1. dropand.synthetic.nodes가 1 이상이면 초기 데이터 대신 지정한 모양의 합성 트리로 교체
+ * 2. 최대 깊이, 자식 수 분포, 이름 길이, 시드를 설정으로 지정하여 운영 규모의 트리를 로컬에서 재현
+ *
+ * 초기 데이터(data.sql, TestDataInitializer)가 모두 적재된 뒤 실행되며,
+ * 시작 시 복원할 스냅샷(dropand.snapshot.restore-path)이 지정되어 있으면 복원을 우선하고 생성하지 않습니다.
+ * 설정이 올바르지 않으면 애플리케이션이 시작되지 않습니다.
+ */
+
+@Component
+public class SyntheticTreeInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticTreeInitializer.class);
+
+    private final DirectoryService directoryService;
+    private final int nodes;
+    private final int maxDepth;
+    private final String fanOut;
+    private final int nameLength;
+    private final long seed;
+    private final String restorePath;
+
+    public SyntheticTreeInitializer(DirectoryService directoryService,
+                                    @Value("${dropand.synthetic.nodes:0}") int nodes,
+                                    @Value("${dropand.synthetic.max-depth:8}") int maxDepth,
+                                    @Value("${dropand.synthetic.fan-out:uniform:1-16}") String fanOut,
+                                    @Value("${dropand.synthetic.name-length:8}") int nameLength,
+                                    @Value("${dropand.synthetic.seed:1}") long seed,
+                                    @Value("${dropand.snapshot.restore-path:}") String restorePath) {
+        this.directoryService = directoryService;
+        this.nodes = nodes;
+        this.maxDepth = maxDepth;
+        this.fanOut = fanOut;
+        this.nameLength = nameLength;
+        this.seed = seed;
+        this.restorePath = restorePath;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateTree() {
+        if (nodes <= 0) {
+            return;
+        }
+        if (restorePath != null && !restorePath.isBlank()) {
+            log.warn("시작 시 복원할 스냅샷이 지정되어 있어 합성 트리를 만들지 않습니다 - 파일: {}", restorePath);
+            return;
+        }
+        DirectoryTreeGenerator generator = new DirectoryTreeGenerator(nodes, maxDepth,
+            DirectoryTreeGenerator.FanOut.parse(fanOut), nameLength, seed);
+        DirectoryRestoreResponse response = directoryService.generateTree(generator);
+        log.info("시작 시 합성 트리 생성 완료 - 디렉토리 수: {}, 최대 깊이: {}, 자식 수 분포: {}, 소요 시간: {}ms",
+            response.getRestoredCount(), maxDepth, fanOut, response.getElapsedMillis());
+    }
+}
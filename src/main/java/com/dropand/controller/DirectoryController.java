@@ -1,18 +1,35 @@
 package com.dropand.controller;
 
 import com.dropand.domain.Directory;
+import com.dropand.dto.DeleteDirectoryResponse;
+import com.dropand.dto.DirectoryChangesResponse;
 import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.dto.DirectoryTreeDto;
 import com.dropand.dto.MoveDirectoryRequest;
 import com.dropand.dto.CreateDirectoryRequest;
+import com.dropand.service.DirectoryBusyException;
+import com.dropand.service.DirectoryConflictException;
 import com.dropand.service.DirectoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * 디렉토리 관련 REST API를 처리하는 컨트롤러
@@ -29,6 +46,7 @@ import java.util.List;
 @CrossOrigin(
     origins = "*",
     allowedHeaders = "*",
+    exposedHeaders = DirectoryController.COMMITTED_SEQUENCE_HEADER,
     methods = {
         RequestMethod.GET,
         RequestMethod.POST,
@@ -40,6 +58,33 @@ import java.util.List;
 public class DirectoryController {
 
     private static final Logger log = LoggerFactory.getLogger(DirectoryController.class);
+
+    /**
+     * ETag 구분용 기동 시각 (36진수)
+     */
+    private static final String ETAG_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * 변경 API 응답에 담는 커밋된 변경의 저널 순번 헤더
+     * 트리 조회 API에 minSequence로 보내면 그 변경이 반영된 트리를 받습니다.
+     */
+    public static final String COMMITTED_SEQUENCE_HEADER = "X-Directory-Sequence";
+
+    /**
+     * 열 단위 배열 형식 (JSON)
+     */
+    public static final String COLUMNAR_JSON_VALUE = "application/vnd.dropand.columnar+json";
+
+    /**
+     * 열 단위 배열 형식 (바이너리, 리틀 엔디언)
+     */
+    public static final String COLUMNAR_BINARY_VALUE = "application/vnd.dropand.columnar";
+
+    /**
+     * 스냅샷 파일 이름에 넣는 시각 형식
+     */
+    private static final DateTimeFormatter SNAPSHOT_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     private final DirectoryService directoryService;
 
     public DirectoryController(DirectoryService directoryService) {
@@ -59,16 +104,269 @@ public class DirectoryController {
         return ResponseEntity.ok(directoryService.getAllDirectories());
     }
 
+    /**
+     * 전체 디렉토리 트리를 열 단위 배열 형식으로 조회하는 API
+     * Accept 헤더가 application/vnd.dropand.columnar+json이면 JSON 배열, application/vnd.dropand.columnar이면
+     * 바이너리 형식으로 응답합니다. 전위 순서의 ids, parentIds(루트는 0), sortOrders, nameIndexes 배열과
+     * 중복 없는 names 표로 구성되며, path는 부모를 따라 클라이언트가 계산합니다.
+     * 트리 조회 API와 같은 ETag와 minSequence를 사용합니다.
+     * 
+     * @param accept 요청한 형식
+     * @param minSequence 반영되어 있어야 하는 저널 순번 (선택, 변경 API 응답의 X-Directory-Sequence)
+     * @param ifNoneMatch 클라이언트가 가진 ETag (선택)
+     * @return 인코딩된 트리
+     */
+    @GetMapping(produces = {COLUMNAR_JSON_VALUE, COLUMNAR_BINARY_VALUE})
+    public ResponseEntity<byte[]> getColumnarTree(
+            @RequestHeader(HttpHeaders.ACCEPT) String accept,
+            @RequestParam(required = false) Long minSequence,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean binary = !accept.contains(COLUMNAR_JSON_VALUE);
+        log.debug("열 단위 트리 조회 요청 - 바이너리: {}", binary);
+        awaitSequence(minSequence);
+        String etag = etag(binary ? "tree-bin" : "tree-cols", directoryService.getTreeVersion());
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return conditional(etag)
+            .contentType(MediaType.parseMediaType(binary ? COLUMNAR_BINARY_VALUE : COLUMNAR_JSON_VALUE))
+            .body(directoryService.getColumnarTree(binary));
+    }
+
+    /**
+     * 전체 디렉토리 목록을 스트리밍으로 조회하는 API (stream=true)
+     * 엔티티 그래프 대신 DB에서 한 행씩 읽어 바로 기록하므로 디렉토리 수와 관계없이 메모리 사용량이 일정합니다.
+     * 각 항목은 하위 목록 없이 parentId로 부모를 가리키는 평면 형태입니다.
+     * 
+     * @return 전체 디렉토리 평면 목록
+     */
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDirectories() {
+        log.debug("전체 디렉토리 목록 스트리밍 요청");
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(directoryService.streamAllDirectories());
+    }
+
+    /**
+     * 디렉토리 트리를 조회하는 API
+     * depth를 지정하면 해당 단계까지만 반환하며, 각 노드의 childCount/hasChildren으로
+     * 잘린 하위 디렉토리 존재 여부를 알려줍니다.
+     * 
+     * 트리 버전으로 만든 ETag를 함께 보내며, If-None-Match가 현재 ETag와 같으면
+     * 트리를 조회하거나 직렬화하지 않고 304 Not Modified로 응답합니다.
+     * 
+     * 변경 API는 트리 스냅샷 갱신을 기다리지 않고 응답하므로, 자신의 변경이 반영된 트리가 필요하면
+     * 변경 응답의 X-Directory-Sequence 값을 minSequence로 보냅니다. 그 순번이 반영될 때까지 기다렸다가 응답합니다.
+     * 
+     * @param depth 포함할 단계 수 (선택, 1이면 루트 디렉토리만)
+     * @param minSequence 반영되어 있어야 하는 저널 순번 (선택)
+     * @param ifNoneMatch 클라이언트가 가진 ETag (선택)
+     * @return 루트 디렉토리 목록 (하위 디렉토리 포함)
+     */
     @GetMapping(value = "/tree", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Directory>> getDirectoryTree() {
-        log.debug("디렉토리 트리 조회 요청");
-        return ResponseEntity.ok(directoryService.getDirectoryTree());
+    public ResponseEntity<?> getDirectoryTree(
+            @RequestParam(required = false) Integer depth,
+            @RequestParam(required = false) Long minSequence,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("디렉토리 트리 조회 요청 - 깊이: {}", depth);
+        awaitSequence(minSequence);
+        String etag = etag("tree", directoryService.getTreeVersion());
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (depth == null) {
+            return conditional(etag).body(directoryService.getDirectoryTree());
+        }
+        try {
+            return conditional(etag).body(directoryService.getDirectoryTree(depth));
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 트리 조회 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 
+    /**
+     * 디렉토리 트리를 스트리밍으로 조회하는 API (stream=true)
+     * 형식과 ETag, minSequence 처리는 트리 조회 API와 같지만, 응답 객체 사본을 만들지 않고 스냅샷을 순회하며 바로 기록하므로
+     * 큰 트리에서도 메모리 사용이 늘지 않고 첫 바이트가 곧바로 전송됩니다.
+     * 
+     * @param depth 포함할 단계 수 (선택, 1이면 루트 디렉토리만)
+     * @param minSequence 반영되어 있어야 하는 저널 순번 (선택)
+     * @param ifNoneMatch 클라이언트가 가진 ETag (선택)
+     * @return 루트 디렉토리 목록 (하위 디렉토리 포함)
+     */
+    @GetMapping(value = "/tree", params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDirectoryTree(
+            @RequestParam(required = false) Integer depth,
+            @RequestParam(required = false) Long minSequence,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("디렉토리 트리 스트리밍 요청 - 깊이: {}", depth);
+        awaitSequence(minSequence);
+        String etag = etag("tree", directoryService.getTreeVersion());
+        if (isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        try {
+            return conditional(etag).contentType(MediaType.APPLICATION_JSON)
+                .body(directoryService.streamDirectoryTree(depth));
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 트리 스트리밍 실패 - 잘못된 요청: {}", e.getMessage());
+            byte[] error = ("{\"error\": \"" + e.getMessage() + "\"}").getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(error));
+        }
+    }
+
+    /**
+     * 경로로 디렉토리를 조회하는 API
+     * 메모리 경로 색인으로 찾으므로 트리를 내려받거나 단계별로 조회하지 않아도 됩니다.
+     * 
+     * @param path 디렉토리 경로 (예: /a/b/c)
+     * @param depth 포함할 단계 수 (선택, 기본 1이면 디렉토리 자신만, 2면 직계 하위 디렉토리까지)
+     * @return 디렉토리 정보 (없으면 404)
+     */
+    @GetMapping(value = "/by-path", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getDirectoryByPath(
+            @RequestParam String path,
+            @RequestParam(required = false, defaultValue = "1") int depth) {
+        log.debug("경로로 디렉토리 조회 요청 - 경로: {}, 깊이: {}", path, depth);
+        try {
+            Optional<DirectoryTreeDto> directory = directoryService.getDirectoryByPath(path, depth);
+            if (directory.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "디렉토리를 찾을 수 없습니다: " + path));
+            }
+            return ResponseEntity.ok(directory.get());
+        } catch (IllegalArgumentException e) {
+            log.error("경로로 디렉토리 조회 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * 이름으로 디렉토리를 검색하는 API
+     * 일치 정도 순으로 정렬된 결과를 경로와 함께 반환하며, 응답의 nextCursor를 cursor로 넘기면 다음 페이지를 조회합니다.
+     * 
+     * @param q 검색어 (3글자 이상이면 부분 일치, 1~2글자면 앞부분 일치)
+     * @param limit 페이지 크기 (선택, 기본 20)
+     * @param cursor 이전 페이지의 nextCursor (선택)
+     * @return 검색 결과 페이지
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> searchDirectories(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor) {
+        log.debug("디렉토리 검색 요청 - 검색어: {}, limit: {}, cursor: {}", q, limit, cursor);
+        try {
+            return ResponseEntity.ok(directoryService.searchDirectories(q, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 검색 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * 하위 디렉토리 목록을 조회하는 API
+     * limit을 지정하면 (정렬 순서, ID) 기준 키셋 페이지네이션으로 한 페이지만 반환하고,
+     * 응답의 nextCursor를 cursor로 넘기면 다음 페이지를 조회합니다.
+     * depth를 지정하면 (limit 없이) 해당 단계까지의 하위 트리를 반환합니다.
+     * 둘 다 없으면 기존과 같이 전체 목록을 반환합니다.
+     * 
+     * 부모 디렉토리의 하위 트리 버전으로 만든 ETag를 함께 보내므로, 다른 하위 트리가 바뀌어도
+     * 이 응답의 ETag는 유지됩니다. If-None-Match가 같으면 조회 없이 304로 응답합니다.
+     * minSequence는 트리 조회 API와 같이 그 순번이 반영된 하위 트리 버전을 기다립니다.
+     * 
+     * @param parentId 부모 디렉토리 ID
+     * @param limit 페이지 크기 (선택)
+     * @param cursor 이전 페이지의 nextCursor (선택)
+     * @param depth 포함할 단계 수 (선택, 1이면 직계 하위 디렉토리만)
+     * @param minSequence 반영되어 있어야 하는 저널 순번 (선택)
+     * @param ifNoneMatch 클라이언트가 가진 ETag (선택)
+     * @return 하위 디렉토리 목록 또는 페이지
+     */
     @GetMapping(value = "/{parentId}/children", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Directory>> getSubDirectories(@PathVariable Long parentId) {
-        log.debug("하위 디렉토리 조회 요청 - 부모 ID: {}", parentId);
-        return ResponseEntity.ok(directoryService.getSubDirectories(parentId));
+    public ResponseEntity<?> getSubDirectories(
+            @PathVariable Long parentId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer depth,
+            @RequestParam(required = false) Long minSequence,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("하위 디렉토리 조회 요청 - 부모 ID: {}, limit: {}, cursor: {}, 깊이: {}", parentId, limit, cursor, depth);
+        awaitSequence(minSequence);
+        // 존재하지 않는 디렉토리는 버전이 없으므로 ETag 없이 기존 오류 응답으로 처리
+        Long subtreeVersion = directoryService.getSubtreeVersion(parentId);
+        String etag = subtreeVersion != null ? etag("subtree-" + parentId, subtreeVersion) : null;
+        if (etag != null && isNotModified(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (limit == null && depth == null) {
+            return conditional(etag).body(directoryService.getSubDirectories(parentId));
+        }
+        try {
+            if (limit == null) {
+                return conditional(etag).body(directoryService.getSubDirectoryTree(parentId, depth));
+            }
+            return conditional(etag).body(directoryService.getSubDirectoryPage(parentId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            log.error("하위 디렉토리 조회 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * 지정한 순번 이후의 변경 내역을 조회하는 API
+     * 전체 트리를 다시 받지 않고 응답의 changes만 순서대로 반영한 뒤,
+     * latestSequence를 다음 요청의 since로 보내면 됩니다.
+     * since가 없거나 저널에서 이미 밀려난 순번이면 truncated=true와 함께 전체 트리(snapshot)를 반환합니다.
+     * 
+     * @param since 마지막으로 반영한 순번 (선택, 처음이면 생략)
+     * @return 변경 내역 또는 전체 스냅샷
+     */
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DirectoryChangesResponse> getChanges(@RequestParam(required = false) Long since) {
+        log.debug("변경 내역 조회 요청 - since: {}", since);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .body(directoryService.getChanges(since));
+    }
+
+    /**
+     * 커밋된 디렉토리 변경을 실시간으로 받는 SSE 구독 API
+     * 각 이벤트는 event: change, id: 변경 순번, data: 변경 항목(JSON)으로 전달되며,
+     * 처음 연결하면 현재 순번을 담은 ready 이벤트를 먼저 받습니다.
+     * 재연결 시 브라우저가 보내는 Last-Event-ID 이후의 변경을 빠짐없이 다시 보내고,
+     * 이어갈 수 없으면 reset 이벤트를 보냅니다(전체 트리를 다시 조회해야 함).
+     * 
+     * @param lastEventId 마지막으로 받은 이벤트 ID (선택, 재연결 시 브라우저가 자동으로 보냄)
+     * @return SSE 스트림
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("변경 이벤트 구독 요청 - Last-Event-ID: {}", lastEventId);
+        Long since = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                since = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // 알 수 없는 ID는 이어갈 수 없는 순번으로 취급하여 reset 이벤트를 보냄
+                since = Long.MIN_VALUE;
+            }
+        }
+        return directoryService.subscribeChanges(since);
     }
 
     /**
@@ -104,10 +402,12 @@ public class DirectoryController {
                 directory.getId(), directory.getName(), directory.getPath(),
                 directory.getParent() != null ? directory.getParent().getId() : null);
             
-            return ResponseEntity.ok()
+            return committed()
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(directory);
                 
+        } catch (DirectoryConflictException e) {
+            return handleConflict(e);
         } catch (IllegalArgumentException e) {
             log.error("디렉토리 생성 실패 - 잘못된 요청: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -121,17 +421,84 @@ public class DirectoryController {
         }
     }
 
+    /**
+     * NDJSON으로 디렉토리 계층을 한 번에 가져오는 API
+     * 한 줄에 하나씩 {"id": 임시 ID, "parentId": 부모 임시 ID, "name": 이름, "order": 순서}를 보내며,
+     * 부모 임시 ID가 없는 줄은 parentId 디렉토리(없으면 루트) 바로 아래에 생성됩니다.
+     * 잘못된 줄은 그 하위 줄과 함께 거부되고 나머지는 생성되며, 응답에 거부 사유와 처리 속도를 담습니다.
+     * 
+     * @param parentId 가져오기 대상 디렉토리 ID (선택)
+     * @param body NDJSON 요청 본문
+     * @return 생성/거부 건수, 거부 사유, 처리 속도
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importDirectories(
+            @RequestParam(required = false) Long parentId,
+            InputStream body) {
+        try {
+            return committed().body(directoryService.importDirectories(parentId, body));
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 가져오기 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * 전체 디렉토리 테이블을 스냅샷 파일로 내려받는 API
+     * 필드 이름 없는 바이너리 레코드를 DB에서 읽는 대로 바로 전송하며, 복원 API로 그대로 되돌릴 수 있습니다.
+     * 
+     * @return 스냅샷 파일 (첨부 파일)
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        log.debug("디렉토리 스냅샷 내보내기 요청");
+        String fileName = "directories-" + SNAPSHOT_FILE_TIME.format(LocalDateTime.now()) + ".snapshot";
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .cacheControl(CacheControl.noStore())
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString())
+            .body(directoryService.exportSnapshot());
+    }
+
+    /**
+     * 스냅샷 파일로 전체 디렉토리를 교체하는 API
+     * 내보내기 API로 받은 파일을 본문으로 보내며, 기존 디렉토리는 모두 지워지고 ID와 버전까지 그대로 복원됩니다.
+     * 형식이 올바르지 않으면 기존 디렉토리는 바뀌지 않습니다.
+     * 
+     * @param body 스냅샷 파일 내용
+     * @return 삭제/복원 건수와 처리 속도
+     */
+    @PostMapping(value = "/restore", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> restoreSnapshot(InputStream body) {
+        try {
+            return committed().body(directoryService.restoreSnapshot(body));
+        } catch (IllegalArgumentException e) {
+            log.error("디렉토리 스냅샷 복원 실패 - 잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
     /**
      * 디렉토리를 삭제하는 API
      * HTTP DELETE 요청을 처리합니다.
      * 
+     * 하위 디렉토리까지 함께 삭제되며, 삭제된 전체 디렉토리 수를 반환합니다.
+     * 
      * @param id 삭제할 디렉토리의 ID
-     * @return 삭제 성공 여부
+     * @return 삭제된 디렉토리 수
      */
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteDirectory(@PathVariable Long id) {
-        directoryService.deleteDirectory(id);
-        return ResponseEntity.ok().build();
+    @DeleteMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeleteDirectoryResponse> deleteDirectory(@PathVariable Long id) {
+        int deletedCount = directoryService.deleteDirectory(id);
+        log.info("디렉토리 삭제 완료 - ID: {}, 삭제된 디렉토리 수: {}", id, deletedCount);
+        return committed().body(new DeleteDirectoryResponse(id, deletedCount));
     }
 
     /**
@@ -139,33 +506,27 @@ public class DirectoryController {
      * HTTP POST 요청을 처리합니다.
      * 
      * @param id 이동할 디렉토리의 ID
-     * @param request 이동할 대상 디렉토리의 ID와 정렬 순서
-     * @return 이동된 디렉토리 정보
+     * @param request 이동할 대상 디렉토리의 ID와 정렬 순서 (또는 기준 형제 afterId/beforeId), 마지막으로 본 버전(선택)
+     * @return 이동된 디렉토리 정보 (버전 충돌 시 409)
      */
     @PostMapping("/{id}/move")
     public ResponseEntity<Void> moveDirectory(
             @PathVariable Long id,
             @RequestBody MoveDirectoryRequest request) {
         if (request.getSortOrder() == null) {
-            List<Directory> siblings = request.getParentId() == null ?
-                directoryService.getDirectoryTree() :
-                directoryService.getSubDirectories(request.getParentId());
-            
-            int maxSortOrder = siblings.stream()
-                .mapToInt(Directory::getSortOrder)
-                .max()
-                .orElse(0);
-            request.setSortOrder(maxSortOrder + 1);
+            // 정렬 순서를 지정하지 않으면 기준 형제(afterId/beforeId) 사이 또는 맨 끝에 배치
+            directoryService.moveDirectory(id, request.getParentId(), request.getAfterId(), request.getBeforeId(),
+                request.getVersion());
+        } else {
+            directoryService.moveDirectory(id, request.getParentId(), request.getSortOrder(), request.getVersion());
         }
-        
-        directoryService.moveDirectory(id, request.getParentId(), request.getSortOrder());
-        return ResponseEntity.ok().build();
+        return committed().build();
     }
 
     @PutMapping("/order")
     public ResponseEntity<Void> updateDirectoryOrder(@RequestBody List<DirectoryOrderDto> orderList) {
         directoryService.updateDirectoryOrder(orderList);
-        return ResponseEntity.ok().build();
+        return committed().build();
     }
 
     @PutMapping("/{id}/move")
@@ -174,6 +535,112 @@ public class DirectoryController {
             @RequestBody DirectoryOrderDto orderDto) {
         orderDto.setId(id);
         directoryService.updateDirectoryOrder(List.of(orderDto));
-        return ResponseEntity.ok().build();
+        return committed().build();
+    }
+
+    /**
+     * 변경 API의 200 응답을 만들면서, 이 요청이 커밋한 변경의 저널 순번을 헤더에 담습니다.
+     * 변경 작업은 트리 스냅샷 갱신을 기다리지 않으므로, 클라이언트는 이 순번을 트리 조회의 minSequence로 보내
+     * 자신의 변경이 반영된 트리를 받을 수 있습니다. (변경 내역 조회와 SSE는 저널 순번을 그대로 사용)
+     */
+    private ResponseEntity.BodyBuilder committed() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        Long sequence = directoryService.takeCommittedSequence();
+        if (sequence != null) {
+            builder.header(COMMITTED_SEQUENCE_HEADER, Long.toString(sequence));
+        }
+        return builder;
+    }
+
+    /**
+     * 조회 요청에 minSequence가 있으면 그 순번이 반영된 트리 스냅샷이 공개될 때까지 기다립니다.
+     * 제한 시간이 지나면 그때의 스냅샷으로 응답합니다.
+     */
+    private void awaitSequence(Long minSequence) {
+        if (minSequence != null) {
+            directoryService.awaitTreeSequence(minSequence);
+        }
+    }
+
+    /**
+     * 버전으로 강한 ETag를 만듭니다.
+     * 버전 카운터는 재시작하면 처음부터 다시 세므로, 재시작 전 ETag와 겹치지 않도록 기동 시각을 함께 넣습니다.
+     */
+    private static String etag(String scope, long version) {
+        return "\"" + scope + "-" + ETAG_EPOCH + "-" + version + "\"";
+    }
+
+    /**
+     * If-None-Match 헤더의 ETag 목록 중 하나라도 현재 ETag와 같은지 확인합니다. (약한 비교)
+     */
+    private static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .build();
+    }
+
+    /**
+     * ETag와 함께 200 응답을 만듭니다.
+     * 기본 보안 헤더(no-store) 대신 no-cache를 지정해 브라우저가 응답을 보관하고 If-None-Match로 재검증하도록 합니다.
+     */
+    private static ResponseEntity.BodyBuilder conditional(String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (etag != null) {
+            builder.eTag(etag).cacheControl(CacheControl.noCache());
+        }
+        return builder;
+    }
+
+    /**
+     * 동시 변경 충돌을 409 Conflict로 응답합니다.
+     * 클라이언트는 응답의 currentVersion(또는 다시 조회한 트리)으로 요청을 다시 보낼 수 있습니다.
+     *
+     * @param e 충돌 예외
+     * @return 충돌한 디렉토리 ID와 현재 버전
+     */
+    @ExceptionHandler(DirectoryConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(DirectoryConflictException e) {
+        log.warn("디렉토리 변경 충돌 - ID: {}, 현재 버전: {}, 사유: {}", e.getDirectoryId(), e.getCurrentVersion(), e.getMessage());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", e.getMessage());
+        body.put("id", e.getDirectoryId());
+        body.put("currentVersion", e.getCurrentVersion());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    /**
+     * DB 작업 동시 실행 한도를 넘어 거절한 요청을 503 Service Unavailable로 응답합니다.
+     * Retry-After 헤더로 다시 시도하기까지 기다릴 시간을 알려줍니다.
+     *
+     * @param e 거절 예외
+     * @return 거절 사유
+     */
+    @ExceptionHandler(DirectoryBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleBusy(DirectoryBusyException e) {
+        // 과부하 상황에서 요청마다 남으면 로그가 넘치므로 디버그 수준으로 기록
+        log.debug("DB 작업 한도 초과로 요청 거절 - 사유: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("error", e.getMessage()));
     }
-} 
\ No newline at end of file
+}
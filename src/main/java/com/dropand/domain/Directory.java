@@ -13,10 +13,14 @@ import java.util.List;
  * 2. 계층 구조 관리 (부모-자식 관계)
  * 3. JPA 엔티티 매핑
  * 4. 디렉토리 조작을 위한 유틸리티 메서드 제공
+ * 5. 동시 수정 감지를 위한 낙관적 잠금 버전 관리
  */
 
 @Entity
-@Table(name = "directories")
+@Table(name = "directories", indexes = {
+    @Index(name = "idx_directories_parent_sort", columnList = "parent_id, sort_order, id"),
+    @Index(name = "uk_directories_path", columnList = "path", unique = true)
+})
 @JsonIdentityInfo(
     generator = ObjectIdGenerators.PropertyGenerator.class,
     property = "id"
@@ -29,11 +33,22 @@ public class Directory {
     @Column(nullable = false)
     private String name;
     
+    /**
+     * 루트부터의 전체 경로 (유니크 인덱스로 같은 경로의 디렉토리가 둘 이상 생기지 않음)
+     */
     @Column(nullable = false)
     private String path;
     
     @Column(name = "sort_order", nullable = false)
     private Integer sortOrder = 0;
+
+    /**
+     * 낙관적 잠금 버전
+     * 변경이 저장될 때마다 증가하며, 읽은 뒤 다른 트랜잭션이 먼저 변경했다면 저장이 실패합니다.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "parent_id")
@@ -66,6 +81,10 @@ public class Directory {
         return sortOrder;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Directory getParent() {
         return parent;
     }
@@ -112,6 +131,22 @@ public class Directory {
         }
     }
 
+    /**
+     * 부모 참조와 경로만 변경합니다.
+     * setParent와 달리 이전/새 부모의 children 컬렉션을 건드리지 않으므로 형제 목록 전체를 지연 로딩하지 않습니다.
+     * children은 mappedBy 쪽 컬렉션이라 저장되는 결과는 같습니다.
+     *
+     * @param parent 새 부모 디렉토리 (루트로 옮기면 null)
+     */
+    public void changeParent(Directory parent) {
+        this.parent = parent;
+        if (parent != null) {
+            this.path = parent.getPath() + "/" + this.name;
+        } else {
+            this.path = "/" + this.name;
+        }
+    }
+
     private void updatePath() {
         if (this.parent != null) {
             this.path = this.parent.getPath() + "/" + this.name;
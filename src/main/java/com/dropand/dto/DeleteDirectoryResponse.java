@@ -0,0 +1,30 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+
+/**
+ * 디렉토리 삭제 결과를 전달하는 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 삭제 요청한 디렉토리 ID 전달
+ * 2. 하위 디렉토리를 포함해 실제로 삭제된 디렉토리 수 전달
+ */
+
+@Getter
+public class DeleteDirectoryResponse {
+    private final Long id;
+    private final int deletedCount;
+
+    public DeleteDirectoryResponse(Long id, int deletedCount) {
+        this.id = id;
+        this.deletedCount = deletedCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+}
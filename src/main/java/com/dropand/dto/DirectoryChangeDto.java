@@ -0,0 +1,89 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+
+/**
+ * 변경 저널 항목 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 커밋된 변경 한 건을 순번(sequence)과 함께 전달
+ * 2. 작업 유형, 대상 ID, 이전/새 부모, 정렬 순서, 이전/새 경로를 담아 클라이언트가 트리에 바로 반영
+ * 
+ * 경로가 바뀐 항목(oldPath != path)의 하위 디렉토리 경로는 별도 항목 없이
+ * oldPath 접두사를 path로 바꾸어 반영합니다. 삭제 항목은 하위 트리 전체를 제거합니다.
+ */
+
+@Getter
+public class DirectoryChangeDto {
+    private final long sequence;
+    private final String op;
+    private final Long id;
+    private final String name;
+    private final Long oldParentId;
+    private final Long parentId;
+    private final Integer sortOrder;
+    private final String oldPath;
+    private final String path;
+
+    public DirectoryChangeDto(long sequence, String op, Long id, String name, Long oldParentId, Long parentId,
+                              Integer sortOrder, String oldPath, String path) {
+        this.sequence = sequence;
+        this.op = op;
+        this.id = id;
+        this.name = name;
+        this.oldParentId = oldParentId;
+        this.parentId = parentId;
+        this.sortOrder = sortOrder;
+        this.oldPath = oldPath;
+        this.path = path;
+    }
+
+    /**
+     * 저널에 추가될 때 순번을 붙인 사본을 만듭니다.
+     *
+     * @param sequence 저널 순번
+     * @return 순번이 붙은 항목
+     */
+    public DirectoryChangeDto withSequence(long sequence) {
+        return new DirectoryChangeDto(sequence, op, id, name, oldParentId, parentId, sortOrder, oldPath, path);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * 작업 유형 (CREATED, MOVED, REORDERED, DELETED)
+     */
+    public String getOp() {
+        return op;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getOldParentId() {
+        return oldParentId;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
+    public String getOldPath() {
+        return oldPath;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,66 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 변경분 동기화 응답 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 요청한 순번 이후의 변경 항목 목록 전달
+ * 2. 저널에서 이미 잘려 나간 순번을 요청한 경우 truncated=true와 전체 트리 스냅샷 전달
+ * 3. 다음 요청에 since로 보낼 마지막 순번(latestSequence) 전달
+ * 
+ * 스냅샷에는 latestSequence 이후의 변경이 일부 이미 반영되어 있을 수 있으므로,
+ * 클라이언트는 이후 항목을 덮어쓰기(같은 결과를 여러 번 적용해도 같은) 방식으로 반영합니다.
+ */
+
+@Getter
+public class DirectoryChangesResponse {
+    private final long latestSequence;
+    private final boolean truncated;
+    private final List<DirectoryChangeDto> changes;
+    private final List<DirectoryTreeDto> snapshot;
+
+    private DirectoryChangesResponse(long latestSequence, boolean truncated,
+                                     List<DirectoryChangeDto> changes, List<DirectoryTreeDto> snapshot) {
+        this.latestSequence = latestSequence;
+        this.truncated = truncated;
+        this.changes = changes;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * 변경 항목만 담은 응답을 만듭니다.
+     */
+    public static DirectoryChangesResponse delta(long latestSequence, List<DirectoryChangeDto> changes) {
+        return new DirectoryChangesResponse(latestSequence, false, changes, null);
+    }
+
+    /**
+     * 저널로 이어갈 수 없어 전체 스냅샷으로 대신하는 응답을 만듭니다.
+     */
+    public static DirectoryChangesResponse fullSnapshot(long latestSequence, List<DirectoryTreeDto> snapshot) {
+        return new DirectoryChangesResponse(latestSequence, true, List.of(), snapshot);
+    }
+
+    public long getLatestSequence() {
+        return latestSequence;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public List<DirectoryChangeDto> getChanges() {
+        return changes;
+    }
+
+    /**
+     * 전체 트리 (truncated인 경우에만 포함, 아니면 null)
+     */
+    public List<DirectoryTreeDto> getSnapshot() {
+        return snapshot;
+    }
+}
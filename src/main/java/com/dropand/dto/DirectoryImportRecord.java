@@ -0,0 +1,58 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 일괄 가져오기(NDJSON) 한 줄에 해당하는 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. 클라이언트가 정한 임시 ID와 부모의 임시 ID로 계층 구조 표현 (DB ID는 가져오기 중에 부여)
+ * 2. 디렉토리 이름과 형제 사이의 순서 전달
+ *
+ * 부모 임시 ID가 없으면 가져오기 대상 디렉토리의 바로 아래에 생성됩니다.
+ * order는 같은 부모 안에서의 상대 순서이며, 없거나 같으면 입력 순서를 따릅니다.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class DirectoryImportRecord {
+    private String id;
+    private String parentId;
+    private String name;
+    private Integer order;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(String parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getOrder() {
+        return order;
+    }
+
+    public void setOrder(Integer order) {
+        this.order = order;
+    }
+}
@@ -0,0 +1,108 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 일괄 가져오기 결과를 전달하는 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. 읽은 줄 수, 생성된 디렉토리 수, 거부된 줄 수 전달
+ * 2. 거부된 줄의 줄 번호, 임시 ID, 사유 전달 (최대 MAX_REPORTED_REJECTIONS건)
+ * 3. 소요 시간과 초당 처리 건수 전달
+ */
+
+@Getter
+public class DirectoryImportResponse {
+
+    /**
+     * 응답에 담는 최대 거부 항목 수 (전체 건수는 rejectedCount)
+     */
+    public static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private final Long parentId;
+    private final int receivedCount;
+    private final int importedCount;
+    private final int rejectedCount;
+    private final List<Rejection> rejections;
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+
+    public DirectoryImportResponse(Long parentId, int receivedCount, int importedCount, List<Rejection> rejections,
+                                   long elapsedMillis) {
+        this.parentId = parentId;
+        this.receivedCount = receivedCount;
+        this.importedCount = importedCount;
+        this.rejectedCount = rejections.size();
+        this.rejections = rejections.size() > MAX_REPORTED_REJECTIONS
+            ? List.copyOf(rejections.subList(0, MAX_REPORTED_REJECTIONS)) : rejections;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = importedCount * 1000L / Math.max(elapsedMillis, 1L);
+    }
+
+    /**
+     * 가져오기 대상 디렉토리 ID (루트 아래로 가져왔으면 null)
+     */
+    public Long getParentId() {
+        return parentId;
+    }
+
+    /**
+     * 빈 줄을 제외하고 읽은 줄 수
+     */
+    public int getReceivedCount() {
+        return receivedCount;
+    }
+
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * 거부된 줄 목록 (줄 번호 순)
+     */
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    /**
+     * 거부된 줄 한 건 (줄 번호, 임시 ID, 사유)
+     */
+    @Getter
+    public static final class Rejection {
+        private final int line;
+        private final String id;
+        private final String reason;
+
+        public Rejection(int line, String id, String reason) {
+            this.line = line;
+            this.id = id;
+            this.reason = reason;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+
+/**
+ * 디렉토리 한 건을 평면(flat) 형태로 담는 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. JPQL 생성자 표현식으로 디렉토리 행을 엔티티 없이 조회
+ * 2. 부모 디렉토리는 ID로만 참조하여 지연 로딩을 발생시키지 않음
+ */
+
+@Getter
+public class DirectoryNodeDto {
+    private final Long id;
+    private final Long parentId;
+    private final String name;
+    private final String path;
+    private final Integer sortOrder;
+    private final Long version;
+
+    public DirectoryNodeDto(Long id, Long parentId, String name, String path, Integer sortOrder, Long version) {
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.path = path;
+        this.sortOrder = sortOrder;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
+    /**
+     * 낙관적 잠금 버전 (변경 요청 시 함께 보내면 그 사이 다른 변경이 있었는지 확인)
+     */
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -18,6 +18,11 @@ public class DirectoryOrderDto {
     private Long id;
     private Long parentId;
     private Integer sortOrder;
+    /**
+     * 클라이언트가 마지막으로 본 디렉토리 버전 (선택)
+     * 현재 버전과 다르면 변경하지 않고 409 Conflict로 현재 버전을 알려줍니다.
+     */
+    private Long version;
 
     public Long getId() {
         return id;
@@ -42,4 +47,12 @@ public class DirectoryOrderDto {
     public void setSortOrder(Integer sortOrder) {
         this.sortOrder = sortOrder;
     }
-} 
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
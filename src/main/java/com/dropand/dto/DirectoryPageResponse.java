@@ -0,0 +1,32 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 하위 디렉토리 페이지 응답 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 한 페이지 분량의 하위 디렉토리 목록 전달 (각 항목에 하위 디렉토리 수 포함)
+ * 2. 다음 페이지 조회에 사용할 커서 전달 (마지막 페이지면 null)
+ */
+
+@Getter
+public class DirectoryPageResponse {
+    private final List<DirectoryTreeDto> items;
+    private final String nextCursor;
+
+    public DirectoryPageResponse(List<DirectoryTreeDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<DirectoryTreeDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,51 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+
+/**
+ * 스냅샷 복원 결과를 전달하는 DTO 클래스
+ *
+ * 주요 기능:
+ * 1. 복원 전에 있던(삭제된) 디렉토리 수와 복원된 디렉토리 수 전달
+ * 2. 스냅샷 생성 시각, 소요 시간, 초당 처리 건수 전달
+ */
+
+@Getter
+public class DirectoryRestoreResponse {
+    private final int deletedCount;
+    private final int restoredCount;
+    private final long snapshotCreatedAt;
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+
+    public DirectoryRestoreResponse(int deletedCount, int restoredCount, long snapshotCreatedAt, long elapsedMillis) {
+        this.deletedCount = deletedCount;
+        this.restoredCount = restoredCount;
+        this.snapshotCreatedAt = snapshotCreatedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = restoredCount * 1000L / Math.max(elapsedMillis, 1L);
+    }
+
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+
+    public int getRestoredCount() {
+        return restoredCount;
+    }
+
+    /**
+     * 스냅샷을 만든 시각 (밀리초)
+     */
+    public long getSnapshotCreatedAt() {
+        return snapshotCreatedAt;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+}
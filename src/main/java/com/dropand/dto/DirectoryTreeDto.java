@@ -0,0 +1,106 @@
+package com.dropand.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 디렉토리 트리 응답용 DTO 클래스
+ * 
+ * 주요 기능:
+ * 1. 엔티티 대신 직렬화되어 지연 로딩(N+1) 없이 트리 구조 전달
+ * 2. 하위 디렉토리 목록을 정렬 순서대로 포함
+ * 3. 트리 조립이 끝난 뒤에는 읽기 전용으로 공유됨 (하위 목록은 수정 불가 뷰로 노출)
+ * 4. 하위 목록을 깊이 제한으로 잘라 보내더라도 실제 하위 디렉토리 수(childCount)를 함께 전달
+ */
+
+@Getter
+public class DirectoryTreeDto {
+    private final Long id;
+    private final String name;
+    private final String path;
+    private final Integer sortOrder;
+    private final Long parentId;
+    private final Long version;
+    private final int childCount;
+    private final List<DirectoryTreeDto> children = new ArrayList<>();
+
+    public DirectoryTreeDto(DirectoryNodeDto node, int childCount) {
+        this.id = node.getId();
+        this.name = node.getName();
+        this.path = node.getPath();
+        this.sortOrder = node.getSortOrder();
+        this.parentId = node.getParentId();
+        this.version = node.getVersion();
+        this.childCount = childCount;
+    }
+
+    /**
+     * 하위 목록을 제외한 사본을 만듭니다. (깊이 제한 응답용)
+     *
+     * @param source 원본 노드
+     */
+    public DirectoryTreeDto(DirectoryTreeDto source) {
+        this.id = source.id;
+        this.name = source.name;
+        this.path = source.path;
+        this.sortOrder = source.sortOrder;
+        this.parentId = source.parentId;
+        this.version = source.version;
+        this.childCount = source.childCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Integer getSortOrder() {
+        return sortOrder;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    /**
+     * 낙관적 잠금 버전 (이동 요청 시 함께 보내면 그 사이 다른 변경이 있었는지 확인)
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * 실제 하위 디렉토리 수 (children이 깊이 제한으로 비어 있어도 유지됨)
+     */
+    public int getChildCount() {
+        return childCount;
+    }
+
+    public boolean isHasChildren() {
+        return childCount > 0;
+    }
+
+    public List<DirectoryTreeDto> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * 트리 조립 시 하위 디렉토리를 추가합니다.
+     * 조립이 끝나 공유된 이후에는 호출하지 않습니다.
+     *
+     * @param child 추가할 하위 디렉토리
+     */
+    public void addChild(DirectoryTreeDto child) {
+        children.add(child);
+    }
+}
@@ -8,6 +8,19 @@ import lombok.Setter;
 public class MoveDirectoryRequest {
     private Long parentId;
     private Integer sortOrder;
+    /**
+     * sortOrder가 없을 때 이 형제 바로 뒤에 배치 (선택)
+     */
+    private Long afterId;
+    /**
+     * sortOrder가 없을 때 이 형제 바로 앞에 배치 (선택)
+     */
+    private Long beforeId;
+    /**
+     * 클라이언트가 마지막으로 본 디렉토리 버전 (선택)
+     * 현재 버전과 다르면 변경하지 않고 409 Conflict로 현재 버전을 알려줍니다.
+     */
+    private Long version;
 
     public Long getParentId() {
         return parentId;
@@ -24,4 +37,28 @@ public class MoveDirectoryRequest {
     public void setSortOrder(Integer sortOrder) {
         this.sortOrder = sortOrder;
     }
-} 
\ No newline at end of file
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+
+    public Long getBeforeId() {
+        return beforeId;
+    }
+
+    public void setBeforeId(Long beforeId) {
+        this.beforeId = beforeId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,317 @@
+package com.dropand.repository;
+
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryNodeDto;
+import lombok.Getter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 디렉토리를 한 번에 변경하는 JDBC 일괄 처리 리포지토리 클래스
+ *
+ * 주요 기능:
+ * 1. 변경 대상과 조상 디렉토리를 재귀 쿼리 한 번으로 조회
+ * 2. 부모/정렬 순서/경로 변경을 JDBC 배치 한 번으로 반영
+ * 3. 하위 디렉토리 경로 재작성을 JDBC 배치 한 번으로 반영
+ *    (임시 경로를 거치는 두 단계 반영을 위해 버전을 올리지 않고 경로만 바꾸는 재작성도 제공)
+ * 4. 새 디렉토리 여러 건을 JDBC 배치 한 번으로 생성하고 부여된 ID 반환
+ * 5. 스냅샷 복원용으로 전체 삭제, ID/버전을 그대로 유지한 일괄 적재, ID 발급 위치 재설정
+ *
+ * 영속성 컨텍스트를 거치지 않으므로 같은 트랜잭션에서 이미 읽은 엔티티에는 반영되지 않습니다.
+ */
+@Repository
+public class DirectoryBatchRepository {
+
+    private static final String FIND_WITH_ANCESTORS_SQL =
+        "WITH RECURSIVE lineage(id, parent_id, name, path, sort_order, version) AS (" +
+        "  SELECT id, parent_id, name, path, sort_order, version FROM directories WHERE id IN (:ids) " +
+        "  UNION " +
+        "  SELECT d.id, d.parent_id, d.name, d.path, d.sort_order, d.version " +
+        "  FROM directories d JOIN lineage l ON d.id = l.parent_id" +
+        ") SELECT id, parent_id, name, path, sort_order, version FROM lineage";
+
+    private static final String UPDATE_PLACEMENT_SQL =
+        "UPDATE directories SET parent_id = :parentId, sort_order = :sortOrder, path = :path, version = version + 1 " +
+        "WHERE id = :id AND version = :version";
+
+    // H2는 재귀 CTE 안팎에 파라미터가 섞인 UPDATE ... WHERE id IN (...)을 잘못 바인딩하므로 MERGE를 사용
+    private static final String REWRITE_DESCENDANT_PATHS_SQL =
+        "MERGE INTO directories t USING (" +
+        "  WITH RECURSIVE subtree(id) AS (" +
+        "    SELECT id FROM directories WHERE parent_id = :id AND id NOT IN (:excludedIds) " +
+        "    UNION ALL " +
+        "    SELECT d.id FROM directories d JOIN subtree s ON d.parent_id = s.id WHERE d.id NOT IN (:excludedIds)" +
+        "  ) SELECT id FROM subtree" +
+        ") s ON t.id = s.id " +
+        "WHEN MATCHED THEN UPDATE SET t.path = CONCAT(:newPath, SUBSTRING(t.path, CHAR_LENGTH(:oldPath) + 1)), " +
+        "t.version = t.version + 1";
+
+    private static final String UPDATE_PATH_SQL = "UPDATE directories SET path = :path WHERE id = :id";
+
+    private static final String REPLACE_DESCENDANT_PATHS_SQL =
+        "MERGE INTO directories t USING (" +
+        "  WITH RECURSIVE subtree(id) AS (" +
+        "    SELECT id FROM directories WHERE parent_id = :id AND id NOT IN (:excludedIds) " +
+        "    UNION ALL " +
+        "    SELECT d.id FROM directories d JOIN subtree s ON d.parent_id = s.id WHERE d.id NOT IN (:excludedIds)" +
+        "  ) SELECT id FROM subtree" +
+        ") s ON t.id = s.id " +
+        "WHEN MATCHED THEN UPDATE SET t.path = CONCAT(:newPath, SUBSTRING(t.path, CHAR_LENGTH(:oldPath) + 1))";
+
+    private static final String INSERT_NODE_SQL =
+        "INSERT INTO directories (parent_id, name, path, sort_order, version) " +
+        "VALUES (:parentId, :name, :path, :sortOrder, 0)";
+
+    private static final String INSERT_RESTORED_SQL =
+        "INSERT INTO directories (id, parent_id, name, path, sort_order, version) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_ALL_SQL = "DELETE FROM directories";
+
+    private static final String FIND_MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM directories";
+
+    // H2에서 ID 컬럼의 재시작 값 변경은 진행 중인 트랜잭션을 커밋하지 않음
+    private static final String RESTART_IDENTITY_SQL = "ALTER TABLE directories ALTER COLUMN id RESTART WITH ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public DirectoryBatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 지정한 디렉토리들과 그 조상 디렉토리 전체를 한 번에 조회합니다.
+     * 존재하지 않는 ID는 결과에서 빠집니다.
+     *
+     * @param ids 조회할 디렉토리 ID 목록
+     * @return 지정한 디렉토리와 조상 디렉토리의 평면 목록 (중복 없음)
+     */
+    public List<DirectoryNodeDto> findWithAncestors(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(FIND_WITH_ANCESTORS_SQL, new MapSqlParameterSource("ids", ids),
+            (rs, rowNum) -> new DirectoryNodeDto(
+                rs.getLong("id"),
+                rs.getObject("parent_id", Long.class),
+                rs.getString("name"),
+                rs.getString("path"),
+                rs.getObject("sort_order", Integer.class),
+                rs.getObject("version", Long.class)));
+    }
+
+    /**
+     * 디렉토리들의 부모, 정렬 순서, 경로를 JDBC 배치 한 번으로 변경하고 버전을 올립니다.
+     * 각 행은 조회 당시 버전과 같을 때만 변경됩니다.
+     *
+     * @param placements 변경 후 상태 (ID, 부모 ID, 정렬 순서, 경로, 조회 당시 버전 사용)
+     * @return 변경된 디렉토리 수
+     * @throws ObjectOptimisticLockingFailureException 조회 이후 다른 트랜잭션이 먼저 변경한 행이 있는 경우
+     */
+    public int updatePlacements(List<DirectoryNodeDto> placements) {
+        if (placements.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] batch = placements.stream()
+            .map(node -> new MapSqlParameterSource()
+                .addValue("id", node.getId())
+                .addValue("parentId", node.getParentId())
+                .addValue("sortOrder", node.getSortOrder())
+                .addValue("path", node.getPath())
+                .addValue("version", node.getVersion()))
+            .toArray(SqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_PLACEMENT_SQL, batch);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new ObjectOptimisticLockingFailureException(Directory.class, placements.get(i).getId());
+            }
+        }
+        return sum(counts);
+    }
+
+    /**
+     * 이동한 디렉토리들의 하위 디렉토리 경로를 JDBC 배치 한 번으로 재작성합니다.
+     * 제외 목록의 디렉토리와 그 아래는 건너뛰므로, 제외 목록에 변경 대상 전체를 넘기면
+     * 중첩된 이동이 있어도 각 행의 경로는 한 번만 갱신됩니다.
+     * 경로가 바뀐 행은 버전도 올립니다.
+     *
+     * @param rewrites 디렉토리별 이전/새 경로
+     * @param excludedIds 재작성하지 않을 디렉토리 ID 목록 (비어 있으면 안 됨)
+     * @return 경로가 갱신된 디렉토리 수
+     */
+    public int rewriteDescendantPaths(List<PathRewrite> rewrites, Collection<Long> excludedIds) {
+        if (rewrites.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] batch = rewrites.stream()
+            .map(rewrite -> new MapSqlParameterSource()
+                .addValue("id", rewrite.getId())
+                .addValue("excludedIds", excludedIds)
+                .addValue("oldPath", rewrite.getOldPath())
+                .addValue("newPath", rewrite.getNewPath()))
+            .toArray(SqlParameterSource[]::new);
+        return sum(jdbcTemplate.batchUpdate(REWRITE_DESCENDANT_PATHS_SQL, batch));
+    }
+
+    /**
+     * 임시 경로로 옮겨 둔 디렉토리와 그 하위 디렉토리의 경로를 최종 경로로 바꿉니다.
+     * 첫 단계(updatePlacements, rewriteDescendantPaths)에서 이미 버전을 올렸으므로 버전은 바꾸지 않습니다.
+     * 대상 자신은 JDBC 배치 한 번, 하위 디렉토리는 JDBC 배치 한 번으로 반영합니다.
+     *
+     * @param rewrites 디렉토리별 임시 경로와 최종 경로
+     * @param excludedIds 하위 경로를 재작성하지 않을 디렉토리 ID 목록 (비어 있으면 안 됨)
+     * @return 경로가 바뀐 하위 디렉토리 수 (대상 자신 제외)
+     */
+    public int replaceStagedPaths(List<PathRewrite> rewrites, Collection<Long> excludedIds) {
+        if (rewrites.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] targets = rewrites.stream()
+            .map(rewrite -> new MapSqlParameterSource()
+                .addValue("id", rewrite.getId())
+                .addValue("path", rewrite.getNewPath()))
+            .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPDATE_PATH_SQL, targets);
+        SqlParameterSource[] batch = rewrites.stream()
+            .map(rewrite -> new MapSqlParameterSource()
+                .addValue("id", rewrite.getId())
+                .addValue("excludedIds", excludedIds)
+                .addValue("oldPath", rewrite.getOldPath())
+                .addValue("newPath", rewrite.getNewPath()))
+            .toArray(SqlParameterSource[]::new);
+        return sum(jdbcTemplate.batchUpdate(REPLACE_DESCENDANT_PATHS_SQL, batch));
+    }
+
+    /**
+     * 새 디렉토리들을 JDBC 배치 한 번으로 생성합니다. 버전은 0으로 시작합니다.
+     * 부모 ID는 이미 DB에 있는 디렉토리여야 하므로, 계층을 가져올 때는 얕은 단계부터 나눠 호출합니다.
+     *
+     * @param nodes 생성할 디렉토리 (부모 ID, 이름, 경로, 정렬 순서 사용)
+     * @return 입력 순서대로 부여된 ID
+     */
+    public long[] insertNodes(List<DirectoryNodeDto> nodes) {
+        if (nodes.isEmpty()) {
+            return new long[0];
+        }
+        SqlParameterSource[] batch = nodes.stream()
+            .map(node -> new MapSqlParameterSource()
+                .addValue("parentId", node.getParentId())
+                .addValue("name", node.getName())
+                .addValue("path", node.getPath())
+                .addValue("sortOrder", node.getSortOrder()))
+            .toArray(SqlParameterSource[]::new);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_NODE_SQL, batch, keyHolder, new String[] {"id"});
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        long[] ids = new long[keys.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) keys.get(i).values().iterator().next()).longValue();
+        }
+        return ids;
+    }
+
+    /**
+     * 모든 디렉토리를 문장 하나로 삭제합니다.
+     *
+     * @return 삭제된 디렉토리 수
+     */
+    public int deleteAll() {
+        return jdbcTemplate.getJdbcTemplate().update(DELETE_ALL_SQL);
+    }
+
+    /**
+     * 스냅샷의 디렉토리들을 ID와 버전 그대로 JDBC 배치 한 번으로 적재합니다.
+     * 행마다 파라미터 맵을 만들지 않도록 위치 기반 파라미터를 사용합니다.
+     * 부모가 같은 배치의 앞쪽이나 이전 배치에 있어야 합니다.
+     *
+     * @param nodes 적재할 디렉토리 (루트는 부모 ID가 null)
+     */
+    public void insertRestored(List<DirectoryNodeDto> nodes) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_RESTORED_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                DirectoryNodeDto node = nodes.get(i);
+                ps.setLong(1, node.getId());
+                ps.setObject(2, node.getParentId(), Types.BIGINT);
+                ps.setString(3, node.getName());
+                ps.setString(4, node.getPath());
+                ps.setInt(5, node.getSortOrder());
+                ps.setLong(6, node.getVersion());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return nodes.size();
+            }
+        });
+    }
+
+    /**
+     * @return 가장 큰 디렉토리 ID (없으면 0)
+     */
+    public long findMaxId() {
+        Long maxId = jdbcTemplate.getJdbcTemplate().queryForObject(FIND_MAX_ID_SQL, Long.class);
+        return maxId != null ? maxId : 0L;
+    }
+
+    /**
+     * 다음에 생성되는 디렉토리가 받을 ID를 지정합니다.
+     * ID를 직접 지정해 적재한 뒤 새 디렉토리가 적재된 ID와 겹치지 않도록 호출합니다.
+     *
+     * @param nextId 다음 ID
+     */
+    public void restartIdentity(long nextId) {
+        jdbcTemplate.getJdbcTemplate().execute(RESTART_IDENTITY_SQL + nextId);
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            // 드라이버가 건수를 알려주지 않는 경우(SUCCESS_NO_INFO)는 제외
+            if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 하위 경로 재작성 한 건 (디렉토리 ID와 이전/새 경로)
+     */
+    @Getter
+    public static final class PathRewrite {
+        private final Long id;
+        private final String oldPath;
+        private final String newPath;
+
+        public PathRewrite(Long id, String oldPath, String newPath) {
+            this.id = id;
+            this.oldPath = oldPath;
+            this.newPath = newPath;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getOldPath() {
+            return oldPath;
+        }
+
+        public String getNewPath() {
+            return newPath;
+        }
+    }
+}
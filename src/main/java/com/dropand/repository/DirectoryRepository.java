@@ -1,13 +1,235 @@
 package com.dropand.repository;
 
 import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryNodeDto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DirectoryRepository extends JpaRepository<Directory, Long> {
     List<Directory> findByParentIsNullOrderBySortOrder();
     List<Directory> findByParentOrderBySortOrder(Directory parent);
-} 
\ No newline at end of file
+
+    /**
+     * 전체 디렉토리를 엔티티 없이 평면 목록으로 한 번에 조회합니다.
+     * 부모별 정렬 순서대로 반환되므로 순서대로 자식 목록에 붙이면 트리가 완성됩니다.
+     *
+     * @return 전체 디렉토리 평면 목록
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryNodeDto(d.id, d.parent.id, d.name, d.path, d.sortOrder, d.version) " +
+            "FROM Directory d ORDER BY d.sortOrder, d.id")
+    List<DirectoryNodeDto> findAllNodes();
+
+    /**
+     * 하위 디렉토리의 첫 페이지를 (정렬 순서, ID) 순으로 조회합니다.
+     *
+     * @param parentId 부모 디렉토리 ID
+     * @param limit 최대 조회 건수
+     * @return 하위 디렉토리 목록
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryNodeDto(d.id, d.parent.id, d.name, d.path, d.sortOrder, d.version) " +
+            "FROM Directory d WHERE d.parent.id = :parentId ORDER BY d.sortOrder, d.id")
+    List<DirectoryNodeDto> findChildrenFirstPage(@Param("parentId") Long parentId, Limit limit);
+
+    /**
+     * 커서 (정렬 순서, ID) 이후의 하위 디렉토리를 조회합니다.
+     * 오프셋 없이 (parent_id, sort_order, id) 인덱스를 그대로 따라가므로 페이지 깊이와 관계없이 일정한 비용이 듭니다.
+     *
+     * @param parentId 부모 디렉토리 ID
+     * @param sortOrder 이전 페이지 마지막 항목의 정렬 순서
+     * @param id 이전 페이지 마지막 항목의 ID
+     * @param limit 최대 조회 건수
+     * @return 하위 디렉토리 목록
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryNodeDto(d.id, d.parent.id, d.name, d.path, d.sortOrder, d.version) " +
+            "FROM Directory d WHERE d.parent.id = :parentId " +
+            "AND d.sortOrder >= :sortOrder AND (d.sortOrder > :sortOrder OR d.id > :id) " +
+            "ORDER BY d.sortOrder, d.id")
+    List<DirectoryNodeDto> findChildrenAfter(@Param("parentId") Long parentId,
+                                             @Param("sortOrder") Integer sortOrder,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+    /**
+     * 지정한 디렉토리의 모든 하위 디렉토리 경로를 한 번의 MERGE 문으로 갱신합니다.
+     * 재귀 CTE로 하위 트리를 찾고, 각 경로의 이전 접두사(oldPath)를 새 접두사(newPath)로 치환합니다.
+     * 경로가 바뀐 디렉토리는 버전도 올려 동시에 수정 중인 트랜잭션이 충돌을 감지하도록 합니다.
+     *
+     * @param id 이동한 디렉토리 ID (자신은 갱신 대상에서 제외)
+     * @param oldPath 이동 전 경로
+     * @param newPath 이동 후 경로
+     * @return 갱신된 하위 디렉토리 수
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "MERGE INTO directories t USING (" +
+            "WITH RECURSIVE subtree(id) AS (" +
+            "SELECT id FROM directories WHERE parent_id = :id " +
+            "UNION ALL " +
+            "SELECT d.id FROM directories d JOIN subtree s ON d.parent_id = s.id" +
+            ") SELECT id FROM subtree) s ON t.id = s.id " +
+            "WHEN MATCHED THEN UPDATE SET t.path = CONCAT(:newPath, SUBSTRING(t.path, CHAR_LENGTH(:oldPath) + 1)), " +
+            "t.version = t.version + 1",
+            nativeQuery = true)
+    int rewriteDescendantPaths(@Param("id") Long id,
+                               @Param("oldPath") String oldPath,
+                               @Param("newPath") String newPath);
+
+    /**
+     * 지정한 디렉토리와 모든 하위 디렉토리를 한 번의 쿼리로 조회합니다.
+     * 깊이가 깊은 항목(리프)부터 반환되므로 그대로 삭제 순서로 사용할 수 있습니다.
+     *
+     * @param id 하위 트리의 루트 디렉토리 ID
+     * @return 하위 트리 항목 목록 (존재하지 않는 ID면 빈 목록)
+     */
+    @Query(value = "WITH RECURSIVE subtree(id, depth) AS (" +
+            "SELECT id, 0 FROM directories WHERE id = :id " +
+            "UNION ALL " +
+            "SELECT d.id, s.depth + 1 FROM directories d JOIN subtree s ON d.parent_id = s.id" +
+            ") SELECT id, depth FROM subtree ORDER BY depth DESC",
+            nativeQuery = true)
+    List<SubtreeEntry> findSubtreeLeafFirst(@Param("id") Long id);
+
+    /**
+     * 디렉토리 한 건을 엔티티 없이 조회합니다.
+     *
+     * @param id 디렉토리 ID
+     * @return 디렉토리 정보
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryNodeDto(d.id, d.parent.id, d.name, d.path, d.sortOrder, d.version) " +
+            "FROM Directory d WHERE d.id = :id")
+    Optional<DirectoryNodeDto> findNodeById(@Param("id") Long id);
+
+    /**
+     * 경로로 디렉토리 한 건을 엔티티 없이 조회합니다. (경로 유니크 인덱스 사용)
+     *
+     * @param path 디렉토리 경로
+     * @return 디렉토리 정보
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryNodeDto(d.id, d.parent.id, d.name, d.path, d.sortOrder, d.version) " +
+            "FROM Directory d WHERE d.path = :path")
+    Optional<DirectoryNodeDto> findNodeByPath(@Param("path") String path);
+
+    /**
+     * 디렉토리의 현재 버전만 조회합니다. (충돌 응답용)
+     *
+     * @param id 디렉토리 ID
+     * @return 현재 버전 (없으면 빈 값)
+     */
+    @Query("SELECT d.version FROM Directory d WHERE d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * 같은 부모 아래에서 가장 큰 정렬 순서를 조회합니다. (루트 디렉토리는 parentId = null)
+     * (parent_id, sort_order, id) 인덱스로 처리되어 형제 목록을 읽지 않습니다.
+     *
+     * @param parentId 부모 디렉토리 ID (루트면 null)
+     * @param excludeId 계산에서 제외할 디렉토리 ID (이동 중인 디렉토리, 없으면 null)
+     * @return 가장 큰 정렬 순서 (형제가 없으면 null)
+     */
+    @Query("SELECT MAX(d.sortOrder) FROM Directory d " +
+            "WHERE d.parent.id IS NOT DISTINCT FROM :parentId AND (:excludeId IS NULL OR d.id <> :excludeId)")
+    Integer findMaxSortOrder(@Param("parentId") Long parentId, @Param("excludeId") Long excludeId);
+
+    /**
+     * 같은 부모 아래에서 (정렬 순서, ID) 기준으로 바로 다음 형제를 조회합니다.
+     *
+     * @param parentId 부모 디렉토리 ID (루트면 null)
+     * @param sortOrder 기준 정렬 순서
+     * @param id 기준 ID
+     * @param excludeId 제외할 디렉토리 ID (이동 중인 디렉토리)
+     * @param limit 최대 조회 건수
+     * @return 다음 형제 목록
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryNodeDto(d.id, d.parent.id, d.name, d.path, d.sortOrder, d.version) " +
+            "FROM Directory d WHERE d.parent.id IS NOT DISTINCT FROM :parentId AND d.id <> :excludeId " +
+            "AND d.sortOrder >= :sortOrder AND (d.sortOrder > :sortOrder OR d.id > :id) " +
+            "ORDER BY d.sortOrder, d.id")
+    List<DirectoryNodeDto> findSiblingsAfter(@Param("parentId") Long parentId,
+                                             @Param("sortOrder") Integer sortOrder,
+                                             @Param("id") Long id,
+                                             @Param("excludeId") Long excludeId,
+                                             Limit limit);
+
+    /**
+     * 같은 부모 아래에서 (정렬 순서, ID) 기준으로 바로 이전 형제를 조회합니다.
+     *
+     * @param parentId 부모 디렉토리 ID (루트면 null)
+     * @param sortOrder 기준 정렬 순서
+     * @param id 기준 ID
+     * @param excludeId 제외할 디렉토리 ID (이동 중인 디렉토리)
+     * @param limit 최대 조회 건수
+     * @return 이전 형제 목록 (가까운 순)
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryNodeDto(d.id, d.parent.id, d.name, d.path, d.sortOrder, d.version) " +
+            "FROM Directory d WHERE d.parent.id IS NOT DISTINCT FROM :parentId AND d.id <> :excludeId " +
+            "AND d.sortOrder <= :sortOrder AND (d.sortOrder < :sortOrder OR d.id < :id) " +
+            "ORDER BY d.sortOrder DESC, d.id DESC")
+    List<DirectoryNodeDto> findSiblingsBefore(@Param("parentId") Long parentId,
+                                              @Param("sortOrder") Integer sortOrder,
+                                              @Param("id") Long id,
+                                              @Param("excludeId") Long excludeId,
+                                              Limit limit);
+
+    /**
+     * 같은 부모 아래 형제들의 정렬 순서를 현재 순서를 유지한 채 gap 간격으로 다시 매깁니다.
+     * 두 형제 사이에 더 이상 빈 정렬 값이 없을 때만 가끔 실행됩니다.
+     *
+     * @param parentId 부모 디렉토리 ID (루트면 null)
+     * @param gap 정렬 순서 간격
+     * @return 갱신된 디렉토리 수
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "MERGE INTO directories t USING (" +
+            "SELECT id, ROW_NUMBER() OVER (ORDER BY sort_order, id) * :gap AS new_order " +
+            "FROM directories WHERE parent_id IS NOT DISTINCT FROM :parentId" +
+            ") s ON t.id = s.id " +
+            "WHEN MATCHED THEN UPDATE SET t.sort_order = s.new_order, t.version = t.version + 1",
+            nativeQuery = true)
+    int rebalanceSortOrders(@Param("parentId") Long parentId, @Param("gap") int gap);
+
+    /**
+     * 같은 부모 아래 형제 전체를 (정렬 순서, ID) 순으로 조회합니다.
+     * 정렬 순서 재배치 직후 바뀐 값을 변경 저널에 기록할 때만 사용합니다.
+     *
+     * @param parentId 부모 디렉토리 ID (루트면 null)
+     * @return 형제 디렉토리 목록
+     */
+    @Query("SELECT new com.dropand.dto.DirectoryNodeDto(d.id, d.parent.id, d.name, d.path, d.sortOrder, d.version) " +
+            "FROM Directory d WHERE d.parent.id IS NOT DISTINCT FROM :parentId ORDER BY d.sortOrder, d.id")
+    List<DirectoryNodeDto> findSiblingNodes(@Param("parentId") Long parentId);
+
+    /**
+     * 여러 부모 디렉토리의 하위 디렉토리 수를 한 번의 집계 쿼리로 조회합니다.
+     * 하위 디렉토리가 없는 부모는 결과에 포함되지 않습니다.
+     *
+     * @param parentIds 부모 디렉토리 ID 목록
+     * @return 부모별 하위 디렉토리 수
+     */
+    @Query("SELECT d.parent.id AS parentId, COUNT(d) AS childCount FROM Directory d " +
+            "WHERE d.parent.id IN :parentIds GROUP BY d.parent.id")
+    List<ChildCount> countChildrenByParentIds(@Param("parentIds") Collection<Long> parentIds);
+
+    /**
+     * 부모별 하위 디렉토리 수 집계 결과 프로젝션
+     */
+    interface ChildCount {
+        Long getParentId();
+        Long getChildCount();
+    }
+
+    /**
+     * 하위 트리 조회 결과 프로젝션 (ID와 루트로부터의 깊이)
+     */
+    interface SubtreeEntry {
+        Long getId();
+        Integer getDepth();
+    }
+}
@@ -0,0 +1,79 @@
+package com.dropand.repository;
+
+import com.dropand.dto.DirectoryNodeDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * 전체 디렉토리를 한 행씩 읽어 넘기는 스트리밍 조회 리포지토리 클래스
+ *
+ * 주요 기능:
+ * 1. 결과 목록을 만들지 않고 전진 전용 커서로 한 행씩 읽어 바로 처리
+ * 2. 페치 크기를 제한하여 드라이버가 한 번에 가져오는 행 수를 일정하게 유지
+ * 3. 부모가 항상 자식보다 먼저 오는 순서(깊이 순)로 전체를 읽어 그대로 다시 적재할 수 있도록 지원
+ *
+ * 처리하는 동안 DB 연결을 점유하므로, 처리 함수는 행마다 오래 머물지 않아야 합니다.
+ */
+@Repository
+public class DirectoryStreamRepository {
+
+    /**
+     * 드라이버가 한 번에 가져오는 행 수
+     */
+    static final int FETCH_SIZE = 500;
+
+    // (parent_id, sort_order, id) 인덱스 순서를 그대로 따라가므로 별도 정렬이 필요 없음
+    private static final String STREAM_ALL_SQL =
+        "SELECT id, parent_id, name, path, sort_order, version FROM directories ORDER BY parent_id, sort_order, id";
+
+    // 한 문장으로 읽으므로 실행 시점의 일관된 상태가 반환됨
+    private static final String STREAM_PARENTS_FIRST_SQL =
+        "WITH RECURSIVE tree(id, parent_id, name, path, sort_order, version, depth) AS (" +
+        "  SELECT id, parent_id, name, path, sort_order, version, 0 FROM directories WHERE parent_id IS NULL " +
+        "  UNION ALL " +
+        "  SELECT d.id, d.parent_id, d.name, d.path, d.sort_order, d.version, t.depth + 1 " +
+        "  FROM directories d JOIN tree t ON d.parent_id = t.id" +
+        ") SELECT id, parent_id, name, path, sort_order, version FROM tree ORDER BY depth, parent_id, sort_order, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DirectoryStreamRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    /**
+     * 전체 디렉토리를 (부모 ID, 정렬 순서, ID) 순으로 한 행씩 처리합니다.
+     * 처리한 행은 보관하지 않으므로 디렉토리 수와 관계없이 메모리 사용량이 일정합니다.
+     *
+     * @param consumer 행마다 호출할 처리 함수
+     */
+    public void forEachNode(Consumer<DirectoryNodeDto> consumer) {
+        stream(STREAM_ALL_SQL, consumer);
+    }
+
+    /**
+     * 전체 디렉토리를 깊이 순(루트부터)으로 한 행씩 처리합니다.
+     * 부모가 항상 자식보다 먼저 오므로 받은 순서대로 INSERT해도 부모 참조 제약을 만족합니다.
+     *
+     * @param consumer 행마다 호출할 처리 함수
+     */
+    public void forEachNodeParentsFirst(Consumer<DirectoryNodeDto> consumer) {
+        stream(STREAM_PARENTS_FIRST_SQL, consumer);
+    }
+
+    private void stream(String sql, Consumer<DirectoryNodeDto> consumer) {
+        jdbcTemplate.query(sql, rs -> {
+            consumer.accept(new DirectoryNodeDto(
+                rs.getLong("id"),
+                rs.getObject("parent_id", Long.class),
+                rs.getString("name"),
+                rs.getString("path"),
+                rs.getObject("sort_order", Integer.class),
+                rs.getObject("version", Long.class)));
+        });
+    }
+}
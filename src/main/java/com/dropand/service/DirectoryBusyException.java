@@ -0,0 +1,25 @@
+package com.dropand.service;
+
+/**
+ * DB 작업 동시 실행 한도를 넘어 요청을 거절했음을 나타내는 예외 클래스
+ *
+ * 주요 기능:
+ * 1. 대기 제한 시간 안에 DB 작업 허가를 받지 못한 경우 발생
+ * 2. 클라이언트가 다시 시도하기까지 기다릴 시간(초)을 함께 전달
+ */
+public class DirectoryBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public DirectoryBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * 다시 시도하기까지 기다릴 시간 (초)
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
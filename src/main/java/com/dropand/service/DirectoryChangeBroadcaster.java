@@ -0,0 +1,319 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 커밋된 디렉토리 변경을 SSE(Server-Sent Events) 구독자에게 전달하는 클래스
+ *
+ * 주요 기능:
+ * 1. 변경 저널에 추가된 항목(순번 포함)을 모든 구독자에게 전달 (새 스냅샷이 공개된 뒤, 그 스냅샷에 담긴 순번까지)
+ * 2. 구독자마다 크기가 제한된 버퍼를 두고, 전송은 별도 스레드에서 수행하여 변경 작업 스레드가 기다리지 않음
+ * 3. 버퍼가 가득 찬 구독자(느린 소비자)는 연결을 끊어 다른 구독자와 변경 작업에 영향을 주지 않음
+ *    (버퍼보다 큰 일괄 변경은 항목 대신 reset 이벤트로 알림)
+ * 4. 재연결 시 Last-Event-ID 이후의 항목을 변경 저널에서 다시 보내 빠진 변경이 없도록 보장
+ * 5. 마지막으로 전달한 순번 이후의 항목을 저널에서 읽어 순번 순서대로 전달 (여러 커밋을 한 번에 전달)
+ *
+ * 연결이 끊긴 클라이언트는 EventSource의 자동 재연결과 Last-Event-ID로 이어받으며,
+ * 저널로 이어갈 수 없으면 reset 이벤트를 받고 전체 트리를 다시 조회합니다.
+ */
+@Component
+public class DirectoryChangeBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryChangeBroadcaster.class);
+
+    /**
+     * 구독자별로 보관하는 최대 미전송 항목 수
+     */
+    static final int BUFFER_CAPACITY = 256;
+
+    /**
+     * 구독 연결 유지 시간 (밀리초, 이후 클라이언트가 재연결)
+     */
+    private static final long EMITTER_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    /**
+     * 변경 항목이 아닌 제어 이벤트(ready, reset)의 순번
+     */
+    private static final long NO_SEQUENCE = -1L;
+
+    private final DirectoryChangeJournal changeJournal;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberIds = new AtomicInteger();
+    private final ExecutorService senders;
+
+    /**
+     * 전달 순번을 지키기 위한 잠금 (가상 스레드가 기다려도 캐리어 스레드를 붙잡지 않도록 synchronized 대신 사용)
+     */
+    private final ReentrantLock broadcastLock = new ReentrantLock();
+
+    /**
+     * 구독자 버퍼에 마지막으로 넣은 순번
+     */
+    private long lastBroadcastSequence;
+
+    public DirectoryChangeBroadcaster(DirectoryChangeJournal changeJournal) {
+        this.changeJournal = changeJournal;
+        this.lastBroadcastSequence = changeJournal.getLatestSequence();
+        AtomicInteger threadIds = new AtomicInteger();
+        // 응답이 막힌 구독자의 전송이 다른 구독자의 전송을 막지 않도록 필요한 만큼 스레드를 만들고 유휴 시 회수
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "directory-sse-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 새 구독자를 등록합니다.
+     * lastEventId가 있으면 그 이후의 항목을 먼저 보내고, 저널로 이어갈 수 없으면 reset 이벤트를 보냅니다.
+     *
+     * @param lastEventId 클라이언트가 마지막으로 받은 순번 (처음이면 null)
+     * @return SSE 응답
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // 등록 이후의 항목은 버퍼에 쌓이므로, 저널을 나중에 읽어 앞에 붙이면 빠지는 항목이 없음
+        subscribers.add(subscriber);
+        synchronized (subscriber) {
+            if (lastEventId == null) {
+                long latestSequence = changeJournal.getLatestSequence();
+                subscriber.pending.removeIf(outgoing -> outgoing.sequence <= latestSequence);
+                subscriber.pending.addFirst(new Outgoing(NO_SEQUENCE, SseEmitter.event().name("ready")
+                    .id(Long.toString(latestSequence)).data("{}", MediaType.APPLICATION_JSON)));
+            } else {
+                List<DirectoryChangeDto> missed = changeJournal.readSince(lastEventId);
+                if (missed == null) {
+                    subscriber.pending.clear();
+                    subscriber.pending.add(resetEvent());
+                } else {
+                    long replayedThrough = missed.isEmpty() ? lastEventId : missed.get(missed.size() - 1).getSequence();
+                    subscriber.pending.removeIf(outgoing -> outgoing.sequence != NO_SEQUENCE && outgoing.sequence <= replayedThrough);
+                    for (int i = missed.size() - 1; i >= 0; i--) {
+                        subscriber.pending.addFirst(toOutgoing(missed.get(i)));
+                    }
+                }
+            }
+        }
+        log.debug("SSE 구독 등록 - 구독자: {}, lastEventId: {}, 전체 구독자 수: {}", subscriber.id, lastEventId, subscribers.size());
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * 마지막으로 전달한 순번부터 지정한 순번까지의 변경 항목을 저널에서 읽어 모든 구독자의 버퍼에 넣습니다.
+     * 전송을 기다리지 않고 바로 반환하며, 버퍼가 가득 찬 구독자는 연결을 끊습니다.
+     *
+     * @param sequence 공개된 스냅샷에 모두 반영된 마지막 저널 순번
+     */
+    public void broadcastThrough(long sequence) {
+        broadcastLock.lock();
+        try {
+            if (sequence <= lastBroadcastSequence) {
+                return;
+            }
+            List<DirectoryChangeDto> pending = changeJournal.readSince(lastBroadcastSequence);
+            if (pending == null) {
+                // 저널이 초기화되었거나 밀려나 순서대로 이어 보낼 수 없음
+                broadcastReset();
+                return;
+            }
+            List<DirectoryChangeDto> outgoing = pending.stream()
+                .filter(change -> change.getSequence() <= sequence)
+                .toList();
+            if (outgoing.isEmpty()) {
+                return;
+            }
+            lastBroadcastSequence = outgoing.get(outgoing.size() - 1).getSequence();
+            enqueue(outgoing);
+        } finally {
+            broadcastLock.unlock();
+        }
+    }
+
+    /**
+     * 저장소를 직접 변경해 저널이 초기화된 경우 모든 구독자에게 reset 이벤트를 보냅니다.
+     * 구독자는 전체 트리를 다시 조회해야 합니다.
+     */
+    public void broadcastReset() {
+        broadcastLock.lock();
+        try {
+            lastBroadcastSequence = changeJournal.getLatestSequence();
+            for (Subscriber subscriber : subscribers) {
+                synchronized (subscriber) {
+                    if (subscriber.evicted) {
+                        continue;
+                    }
+                    subscriber.pending.clear();
+                    subscriber.pending.add(resetEvent());
+                }
+                schedule(subscriber);
+            }
+        } finally {
+            broadcastLock.unlock();
+        }
+    }
+
+    private void enqueue(List<DirectoryChangeDto> changes) {
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                if (subscriber.evicted) {
+                    continue;
+                }
+                if (changes.size() > BUFFER_CAPACITY) {
+                    // 버퍼보다 큰 일괄 변경은 항목 대신 reset으로 알려 전체 트리를 다시 받게 함
+                    subscriber.pending.clear();
+                    subscriber.pending.add(resetEvent());
+                } else if (subscriber.pending.size() + changes.size() > BUFFER_CAPACITY) {
+                    evict(subscriber);
+                } else {
+                    for (DirectoryChangeDto change : changes) {
+                        subscriber.pending.add(toOutgoing(change));
+                    }
+                }
+            }
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * @return 현재 구독자 수
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private static Outgoing resetEvent() {
+        return new Outgoing(NO_SEQUENCE, SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+    }
+
+    private static Outgoing toOutgoing(DirectoryChangeDto change) {
+        return new Outgoing(change.getSequence(), SseEmitter.event()
+            .id(Long.toString(change.getSequence()))
+            .name("change")
+            .data(change, MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * 느린 구독자를 제거합니다. 전송 중일 수 있으므로 연결 종료는 전송 스레드에서 수행합니다.
+     */
+    private void evict(Subscriber subscriber) {
+        subscriber.evicted = true;
+        subscriber.pending.clear();
+        subscribers.remove(subscriber);
+        log.warn("SSE 구독자 버퍼 초과로 연결 종료 - 구독자: {}", subscriber.id);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("SSE 구독 해제 - 구독자: {}, 전체 구독자 수: {}", subscriber.id, subscribers.size());
+        }
+    }
+
+    /**
+     * 구독자의 버퍼를 비우는 작업을 예약합니다. 구독자마다 한 번에 하나의 전송 작업만 실행됩니다.
+     */
+    private void schedule(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.sending || (subscriber.pending.isEmpty() && !subscriber.evicted)) {
+                return;
+            }
+            subscriber.sending = true;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            synchronized (subscriber) {
+                subscriber.sending = false;
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Outgoing outgoing;
+            synchronized (subscriber) {
+                if (subscriber.evicted) {
+                    subscriber.sending = false;
+                    subscriber.emitter.complete();
+                    return;
+                }
+                outgoing = subscriber.pending.poll();
+                if (outgoing == null) {
+                    subscriber.sending = false;
+                    return;
+                }
+            }
+            try {
+                subscriber.emitter.send(outgoing.event);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("SSE 전송 실패로 구독 해제 - 구독자: {}, 원인: {}", subscriber.id, e.getMessage());
+                synchronized (subscriber) {
+                    subscriber.evicted = true;
+                    subscriber.pending.clear();
+                }
+                remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * 구독자 한 명의 연결과 미전송 버퍼 (버퍼 접근은 구독자 객체로 동기화)
+     */
+    private static final class Subscriber {
+        private final int id;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Outgoing> pending = new ArrayDeque<>();
+
+        private boolean sending;
+        private boolean evicted;
+
+        private Subscriber(int id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * 전송 대기 중인 이벤트 (재연결 시 중복 제거를 위해 변경 순번을 함께 보관)
+     */
+    private static final class Outgoing {
+        private final long sequence;
+        private final SseEmitter.SseEventBuilder event;
+
+        private Outgoing(long sequence, SseEmitter.SseEventBuilder event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 디렉토리 변경 저널 클래스
+ *
+ * 주요 기능:
+ * 1. 커밋된 변경을 순번과 함께 고정 크기 원형 버퍼에 보관 (가장 오래된 항목부터 밀려남)
+ * 2. 지정한 순번 이후의 항목만 반환하여 클라이언트가 전체 트리 대신 변경분만 받도록 지원
+ * 3. 요청한 순번이 이미 밀려났거나 저널이 초기화된 경우 이어갈 수 없음을 알림
+ *
+ * 순번은 애플리케이션 시작 시각(밀리초 × 1000)부터 시작하므로, 재시작 전의 순번으로 요청하면
+ * 범위를 벗어나 전체 스냅샷으로 대체됩니다. 메모리에만 보관하며 인스턴스 간에 공유되지 않습니다.
+ */
+@Component
+public class DirectoryChangeJournal {
+
+    /**
+     * 보관하는 최대 항목 수
+     */
+    static final int CAPACITY = 10_000;
+
+    private final DirectoryChangeDto[] entries = new DirectoryChangeDto[CAPACITY];
+
+    /**
+     * 마지막으로 부여한 순번
+     */
+    private long latestSequence = System.currentTimeMillis() * 1000;
+
+    /**
+     * 이 순번 이하의 항목은 이어갈 수 없음 (시작 시점 또는 마지막 초기화 시점)
+     */
+    private long resetSequence = latestSequence;
+
+    /**
+     * 커밋된 변경 항목에 순번을 붙여 추가합니다.
+     *
+     * @param changes 순번 없는 변경 항목 목록
+     * @return 순번이 붙은 변경 항목 목록
+     */
+    public synchronized List<DirectoryChangeDto> append(List<DirectoryChangeDto> changes) {
+        List<DirectoryChangeDto> appended = new ArrayList<>(changes.size());
+        for (DirectoryChangeDto change : changes) {
+            latestSequence++;
+            DirectoryChangeDto entry = change.withSequence(latestSequence);
+            entries[slot(latestSequence)] = entry;
+            appended.add(entry);
+        }
+        return appended;
+    }
+
+    /**
+     * 저장소를 직접 변경해 항목으로 기록할 수 없는 경우 저널을 초기화합니다.
+     * 순번을 하나 건너뛰므로 이전 순번으로 요청한 클라이언트는 모두 전체 스냅샷을 받습니다.
+     */
+    public synchronized void reset() {
+        latestSequence++;
+        resetSequence = latestSequence;
+    }
+
+    /**
+     * @return 마지막으로 부여한 순번
+     */
+    public synchronized long getLatestSequence() {
+        return latestSequence;
+    }
+
+    /**
+     * 지정한 순번 이후의 항목을 순번 순으로 반환합니다.
+     *
+     * @param since 클라이언트가 마지막으로 반영한 순번
+     * @return 이후 항목 목록 (이어갈 수 없으면 null)
+     */
+    public synchronized List<DirectoryChangeDto> readSince(long since) {
+        long oldestAvailable = Math.max(resetSequence + 1, latestSequence - CAPACITY + 1);
+        if (since < oldestAvailable - 1 || since > latestSequence) {
+            return null;
+        }
+        List<DirectoryChangeDto> result = new ArrayList<>((int) (latestSequence - since));
+        for (long sequence = since + 1; sequence <= latestSequence; sequence++) {
+            result.add(entries[slot(sequence)]);
+        }
+        return result;
+    }
+
+    private static int slot(long sequence) {
+        return (int) Math.floorMod(sequence, (long) CAPACITY);
+    }
+}
@@ -0,0 +1,66 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 디렉토리 변경 이벤트 클래스
+ * 
+ * 주요 기능:
+ * 1. DirectoryService의 변경 작업(생성, 이동, 순서 변경, 삭제)을 알림
+ * 2. 트랜잭션 커밋 이후 읽기 측 캐시 갱신의 기준으로 사용
+ * 3. 커밋 이후 변경 저널에 추가할 항목(순번 없음)을 함께 전달
+ */
+public class DirectoryChangedEvent {
+
+    /**
+     * 변경 작업 유형
+     */
+    public enum Type {
+        CREATED, MOVED, REORDERED, DELETED
+    }
+
+    private final Type type;
+    private final List<DirectoryChangeDto> changes;
+
+    /**
+     * 여러 디렉토리를 한 번에 변경한 경우(일괄 순서 변경 등)에도 트랜잭션당 하나의 이벤트로 발행합니다.
+     *
+     * @param type 변경 작업 유형
+     * @param changes 변경 저널 항목 (실제로 바뀐 디렉토리마다 하나)
+     */
+    public DirectoryChangedEvent(Type type, List<DirectoryChangeDto> changes) {
+        this.type = type;
+        this.changes = List.copyOf(changes);
+    }
+
+    /**
+     * 아직 순번이 없는 변경 저널 항목을 만듭니다. 순번은 커밋 이후 저널에 추가될 때 붙습니다.
+     */
+    static DirectoryChangeDto change(Type type, Long id, String name, Long oldParentId, Long parentId,
+                                     Integer sortOrder, String oldPath, String path) {
+        return new DirectoryChangeDto(0L, type.name(), id, name, oldParentId, parentId, sortOrder, oldPath, path);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<DirectoryChangeDto> getChanges() {
+        return changes;
+    }
+
+    public List<Long> getDirectoryIds() {
+        return changes.stream().map(DirectoryChangeDto::getId).distinct().collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return "DirectoryChangedEvent{" +
+            "type=" + type +
+            ", directoryIds=" + getDirectoryIds() +
+            '}';
+    }
+}
@@ -0,0 +1,300 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryTreeDto;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 디렉토리 트리를 열(column) 단위 배열로 인코딩하는 클래스
+ *
+ * 주요 기능:
+ * 1. 트리를 전위 순서(부모가 자식보다 먼저)의 병렬 배열 ids, parentIds, sortOrders, nameIndexes로 변환
+ * 2. 이름은 중복을 제거한 names 표에 한 번씩만 담고 nameIndexes로 참조
+ * 3. path는 보내지 않고 클라이언트가 "부모 경로 + / + 이름"으로 계산
+ *    (이 규칙과 다른 경로를 가진 디렉토리만 pathOverrides로 따로 전달)
+ * 4. JSON 배열 형식과 바이너리 형식(길이 접두, 리틀 엔디언) 제공
+ * 5. 스냅샷은 불변이므로 스냅샷마다 한 번만 인코딩하고 다음 요청부터는 결과를 재사용
+ *
+ * 루트 디렉토리의 parentId는 0으로 표시합니다 (디렉토리 ID는 1부터 시작).
+ *
+ * 바이너리 형식 (모든 정수는 리틀 엔디언):
+ * <pre>
+ * magic          4바이트 "DRTC"
+ * formatVersion  int32 (현재 1)
+ * treeVersion    int64 (트리 스냅샷 버전)
+ * journalSeq     int64 (스냅샷에 반영된 변경 저널 순번)
+ * nodeCount      int32 N
+ * nameCount      int32 M
+ * names          M × (int32 바이트 길이 + UTF-8 바이트)
+ * ids            N × int64
+ * parentIds      N × int64
+ * sortOrders     N × int32
+ * nameIndexes    N × int32
+ * overrideCount  int32 K
+ * pathOverrides  K × (int32 노드 위치 + int32 바이트 길이 + UTF-8 바이트)
+ * </pre>
+ */
+@Component
+public class DirectoryColumnarEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryColumnarEncoder.class);
+
+    /**
+     * 바이너리 형식 식별자 ("DRTC")
+     */
+    static final byte[] MAGIC = {'D', 'R', 'T', 'C'};
+
+    /**
+     * 바이너리 형식 버전
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 마지막으로 인코딩한 스냅샷과 결과 (형식별로 처음 요청될 때 채움)
+     */
+    private final AtomicReference<Encoded> lastEncoded = new AtomicReference<>();
+
+    public DirectoryColumnarEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 스냅샷을 JSON 배열 형식으로 인코딩합니다.
+     *
+     * @param snapshot 트리 스냅샷
+     * @return UTF-8 JSON 바이트
+     */
+    public byte[] encodeJson(DirectoryTreeSnapshot snapshot) {
+        Encoded encoded = encodedFor(snapshot);
+        byte[] json = encoded.json;
+        if (json == null) {
+            json = writeJson(snapshot, encoded.columns);
+            encoded.json = json;
+        }
+        return json;
+    }
+
+    /**
+     * 스냅샷을 바이너리 형식으로 인코딩합니다.
+     *
+     * @param snapshot 트리 스냅샷
+     * @return 바이너리 바이트
+     */
+    public byte[] encodeBinary(DirectoryTreeSnapshot snapshot) {
+        Encoded encoded = encodedFor(snapshot);
+        byte[] binary = encoded.binary;
+        if (binary == null) {
+            binary = writeBinary(snapshot, encoded.columns);
+            encoded.binary = binary;
+        }
+        return binary;
+    }
+
+    private Encoded encodedFor(DirectoryTreeSnapshot snapshot) {
+        Encoded current = lastEncoded.get();
+        if (current != null && current.snapshot == snapshot) {
+            return current;
+        }
+        // 동시에 여러 요청이 같은 스냅샷을 인코딩해도 결과가 같으므로 잠그지 않음
+        Encoded created = new Encoded(snapshot, Columns.of(snapshot));
+        lastEncoded.set(created);
+        return created;
+    }
+
+    private byte[] writeJson(DirectoryTreeSnapshot snapshot, Columns columns) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(columns.size * 24 + columns.nameBytes);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("version", snapshot.getVersion());
+            generator.writeNumberField("journalSequence", snapshot.getJournalSequence());
+            generator.writeFieldName("ids");
+            generator.writeArray(columns.ids, 0, columns.size);
+            generator.writeFieldName("parentIds");
+            generator.writeArray(columns.parentIds, 0, columns.size);
+            generator.writeFieldName("sortOrders");
+            generator.writeArray(columns.sortOrders, 0, columns.size);
+            generator.writeFieldName("nameIndexes");
+            generator.writeArray(columns.nameIndexes, 0, columns.size);
+            generator.writeArrayFieldStart("names");
+            for (String name : columns.names) {
+                generator.writeString(name);
+            }
+            generator.writeEndArray();
+            generator.writeFieldName("overrideIndexes");
+            generator.writeArray(columns.overrideIndexes.stream().mapToInt(Integer::intValue).toArray(), 0,
+                columns.overrideIndexes.size());
+            generator.writeArrayFieldStart("overridePaths");
+            for (String path : columns.overridePaths) {
+                generator.writeString(path);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("열 단위 JSON 인코딩 - 스냅샷 버전: {}, 디렉토리 수: {}, 크기: {}바이트",
+            snapshot.getVersion(), columns.size, out.size());
+        return out.toByteArray();
+    }
+
+    private static byte[] writeBinary(DirectoryTreeSnapshot snapshot, Columns columns) {
+        List<byte[]> encodedNames = new ArrayList<>(columns.names.size());
+        int namesLength = 0;
+        for (String name : columns.names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            encodedNames.add(bytes);
+            namesLength += Integer.BYTES + bytes.length;
+        }
+        List<byte[]> encodedOverrides = new ArrayList<>(columns.overridePaths.size());
+        int overridesLength = Integer.BYTES;
+        for (String path : columns.overridePaths) {
+            byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+            encodedOverrides.add(bytes);
+            overridesLength += Integer.BYTES * 2 + bytes.length;
+        }
+        int length = overridesLength + MAGIC.length + Integer.BYTES + Long.BYTES * 2 + Integer.BYTES * 2 + namesLength
+            + columns.size * (Long.BYTES * 2 + Integer.BYTES * 2);
+
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.putLong(snapshot.getVersion());
+        buffer.putLong(snapshot.getJournalSequence());
+        buffer.putInt(columns.size);
+        buffer.putInt(encodedNames.size());
+        for (byte[] name : encodedNames) {
+            buffer.putInt(name.length);
+            buffer.put(name);
+        }
+        buffer.asLongBuffer().put(columns.ids, 0, columns.size);
+        buffer.position(buffer.position() + columns.size * Long.BYTES);
+        buffer.asLongBuffer().put(columns.parentIds, 0, columns.size);
+        buffer.position(buffer.position() + columns.size * Long.BYTES);
+        buffer.asIntBuffer().put(columns.sortOrders, 0, columns.size);
+        buffer.position(buffer.position() + columns.size * Integer.BYTES);
+        buffer.asIntBuffer().put(columns.nameIndexes, 0, columns.size);
+        buffer.position(buffer.position() + columns.size * Integer.BYTES);
+        buffer.putInt(encodedOverrides.size());
+        for (int i = 0; i < encodedOverrides.size(); i++) {
+            buffer.putInt(columns.overrideIndexes.get(i));
+            buffer.putInt(encodedOverrides.get(i).length);
+            buffer.put(encodedOverrides.get(i));
+        }
+        log.debug("열 단위 바이너리 인코딩 - 스냅샷 버전: {}, 디렉토리 수: {}, 크기: {}바이트",
+            snapshot.getVersion(), columns.size, length);
+        return buffer.array();
+    }
+
+    /**
+     * 스냅샷 하나의 인코딩 결과 (형식별 결과는 처음 요청될 때 채워지며, 같은 값을 여러 번 써도 무방)
+     */
+    private static final class Encoded {
+        private final DirectoryTreeSnapshot snapshot;
+        private final Columns columns;
+        private volatile byte[] json;
+        private volatile byte[] binary;
+
+        private Encoded(DirectoryTreeSnapshot snapshot, Columns columns) {
+            this.snapshot = snapshot;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * 전위 순서로 펼친 병렬 배열과 이름 표
+     */
+    private static final class Columns {
+        private final int size;
+        private final long[] ids;
+        private final long[] parentIds;
+        private final int[] sortOrders;
+        private final int[] nameIndexes;
+        private final List<String> names;
+        private final int nameBytes;
+        private final List<Integer> overrideIndexes;
+        private final List<String> overridePaths;
+
+        private Columns(int size, long[] ids, long[] parentIds, int[] sortOrders, int[] nameIndexes,
+                        List<String> names, int nameBytes, List<Integer> overrideIndexes, List<String> overridePaths) {
+            this.size = size;
+            this.ids = ids;
+            this.parentIds = parentIds;
+            this.sortOrders = sortOrders;
+            this.nameIndexes = nameIndexes;
+            this.names = names;
+            this.nameBytes = nameBytes;
+            this.overrideIndexes = overrideIndexes;
+            this.overridePaths = overridePaths;
+        }
+
+        private static Columns of(DirectoryTreeSnapshot snapshot) {
+            int size = snapshot.getSize();
+            long[] ids = new long[size];
+            long[] parentIds = new long[size];
+            int[] sortOrders = new int[size];
+            int[] nameIndexes = new int[size];
+            Map<String, Integer> nameTable = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            int nameBytes = 0;
+            List<Integer> overrideIndexes = new ArrayList<>();
+            List<String> overridePaths = new ArrayList<>();
+
+            // 재귀 없이 전위 순회 (열린 단계마다 남은 형제 반복자와 그 부모를 쌓음)
+            int position = 0;
+            ArrayDeque<Iterator<DirectoryTreeDto>> stack = new ArrayDeque<>();
+            ArrayDeque<DirectoryTreeDto> parents = new ArrayDeque<>();
+            stack.push(snapshot.getRoots().iterator());
+            while (!stack.isEmpty()) {
+                Iterator<DirectoryTreeDto> siblings = stack.peek();
+                if (!siblings.hasNext()) {
+                    stack.pop();
+                    parents.poll();
+                    continue;
+                }
+                DirectoryTreeDto node = siblings.next();
+                DirectoryTreeDto parent = stack.size() > 1 ? parents.peek() : null;
+                String derivedPath = (parent != null ? parent.getPath() : "") + "/" + node.getName();
+                if (!derivedPath.equals(node.getPath())) {
+                    overrideIndexes.add(position);
+                    overridePaths.add(node.getPath());
+                }
+                Integer nameIndex = nameTable.get(node.getName());
+                if (nameIndex == null) {
+                    nameIndex = names.size();
+                    nameTable.put(node.getName(), nameIndex);
+                    names.add(node.getName());
+                    nameBytes += node.getName().length() + 2;
+                }
+                ids[position] = node.getId();
+                parentIds[position] = node.getParentId() != null ? node.getParentId() : 0L;
+                sortOrders[position] = node.getSortOrder() != null ? node.getSortOrder() : 0;
+                nameIndexes[position] = nameIndex;
+                position++;
+                stack.push(node.getChildren().iterator());
+                parents.push(node);
+            }
+            return new Columns(position, ids, parentIds, sortOrders, nameIndexes, names, nameBytes,
+                overrideIndexes, overridePaths);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.dropand.service;
+
+/**
+ * 동시 변경 충돌을 나타내는 예외 클래스
+ *
+ * 주요 기능:
+ * 1. 요청에 담긴 버전이 현재 버전과 다르거나 재시도 후에도 충돌이 계속된 경우 발생
+ * 2. 충돌한 디렉토리 ID와 현재 버전을 함께 전달 (클라이언트가 최신 상태로 다시 요청하도록)
+ * 3. 생성/이동할 경로에 이미 다른 디렉토리가 있는 경우에도 발생 (이때 ID와 버전은 그 디렉토리의 값)
+ */
+public class DirectoryConflictException extends RuntimeException {
+
+    private final Long directoryId;
+    private final Long currentVersion;
+
+    public DirectoryConflictException(String message, Long directoryId, Long currentVersion) {
+        super(message);
+        this.directoryId = directoryId;
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getDirectoryId() {
+        return directoryId;
+    }
+
+    /**
+     * 충돌한 디렉토리의 현재 버전 (이미 삭제되었으면 null)
+     */
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,66 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryNodeDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 하위 디렉토리 키셋 페이지네이션 커서 클래스
+ * 
+ * 주요 기능:
+ * 1. 마지막으로 반환한 항목의 (정렬 순서, ID)를 불투명한 문자열로 인코딩
+ * 2. 클라이언트가 보낸 커서 문자열을 검증하고 디코딩
+ */
+public final class DirectoryCursor {
+
+    private final int sortOrder;
+    private final long id;
+
+    private DirectoryCursor(int sortOrder, long id) {
+        this.sortOrder = sortOrder;
+        this.id = id;
+    }
+
+    /**
+     * 마지막으로 반환한 항목 다음부터 조회하는 커서를 만듭니다.
+     *
+     * @param last 현재 페이지의 마지막 항목
+     * @return 다음 페이지 커서
+     */
+    public static DirectoryCursor after(DirectoryNodeDto last) {
+        return new DirectoryCursor(last.getSortOrder(), last.getId());
+    }
+
+    /**
+     * 커서 문자열을 디코딩합니다.
+     *
+     * @param value 인코딩된 커서
+     * @return 디코딩된 커서
+     * @throws IllegalArgumentException 형식이 올바르지 않은 경우
+     */
+    public static DirectoryCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new DirectoryCursor(
+                Integer.parseInt(decoded.substring(0, separator)),
+                Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = sortOrder + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getSortOrder() {
+        return sortOrder;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
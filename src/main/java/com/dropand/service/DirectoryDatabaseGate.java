@@ -0,0 +1,123 @@
+package com.dropand.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * DB 작업의 동시 실행 수를 제한하는 클래스
+ *
+ * 주요 기능:
+ * 1. 동시에 DB를 쓰는 디렉토리 작업 수를 커넥션 풀보다 작은 한도로 제한 (도착 순서대로 허가)
+ * 2. 대기 제한 시간 안에 허가를 받지 못하면 DirectoryBusyException으로 바로 거절 (503)
+ * 3. 같은 스레드에서 중첩 호출되면 허가를 다시 받지 않음
+ * 4. DB 커서를 읽으며 응답을 기록하는 스트리밍 본문은 기록이 끝날 때까지 허가를 유지
+ *
+ * 가상 스레드로 요청을 처리하면 요청 수만큼 스레드가 생기므로, 요청 스레드 풀 대신 이 한도가
+ * DB로 향하는 동시 작업 수를 정합니다. 커넥션 풀에서 오래 기다리다 시간 초과로 실패하는 대신
+ * 정해진 시간 안에 거절하여 응답 지연이 한없이 늘어나지 않게 합니다.
+ * 캐시된 스냅샷만 읽는 트리 조회와, 한 번에 하나만 실행되는 스냅샷 재생성 스레드는 이 한도를 거치지 않습니다.
+ */
+@Component
+public class DirectoryDatabaseGate {
+
+    /**
+     * 현재 스레드가 허가를 가지고 있는지 여부
+     */
+    private static final ThreadLocal<Boolean> HOLDING = new ThreadLocal<>();
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMillis;
+
+    public DirectoryDatabaseGate(@Value("${dropand.db.max-concurrency:8}") int maxConcurrency,
+                                 @Value("${dropand.db.acquire-timeout-millis:2000}") long acquireTimeoutMillis) {
+        if (maxConcurrency < 1 || acquireTimeoutMillis < 0) {
+            throw new IllegalArgumentException("DB 동시 실행 한도는 1 이상, 대기 제한 시간은 0 이상이어야 합니다.");
+        }
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * 허가를 받은 뒤 작업을 실행합니다.
+     *
+     * @param action DB를 사용하는 작업
+     * @return 작업 결과
+     * @throws DirectoryBusyException 대기 제한 시간 안에 허가를 받지 못한 경우
+     */
+    public <T> T call(Supplier<T> action) {
+        if (HOLDING.get() != null) {
+            return action.get();
+        }
+        acquire();
+        HOLDING.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            HOLDING.remove();
+            permits.release();
+        }
+    }
+
+    /**
+     * 응답을 기록하는 동안 허가를 유지하도록 스트리밍 본문을 감쌉니다.
+     * 허가는 응답 기록을 시작할 때 받으므로 요청 스레드는 기다리지 않습니다.
+     *
+     * @param body DB 커서를 읽으며 응답을 기록하는 본문
+     * @return 허가를 받은 뒤 기록하는 본문
+     */
+    public StreamingResponseBody stream(StreamingResponseBody body) {
+        return out -> {
+            if (HOLDING.get() != null) {
+                body.writeTo(out);
+                return;
+            }
+            acquire();
+            HOLDING.set(Boolean.TRUE);
+            try {
+                body.writeTo(out);
+            } finally {
+                HOLDING.remove();
+                permits.release();
+            }
+        };
+    }
+
+    /**
+     * @return 지금 DB 작업을 실행 중인 수
+     */
+    public int getActive() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return 허가를 기다리는 스레드 수 (추정값)
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new DirectoryBusyException("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해 주세요.",
+                Math.max(1, TimeUnit.MILLISECONDS.toSeconds(acquireTimeoutMillis)));
+        }
+    }
+}
@@ -0,0 +1,872 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryTreeDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * 디렉토리 계층 구조를 기본형 배열로 보관하는 메모리 색인 클래스
+ *
+ * 주요 기능:
+ * 1. 디렉토리 하나를 슬롯 번호 하나로 두고 ID, 부모, 첫 자식/마지막 자식, 이전/다음 형제, 정렬 순서를 기본형 열에 저장
+ *    - 디렉토리 ID에서 슬롯 번호로의 변환은 열린 주소 해시 표(long 키, int 값)로 처리
+ *    - 최상위 디렉토리는 가상의 루트 슬롯(0번)의 자식으로 연결
+ * 2. 조상, 하위 디렉토리, 깊이, 하위 트리 크기, 형제 순서 조회를 객체 생성 없이 처리
+ *    (목록을 돌려주는 조회는 호출하는 쪽이 넘긴 배열에 채움)
+ * 3. 커밋된 변경 저널 항목을 순번 순서대로 반영 (생성/이동/순서 변경은 슬롯 하나를 다시 연결, 삭제는 하위 트리 슬롯 회수)
+ * 4. 저널로 이어갈 수 없으면(초기화, 밀려남) 최신 스냅샷으로 전체를 다시 만듦
+ *    (스냅샷 이후에 커밋된 항목은 다시 만들면서 저널에서 이어 반영)
+ * 5. dropand.hierarchy.off-heap=true이면 열을 힙 밖(direct ByteBuffer)에 두어 GC가 훑을 객체를 없앰
+ *
+ * 디렉토리 하나에 열 32바이트와 해시 표 24~48바이트(2의 거듭제곱으로 맞춤)를 쓰며, 엔티티나 스냅샷 노드처럼 객체와 자식 목록을 만들지 않습니다.
+ * 조회는 읽기 잠금, 변경 반영은 쓰기 잠금 안에서 수행하므로 조회는 반영이 끝난 상태만 봅니다.
+ */
+@Component
+public class DirectoryHierarchyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryHierarchyIndex.class);
+
+    /**
+     * 가상의 루트 슬롯 (최상위 디렉토리들의 부모)
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * 연결이 없음을 나타내는 슬롯 번호
+     */
+    private static final int NONE = -1;
+
+    /**
+     * 디렉토리가 아닌 슬롯(루트, 회수된 슬롯)의 ID, 해시 표의 빈 칸 표시로도 사용
+     */
+    private static final long NO_ID = 0L;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final DirectoryChangeJournal changeJournal;
+    private final boolean offHeap;
+    private final StampedLock lock = new StampedLock();
+
+    private Storage storage;
+
+    /**
+     * 색인에 모두 반영된 마지막 변경 저널 순번
+     */
+    private long appliedSequence;
+
+    /**
+     * 아직 스냅샷으로 한 번도 만들지 않았으면 false
+     */
+    private boolean loaded;
+
+    public DirectoryHierarchyIndex(DirectoryChangeJournal changeJournal,
+                                   @Value("${dropand.hierarchy.off-heap:false}") boolean offHeap) {
+        this.changeJournal = changeJournal;
+        this.offHeap = offHeap;
+        this.storage = new Storage(INITIAL_CAPACITY, offHeap);
+    }
+
+    /**
+     * 스냅샷의 모든 디렉토리로 색인을 새로 만들고 교체합니다.
+     * 새 저장 공간은 잠금 밖에서 채우므로 조회는 교체하는 순간에만 잠깐 기다립니다.
+     * 스냅샷의 저널 순번 이후 항목은 교체하면서 저널에서 이어 반영하므로, 색인이 없어 건너뛴 변경도 빠지지 않습니다.
+     *
+     * @param snapshot 기준 스냅샷
+     */
+    public void rebuild(DirectoryTreeSnapshot snapshot) {
+        long startedAt = System.nanoTime();
+        // 다시 만든 직후의 생성으로 바로 열을 늘리지 않도록 여유를 둠
+        Storage rebuilt = new Storage(Math.max(INITIAL_CAPACITY, snapshot.getSize() + snapshot.getSize() / 4 + 1), offHeap);
+        ArrayDeque<DirectoryTreeDto> stack = new ArrayDeque<>(snapshot.getRoots());
+        while (!stack.isEmpty()) {
+            DirectoryTreeDto directory = stack.pop();
+            // 부모가 먼저 꺼내지고 형제는 정렬 순서대로 주어지므로 마지막 자식 뒤에 붙이기만 하면 됨
+            rebuilt.place(directory.getId(), directory.getParentId(), sortOrderOf(directory.getSortOrder()));
+            stack.addAll(directory.getChildren());
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            storage = rebuilt;
+            appliedSequence = snapshot.getJournalSequence();
+            loaded = true;
+            List<DirectoryChangeDto> later = changeJournal.readSince(appliedSequence);
+            if (later != null && !applyPending(later)) {
+                log.warn("계층 색인 재생성 후 저널 반영 실패 - 저널 순번: {}", appliedSequence);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.debug("계층 색인 재생성 - 디렉토리 수: {}, 저널 순번: {}, 메모리: {}바이트{}, 소요 시간: {}ms",
+            rebuilt.size, snapshot.getJournalSequence(), rebuilt.memoryBytes(), offHeap ? " (힙 밖)" : "",
+            (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * 커밋된 변경 항목을 순번 순서대로 반영합니다.
+     * 앞 순번이 아직 반영되지 않았으면 저널에서 함께 읽어 반영하고, 이미 반영한 항목은 건너뜁니다.
+     * 부모를 찾지 못하는 항목이 있으면 색인이 어긋난 것이므로 스냅샷으로 다시 만듭니다.
+     *
+     * @param changes 순번이 붙은 변경 항목 목록
+     * @param latest 저널로 이어갈 수 없을 때 다시 만들 기준인 최신 스냅샷 (그때만 읽음)
+     */
+    public void apply(List<DirectoryChangeDto> changes, Supplier<DirectoryTreeSnapshot> latest) {
+        boolean consistent;
+        long stamp = lock.writeLock();
+        try {
+            if (!loaded || changes.isEmpty() || changes.get(changes.size() - 1).getSequence() <= appliedSequence) {
+                return;
+            }
+            List<DirectoryChangeDto> pending = changes;
+            if (changes.get(0).getSequence() > appliedSequence + 1) {
+                pending = changeJournal.readSince(appliedSequence);
+            }
+            consistent = pending != null && applyPending(pending);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (!consistent) {
+            rebuild(latest.get());
+        }
+    }
+
+    /**
+     * 쓰기 잠금 안에서 아직 반영하지 않은 항목을 순서대로 반영합니다.
+     *
+     * @return 부모를 찾지 못한 항목이 있으면 false
+     */
+    private boolean applyPending(List<DirectoryChangeDto> pending) {
+        for (DirectoryChangeDto change : pending) {
+            if (change.getSequence() <= appliedSequence) {
+                continue;
+            }
+            if (DirectoryChangedEvent.Type.DELETED.name().equals(change.getOp())) {
+                storage.removeSubtree(change.getId());
+            } else if (!storage.place(change.getId(), change.getParentId(), sortOrderOf(change.getSortOrder()))) {
+                return false;
+            }
+            appliedSequence = change.getSequence();
+        }
+        return true;
+    }
+
+    /**
+     * @return 스냅샷으로 한 번 이상 만들어져 조회할 수 있으면 true
+     */
+    public boolean isLoaded() {
+        long stamp = lock.readLock();
+        try {
+            return loaded;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return 색인에 모두 반영된 마지막 변경 저널 순번
+     */
+    public long getAppliedSequence() {
+        long stamp = lock.readLock();
+        try {
+            return appliedSequence;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return 색인에 있는 디렉토리 수
+     */
+    public int getSize() {
+        long stamp = lock.readLock();
+        try {
+            return storage.size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return 열과 해시 표가 차지하는 바이트 수 (힙 밖에 두었으면 그 크기)
+     */
+    public long getMemoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return storage.memoryBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param id 디렉토리 ID
+     * @return 색인에 있으면 true
+     */
+    public boolean contains(long id) {
+        long stamp = lock.readLock();
+        try {
+            return storage.slotOf(id) != NONE;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param id 디렉토리 ID
+     * @return 부모 디렉토리 ID (최상위 디렉토리면 0)
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public long getParentId(long id) {
+        long stamp = lock.readLock();
+        try {
+            return storage.ids.get(storage.parent.get(storage.requireSlot(id)));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param id 디렉토리 ID
+     * @return 깊이 (최상위 디렉토리가 1)
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public int getDepth(long id) {
+        long stamp = lock.readLock();
+        try {
+            int depth = 0;
+            for (int slot = storage.requireSlot(id); slot != ROOT; slot = storage.parent.get(slot)) {
+                depth++;
+            }
+            return depth;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 한 디렉토리가 다른 디렉토리의 조상인지 하위 디렉토리에서 부모를 따라 올라가며 판별합니다.
+     * 자기 자신은 조상으로 보지 않습니다.
+     *
+     * @param ancestorId 조상인지 확인할 디렉토리 ID
+     * @param descendantId 하위 디렉토리인지 확인할 디렉토리 ID
+     * @return ancestorId가 descendantId의 (직계 또는 간접) 조상이면 true
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public boolean isAncestor(long ancestorId, long descendantId) {
+        long stamp = lock.readLock();
+        try {
+            int ancestor = storage.requireSlot(ancestorId);
+            for (int slot = storage.parent.get(storage.requireSlot(descendantId)); slot != ROOT; slot = storage.parent.get(slot)) {
+                if (slot == ancestor) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 조상 ID를 부모부터 루트 순으로 배열에 채웁니다.
+     *
+     * @param id 디렉토리 ID
+     * @param out 채울 배열 (모자라면 앞부분만 채움)
+     * @return 전체 조상 수 (out.length보다 크면 일부만 채워진 것)
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public int getAncestorIds(long id, long[] out) {
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int slot = storage.parent.get(storage.requireSlot(id)); slot != ROOT; slot = storage.parent.get(slot)) {
+                if (count < out.length) {
+                    out[count] = storage.ids.get(slot);
+                }
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 조상 ID를 부모부터 루트 순으로 새 목록에 담아 반환합니다. (잠금 대상 계산용)
+     *
+     * @param id 디렉토리 ID (null이거나 색인에 없으면 빈 목록)
+     * @return 조상 ID 목록 (자기 자신 제외)
+     */
+    public List<Long> getAncestorIds(Long id) {
+        List<Long> ancestors = new ArrayList<>();
+        if (id == null) {
+            return ancestors;
+        }
+        long stamp = lock.readLock();
+        try {
+            int slot = storage.slotOf(id);
+            if (slot == NONE) {
+                return ancestors;
+            }
+            for (slot = storage.parent.get(slot); slot != ROOT; slot = storage.parent.get(slot)) {
+                ancestors.add(storage.ids.get(slot));
+            }
+            return ancestors;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 직계 하위 디렉토리 ID를 정렬 순서대로 배열에 채웁니다.
+     *
+     * @param id 부모 디렉토리 ID
+     * @param out 채울 배열 (모자라면 앞부분만 채움)
+     * @return 전체 하위 디렉토리 수 (out.length보다 크면 일부만 채워진 것)
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public int getChildIds(long id, long[] out) {
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int slot = storage.firstChild.get(storage.requireSlot(id)); slot != NONE; slot = storage.nextSibling.get(slot)) {
+                if (count < out.length) {
+                    out[count] = storage.ids.get(slot);
+                }
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 모든 하위 디렉토리 ID를 전위 순회(부모 먼저, 형제는 정렬 순서) 순서로 배열에 채웁니다.
+     *
+     * @param id 디렉토리 ID
+     * @param out 채울 배열 (모자라면 앞부분만 채움)
+     * @return 전체 하위 디렉토리 수, 자신 제외 (out.length보다 크면 일부만 채워진 것)
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public int getDescendantIds(long id, long[] out) {
+        long stamp = lock.readLock();
+        try {
+            int top = storage.requireSlot(id);
+            int count = 0;
+            for (int slot = storage.nextInSubtree(top, top); slot != NONE; slot = storage.nextInSubtree(slot, top)) {
+                if (count < out.length) {
+                    out[count] = storage.ids.get(slot);
+                }
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param id 디렉토리 ID
+     * @return 자신을 포함한 하위 트리의 디렉토리 수
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public int getSubtreeSize(long id) {
+        long stamp = lock.readLock();
+        try {
+            int top = storage.requireSlot(id);
+            int count = 1;
+            for (int slot = storage.nextInSubtree(top, top); slot != NONE; slot = storage.nextInSubtree(slot, top)) {
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param id 디렉토리 ID
+     * @return 직계 하위 디렉토리 수
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public int getChildCount(long id) {
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int slot = storage.firstChild.get(storage.requireSlot(id)); slot != NONE; slot = storage.nextSibling.get(slot)) {
+                count++;
+            }
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param id 디렉토리 ID
+     * @return 형제 사이에서의 위치 (정렬 순서 기준, 0부터)
+     * @throws IllegalArgumentException 색인에 없는 디렉토리인 경우
+     */
+    public int getSiblingIndex(long id) {
+        long stamp = lock.readLock();
+        try {
+            int index = 0;
+            for (int slot = storage.prevSibling.get(storage.requireSlot(id)); slot != NONE; slot = storage.prevSibling.get(slot)) {
+                index++;
+            }
+            return index;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static int sortOrderOf(Integer sortOrder) {
+        return sortOrder == null ? 0 : sortOrder;
+    }
+
+    /**
+     * 슬롯별 열과 ID 해시 표
+     * 열은 힙 배열이나 힙 밖 버퍼 중 하나로 만들며, 모자라면 두 배로 늘려 복사합니다.
+     * 회수된 슬롯은 다음 형제 열로 이어 재사용합니다.
+     */
+    private static final class Storage {
+        private final boolean offHeap;
+
+        private LongColumn ids;
+        private IntColumn parent;
+        private IntColumn firstChild;
+        private IntColumn lastChild;
+        private IntColumn prevSibling;
+        private IntColumn nextSibling;
+        private IntColumn sortOrder;
+
+        /**
+         * 열린 주소 해시 표 (키는 디렉토리 ID, 0이면 빈 칸 / 값은 슬롯 번호), 크기는 2의 거듭제곱
+         */
+        private LongColumn tableKeys;
+        private IntColumn tableSlots;
+
+        /**
+         * 한 번이라도 쓴 슬롯 수 (루트 포함)
+         */
+        private int used;
+        private int freeHead = NONE;
+        private int size;
+
+        private Storage(int capacity, boolean offHeap) {
+            this.offHeap = offHeap;
+            ids = LongColumn.allocate(capacity, offHeap);
+            parent = IntColumn.allocate(capacity, offHeap);
+            firstChild = IntColumn.allocate(capacity, offHeap);
+            lastChild = IntColumn.allocate(capacity, offHeap);
+            prevSibling = IntColumn.allocate(capacity, offHeap);
+            nextSibling = IntColumn.allocate(capacity, offHeap);
+            sortOrder = IntColumn.allocate(capacity, offHeap);
+            int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            tableKeys = LongColumn.allocate(tableSize, offHeap);
+            tableSlots = IntColumn.allocate(tableSize, offHeap);
+
+            used = 1;
+            ids.set(ROOT, NO_ID);
+            parent.set(ROOT, NONE);
+            firstChild.set(ROOT, NONE);
+            lastChild.set(ROOT, NONE);
+            prevSibling.set(ROOT, NONE);
+            nextSibling.set(ROOT, NONE);
+        }
+
+        /**
+         * 디렉토리를 부모의 자식 목록 안 정렬 순서 위치에 둡니다. 이미 있으면 떼어내 옮깁니다.
+         *
+         * @return 부모를 찾지 못했으면 false
+         */
+        private boolean place(long id, Long parentId, int order) {
+            int parentSlot = parentId == null ? ROOT : slotOf(parentId);
+            if (parentSlot == NONE) {
+                return false;
+            }
+            int slot = slotOf(id);
+            if (slot == NONE) {
+                slot = allocate(id);
+            } else {
+                detach(slot);
+            }
+            sortOrder.set(slot, order);
+            attach(parentSlot, slot);
+            return true;
+        }
+
+        /**
+         * 디렉토리와 모든 하위 디렉토리의 슬롯을 회수합니다.
+         * 자식을 모두 회수한 뒤에 부모를 회수하는 후위 순서로, 연결을 따라가며 처리합니다.
+         */
+        private void removeSubtree(long id) {
+            int top = slotOf(id);
+            if (top == NONE) {
+                return;
+            }
+            detach(top);
+            int slot = top;
+            while (true) {
+                int child = firstChild.get(slot);
+                if (child != NONE) {
+                    slot = child;
+                    continue;
+                }
+                int next = nextSibling.get(slot);
+                int up = parent.get(slot);
+                release(slot);
+                if (slot == top) {
+                    return;
+                }
+                if (next != NONE) {
+                    slot = next;
+                } else {
+                    firstChild.set(up, NONE);
+                    slot = up;
+                }
+            }
+        }
+
+        /**
+         * 전위 순회에서 다음 슬롯을 구합니다. (top의 하위 트리를 벗어나면 NONE)
+         */
+        private int nextInSubtree(int slot, int top) {
+            int child = firstChild.get(slot);
+            if (child != NONE) {
+                return child;
+            }
+            while (slot != top) {
+                int next = nextSibling.get(slot);
+                if (next != NONE) {
+                    return next;
+                }
+                slot = parent.get(slot);
+            }
+            return NONE;
+        }
+
+        /**
+         * 부모의 자식 목록에 (정렬 순서, ID) 순서를 지키며 끼워 넣습니다.
+         * 새로 만들거나 맨 뒤로 옮기는 경우가 많으므로 마지막 자식부터 거꾸로 찾습니다.
+         */
+        private void attach(int parentSlot, int slot) {
+            int order = sortOrder.get(slot);
+            long id = ids.get(slot);
+            int before = lastChild.get(parentSlot);
+            while (before != NONE && (sortOrder.get(before) > order
+                    || (sortOrder.get(before) == order && ids.get(before) > id))) {
+                before = prevSibling.get(before);
+            }
+            int after = before == NONE ? firstChild.get(parentSlot) : nextSibling.get(before);
+            parent.set(slot, parentSlot);
+            prevSibling.set(slot, before);
+            nextSibling.set(slot, after);
+            if (before == NONE) {
+                firstChild.set(parentSlot, slot);
+            } else {
+                nextSibling.set(before, slot);
+            }
+            if (after == NONE) {
+                lastChild.set(parentSlot, slot);
+            } else {
+                prevSibling.set(after, slot);
+            }
+        }
+
+        private void detach(int slot) {
+            int parentSlot = parent.get(slot);
+            int before = prevSibling.get(slot);
+            int after = nextSibling.get(slot);
+            if (before == NONE) {
+                firstChild.set(parentSlot, after);
+            } else {
+                nextSibling.set(before, after);
+            }
+            if (after == NONE) {
+                lastChild.set(parentSlot, before);
+            } else {
+                prevSibling.set(after, before);
+            }
+            prevSibling.set(slot, NONE);
+            nextSibling.set(slot, NONE);
+        }
+
+        private int allocate(long id) {
+            int slot;
+            if (freeHead != NONE) {
+                slot = freeHead;
+                freeHead = nextSibling.get(slot);
+            } else {
+                if (used == ids.capacity()) {
+                    grow(used * 2);
+                }
+                slot = used++;
+            }
+            ids.set(slot, id);
+            firstChild.set(slot, NONE);
+            lastChild.set(slot, NONE);
+            size++;
+            if (size * 2 > tableKeys.capacity()) {
+                rehash(tableKeys.capacity() * 2);
+            }
+            tablePut(id, slot);
+            return slot;
+        }
+
+        private void release(int slot) {
+            tableRemove(ids.get(slot));
+            ids.set(slot, NO_ID);
+            parent.set(slot, NONE);
+            prevSibling.set(slot, NONE);
+            nextSibling.set(slot, freeHead);
+            freeHead = slot;
+            size--;
+        }
+
+        private int requireSlot(long id) {
+            int slot = slotOf(id);
+            if (slot == NONE) {
+                throw new IllegalArgumentException("Directory not found with id: " + id);
+            }
+            return slot;
+        }
+
+        private int slotOf(long id) {
+            if (id == NO_ID) {
+                return NONE;
+            }
+            int mask = tableKeys.capacity() - 1;
+            for (int bucket = hash(id) & mask; ; bucket = (bucket + 1) & mask) {
+                long key = tableKeys.get(bucket);
+                if (key == id) {
+                    return tableSlots.get(bucket);
+                }
+                if (key == NO_ID) {
+                    return NONE;
+                }
+            }
+        }
+
+        private void tablePut(long id, int slot) {
+            int mask = tableKeys.capacity() - 1;
+            int bucket = hash(id) & mask;
+            while (tableKeys.get(bucket) != NO_ID && tableKeys.get(bucket) != id) {
+                bucket = (bucket + 1) & mask;
+            }
+            tableKeys.set(bucket, id);
+            tableSlots.set(bucket, slot);
+        }
+
+        /**
+         * 키를 지우고, 뒤따르는 같은 묶음의 항목을 빈 칸 쪽으로 당겨 탐색이 끊기지 않게 합니다. (삭제 표시 없음)
+         */
+        private void tableRemove(long id) {
+            int mask = tableKeys.capacity() - 1;
+            int bucket = hash(id) & mask;
+            while (tableKeys.get(bucket) != id) {
+                if (tableKeys.get(bucket) == NO_ID) {
+                    return;
+                }
+                bucket = (bucket + 1) & mask;
+            }
+            int hole = bucket;
+            for (int next = (hole + 1) & mask; tableKeys.get(next) != NO_ID; next = (next + 1) & mask) {
+                int home = hash(tableKeys.get(next)) & mask;
+                // home이 (hole, next] 구간 밖이면 hole로 옮겨도 탐색 경로에 남음
+                boolean reachable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+                if (reachable) {
+                    tableKeys.set(hole, tableKeys.get(next));
+                    tableSlots.set(hole, tableSlots.get(next));
+                    hole = next;
+                }
+            }
+            tableKeys.set(hole, NO_ID);
+        }
+
+        private void rehash(int tableSize) {
+            LongColumn oldKeys = tableKeys;
+            IntColumn oldSlots = tableSlots;
+            tableKeys = LongColumn.allocate(tableSize, offHeap);
+            tableSlots = IntColumn.allocate(tableSize, offHeap);
+            for (int bucket = 0; bucket < oldKeys.capacity(); bucket++) {
+                long key = oldKeys.get(bucket);
+                if (key != NO_ID) {
+                    tablePut(key, oldSlots.get(bucket));
+                }
+            }
+        }
+
+        private void grow(int capacity) {
+            ids = ids.copyOf(capacity, offHeap);
+            parent = parent.copyOf(capacity, offHeap);
+            firstChild = firstChild.copyOf(capacity, offHeap);
+            lastChild = lastChild.copyOf(capacity, offHeap);
+            prevSibling = prevSibling.copyOf(capacity, offHeap);
+            nextSibling = nextSibling.copyOf(capacity, offHeap);
+            sortOrder = sortOrder.copyOf(capacity, offHeap);
+        }
+
+        private long memoryBytes() {
+            return (ids.capacity() + tableKeys.capacity()) * 8L
+                + (parent.capacity() * 6L + tableSlots.capacity()) * 4L;
+        }
+
+        private static int hash(long id) {
+            long mixed = id * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32));
+        }
+    }
+
+    /**
+     * long 열 (힙 배열 또는 힙 밖 버퍼)
+     */
+    private abstract static class LongColumn {
+        abstract long get(int index);
+
+        abstract void set(int index, long value);
+
+        abstract int capacity();
+
+        static LongColumn allocate(int capacity, boolean offHeap) {
+            return offHeap ? new DirectLongColumn(capacity) : new HeapLongColumn(new long[capacity]);
+        }
+
+        LongColumn copyOf(int capacity, boolean offHeap) {
+            LongColumn copy = allocate(capacity, offHeap);
+            for (int i = 0; i < capacity(); i++) {
+                copy.set(i, get(i));
+            }
+            return copy;
+        }
+    }
+
+    private static final class HeapLongColumn extends LongColumn {
+        private final long[] values;
+
+        private HeapLongColumn(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        long get(int index) {
+            return values[index];
+        }
+
+        @Override
+        void set(int index, long value) {
+            values[index] = value;
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+    }
+
+    private static final class DirectLongColumn extends LongColumn {
+        private final LongBuffer values;
+
+        private DirectLongColumn(int capacity) {
+            this.values = ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+
+        @Override
+        long get(int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void set(int index, long value) {
+            values.put(index, value);
+        }
+
+        @Override
+        int capacity() {
+            return values.capacity();
+        }
+    }
+
+    /**
+     * int 열 (힙 배열 또는 힙 밖 버퍼)
+     */
+    private abstract static class IntColumn {
+        abstract int get(int index);
+
+        abstract void set(int index, int value);
+
+        abstract int capacity();
+
+        static IntColumn allocate(int capacity, boolean offHeap) {
+            return offHeap ? new DirectIntColumn(capacity) : new HeapIntColumn(new int[capacity]);
+        }
+
+        IntColumn copyOf(int capacity, boolean offHeap) {
+            IntColumn copy = allocate(capacity, offHeap);
+            for (int i = 0; i < capacity(); i++) {
+                copy.set(i, get(i));
+            }
+            return copy;
+        }
+    }
+
+    private static final class HeapIntColumn extends IntColumn {
+        private final int[] values;
+
+        private HeapIntColumn(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int get(int index) {
+            return values[index];
+        }
+
+        @Override
+        void set(int index, int value) {
+            values[index] = value;
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+    }
+
+    private static final class DirectIntColumn extends IntColumn {
+        private final IntBuffer values;
+
+        private DirectIntColumn(int capacity) {
+            this.values = ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+
+        @Override
+        int get(int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void set(int index, int value) {
+            values.put(index, value);
+        }
+
+        @Override
+        int capacity() {
+            return values.capacity();
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryImportRecord;
+import com.dropand.dto.DirectoryImportResponse.Rejection;
+import com.dropand.dto.DirectoryNodeDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 디렉토리 일괄 가져오기 계획 클래스
+ *
+ * 주요 기능:
+ * 1. NDJSON 입력을 한 줄씩 읽어 검증 (형식 오류, 임시 ID/이름 누락, 이름의 '/', 중복 임시 ID는 해당 줄만 거부)
+ * 2. 부모 임시 ID를 메모리에서 연결하고, 부모를 찾을 수 없거나 순환하는 줄과 그 하위 줄을 거부
+ * 3. 가져오기 대상 디렉토리 기준으로 경로와 정렬 순서를 한 번의 순회로 계산 (이미 있는 경로는 하위 줄과 함께 거부)
+ * 4. 얕은 단계부터 배치 단위로 생성하여 부모에 부여된 ID를 자식에 바로 연결
+ *
+ * 입력을 읽는 단계는 DB에 접근하지 않으므로 잠금 밖에서 수행하고,
+ * 배치(layout) 이후는 쓰기 트랜잭션 안에서 수행합니다. 배치 결과는 매번 새로 만들어지므로 재시도해도 안전합니다.
+ */
+final class DirectoryImportPlan {
+
+    /**
+     * 이름과 경로 컬럼의 최대 길이
+     */
+    static final int MAX_LENGTH = 255;
+
+    private static final Comparator<Entry> SIBLING_ORDER =
+        Comparator.comparing((Entry entry) -> entry.order, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final int receivedCount;
+    private final List<Entry> entries;
+    private final List<Entry> roots;
+    private final List<Rejection> rejections;
+
+    private DirectoryImportPlan(int receivedCount, List<Entry> entries, List<Entry> roots, List<Rejection> rejections) {
+        this.receivedCount = receivedCount;
+        this.entries = entries;
+        this.roots = roots;
+        this.rejections = rejections;
+    }
+
+    /**
+     * NDJSON 입력을 끝까지 읽어 가져오기 계획을 만듭니다. 빈 줄은 건너뜁니다.
+     *
+     * @param input NDJSON 입력 (UTF-8)
+     * @param reader DirectoryImportRecord용 JSON 리더
+     * @return 가져오기 계획
+     * @throws UncheckedIOException 입력을 읽지 못한 경우
+     */
+    static DirectoryImportPlan read(InputStream input, ObjectReader reader) {
+        List<Entry> entries = new ArrayList<>();
+        List<Rejection> rejections = new ArrayList<>();
+        Map<String, Entry> byTempId = new HashMap<>();
+        int receivedCount = 0;
+        int lineNumber = 0;
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                receivedCount++;
+                DirectoryImportRecord record;
+                try {
+                    record = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    rejections.add(new Rejection(lineNumber, null, "JSON 형식이 올바르지 않습니다: " + e.getOriginalMessage()));
+                    continue;
+                }
+                String tempId = trimToNull(record.getId());
+                String name = record.getName() == null ? "" : record.getName().trim();
+                if (tempId == null) {
+                    rejections.add(new Rejection(lineNumber, null, "임시 ID는 필수입니다."));
+                } else if (name.isEmpty()) {
+                    rejections.add(new Rejection(lineNumber, tempId, "디렉토리 이름은 필수입니다."));
+                } else if (name.length() > MAX_LENGTH) {
+                    rejections.add(new Rejection(lineNumber, tempId, "디렉토리 이름이 너무 깁니다."));
+                } else if (name.indexOf('/') >= 0) {
+                    rejections.add(new Rejection(lineNumber, tempId, "디렉토리 이름에 '/'를 사용할 수 없습니다."));
+                } else if (byTempId.containsKey(tempId)) {
+                    rejections.add(new Rejection(lineNumber, tempId, "중복된 임시 ID입니다."));
+                } else {
+                    Entry entry = new Entry(entries.size(), lineNumber, tempId, trimToNull(record.getParentId()), name,
+                        record.getOrder());
+                    entries.add(entry);
+                    byTempId.put(tempId, entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("가져오기 입력을 읽지 못했습니다.", e);
+        }
+
+        List<Entry> roots = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.parentTempId == null) {
+                roots.add(entry);
+            } else {
+                entry.parent = byTempId.get(entry.parentTempId);
+                if (entry.parent != null) {
+                    entry.parent.children.add(entry);
+                }
+            }
+        }
+        rejectUnreachable(entries, roots, rejections);
+
+        // 같은 부모 안에서는 order 순, 같거나 없으면 입력 순 (정렬은 안정적)
+        roots.sort(SIBLING_ORDER);
+        for (Entry entry : entries) {
+            entry.children.sort(SIBLING_ORDER);
+        }
+        rejections.sort(Comparator.comparingInt(Rejection::getLine));
+        return new DirectoryImportPlan(receivedCount, entries, roots, rejections);
+    }
+
+    /**
+     * 루트(부모 임시 ID 없음)에서 닿지 않는 줄을 사유와 함께 거부합니다.
+     * 부모를 찾을 수 없는 줄, 순환에 속한 줄, 그 아래의 줄이 여기에 해당하며,
+     * 이 줄들은 모두 닿지 않는 부모 아래에만 있으므로 루트부터 배치할 때 자연히 빠집니다.
+     */
+    private static void rejectUnreachable(List<Entry> entries, List<Entry> roots, List<Rejection> rejections) {
+        Set<Entry> reachable = new HashSet<>();
+        List<Entry> stack = new ArrayList<>(roots);
+        while (!stack.isEmpty()) {
+            Entry entry = stack.remove(stack.size() - 1);
+            reachable.add(entry);
+            stack.addAll(entry.children);
+        }
+        if (reachable.size() == entries.size()) {
+            return;
+        }
+
+        Map<Entry, String> reasons = new HashMap<>();
+        for (Entry entry : entries) {
+            if (reachable.contains(entry) || reasons.containsKey(entry)) {
+                continue;
+            }
+            // 부모를 따라 올라가며 부모를 찾을 수 없는 줄, 이미 사유가 정해진 줄, 또는 순환을 만날 때까지 기록
+            List<Entry> walk = new ArrayList<>();
+            Map<Entry, Integer> positions = new HashMap<>();
+            Entry current = entry;
+            while (current != null && !reasons.containsKey(current) && !positions.containsKey(current)) {
+                positions.put(current, walk.size());
+                walk.add(current);
+                current = current.parent;
+            }
+            int cycleStart = current != null && positions.containsKey(current) ? positions.get(current) : walk.size();
+            for (int i = 0; i < walk.size(); i++) {
+                Entry rejected = walk.get(i);
+                String reason;
+                if (rejected.parent == null) {
+                    reason = "부모 임시 ID를 찾을 수 없습니다: " + rejected.parentTempId;
+                } else if (i >= cycleStart) {
+                    reason = "순환 참조가 있습니다.";
+                } else {
+                    reason = "상위 디렉토리가 거부되었습니다.";
+                }
+                reasons.put(rejected, reason);
+            }
+        }
+        for (Entry entry : entries) {
+            String reason = reasons.get(entry);
+            if (reason != null) {
+                rejections.add(new Rejection(entry.line, entry.tempId, reason));
+            }
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    /**
+     * @return 빈 줄을 제외하고 읽은 줄 수
+     */
+    int getReceivedCount() {
+        return receivedCount;
+    }
+
+    /**
+     * @return 입력을 읽는 단계에서 거부된 줄 (줄 번호 순)
+     */
+    List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * 가져오기 대상 디렉토리 기준으로 경로와 정렬 순서를 계산합니다.
+     * 대상 디렉토리 바로 아래 항목은 기존 마지막 형제 뒤에, 새 디렉토리의 자식은 처음부터 간격을 두고 배치합니다.
+     * 경로가 컬럼 길이를 넘거나 이미 있는 경로(기존 디렉토리 또는 먼저 배치된 같은 이름의 형제)와 겹치는 줄은
+     * 그 하위 줄과 함께 거부합니다.
+     *
+     * @param mountPath 가져오기 대상 디렉토리 경로 (루트 아래면 빈 문자열)
+     * @param maxSortOrder 대상 디렉토리의 기존 자식 중 가장 큰 정렬 순서 (없으면 null)
+     * @param existingPaths 대상 디렉토리의 기존 자식 경로
+     * @return 단계별 생성 계획
+     * @throws IllegalArgumentException 대상 디렉토리에 정렬 순서를 배정할 공간이 없는 경우
+     */
+    Layout layout(String mountPath, Integer maxSortOrder, Set<String> existingPaths) {
+        Layout layout = new Layout(entries.size());
+        List<Entry> level = new ArrayList<>();
+        placeSiblings(layout, roots, mountPath, maxSortOrder == null ? 0L : maxSortOrder, existingPaths, level);
+        while (!level.isEmpty()) {
+            layout.levels.add(level);
+            List<Entry> next = new ArrayList<>();
+            for (Entry parent : level) {
+                placeSiblings(layout, parent.children, layout.paths[parent.index], 0L, Set.of(), next);
+            }
+            level = next;
+        }
+        layout.rejections.sort(Comparator.comparingInt(Rejection::getLine));
+        return layout;
+    }
+
+    private static void placeSiblings(Layout layout, List<Entry> siblings, String parentPath, long base,
+                                      Set<String> existingPaths, List<Entry> placed) {
+        if (siblings.isEmpty()) {
+            return;
+        }
+        long step = Math.min(DirectoryService.SORT_ORDER_GAP, (Integer.MAX_VALUE - base) / (siblings.size() + 1));
+        if (step < 1) {
+            throw new IllegalArgumentException("가져오기 대상 디렉토리에 더 이상 정렬 순서를 배정할 수 없습니다.");
+        }
+        Set<String> placedPaths = new HashSet<>();
+        for (int i = 0; i < siblings.size(); i++) {
+            Entry entry = siblings.get(i);
+            String path = parentPath + "/" + entry.name;
+            if (path.length() > MAX_LENGTH) {
+                layout.reject(entry, "경로가 너무 깁니다.");
+                continue;
+            }
+            if (existingPaths.contains(path) || !placedPaths.add(path)) {
+                layout.reject(entry, "같은 경로의 디렉토리가 이미 있습니다: " + path);
+                continue;
+            }
+            layout.paths[entry.index] = path;
+            layout.sortOrders[entry.index] = (int) (base + (i + 1) * step);
+            placed.add(entry);
+        }
+    }
+
+    /**
+     * 한 번의 가져오기 시도에서 계산한 경로, 정렬 순서, 부여된 ID
+     */
+    static final class Layout {
+        private final List<List<Entry>> levels = new ArrayList<>();
+        private final String[] paths;
+        private final int[] sortOrders;
+        private final long[] ids;
+        private final List<Rejection> rejections = new ArrayList<>();
+        private int importedCount;
+
+        private Layout(int size) {
+            this.paths = new String[size];
+            this.sortOrders = new int[size];
+            this.ids = new long[size];
+        }
+
+        private void reject(Entry entry, String reason) {
+            rejections.add(new Rejection(entry.line, entry.tempId, reason));
+            List<Entry> stack = new ArrayList<>(entry.children);
+            while (!stack.isEmpty()) {
+                Entry descendant = stack.remove(stack.size() - 1);
+                rejections.add(new Rejection(descendant.line, descendant.tempId, "상위 디렉토리가 거부되었습니다."));
+                stack.addAll(descendant.children);
+            }
+        }
+
+        /**
+         * 얕은 단계부터 batchSize건씩 나눠 생성합니다.
+         * 같은 단계의 부모는 이전 단계에서 이미 생성되었으므로 부여된 ID를 바로 부모 ID로 사용합니다.
+         *
+         * @param mountId 가져오기 대상 디렉토리 ID (루트 아래면 null)
+         * @param batchSize 배치 한 번에 생성할 최대 건수
+         * @param insertBatch 디렉토리 목록을 생성하고 부여된 ID를 입력 순서대로 돌려주는 함수
+         * @return 생성된 디렉토리 수
+         */
+        int insert(Long mountId, int batchSize, Function<List<DirectoryNodeDto>, long[]> insertBatch) {
+            importedCount = 0;
+            for (List<Entry> level : levels) {
+                for (int from = 0; from < level.size(); from += batchSize) {
+                    List<Entry> chunk = level.subList(from, Math.min(from + batchSize, level.size()));
+                    List<DirectoryNodeDto> nodes = new ArrayList<>(chunk.size());
+                    for (Entry entry : chunk) {
+                        nodes.add(new DirectoryNodeDto(null, parentIdOf(entry, mountId), entry.name,
+                            paths[entry.index], sortOrders[entry.index], 0L));
+                    }
+                    long[] assigned = insertBatch.apply(nodes);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ids[chunk.get(i).index] = assigned[i];
+                    }
+                    importedCount += chunk.size();
+                }
+            }
+            return importedCount;
+        }
+
+        /**
+         * 생성된 디렉토리마다 변경 저널 항목(CREATED)을 만듭니다. 부모가 먼저 옵니다.
+         *
+         * @param mountId 가져오기 대상 디렉토리 ID (루트 아래면 null)
+         * @return 변경 항목 목록
+         */
+        List<DirectoryChangeDto> changes(Long mountId) {
+            List<DirectoryChangeDto> changes = new ArrayList<>(importedCount);
+            for (List<Entry> level : levels) {
+                for (Entry entry : level) {
+                    changes.add(DirectoryChangedEvent.change(DirectoryChangedEvent.Type.CREATED, ids[entry.index],
+                        entry.name, null, parentIdOf(entry, mountId), sortOrders[entry.index], null,
+                        paths[entry.index]));
+                }
+            }
+            return changes;
+        }
+
+        private Long parentIdOf(Entry entry, Long mountId) {
+            return entry.parent == null ? mountId : Long.valueOf(ids[entry.parent.index]);
+        }
+
+        /**
+         * @return 생성된 디렉토리 수
+         */
+        int getImportedCount() {
+            return importedCount;
+        }
+
+        /**
+         * @return 경로 계산 단계에서 거부된 줄 (줄 번호 순)
+         */
+        List<Rejection> getRejections() {
+            return rejections;
+        }
+    }
+
+    /**
+     * 입력 한 줄 (부모/자식 연결은 입력을 모두 읽은 뒤 설정)
+     */
+    private static final class Entry {
+        private final int index;
+        private final int line;
+        private final String tempId;
+        private final String parentTempId;
+        private final String name;
+        private final Integer order;
+        private final List<Entry> children = new ArrayList<>();
+        private Entry parent;
+
+        private Entry(int index, int line, String tempId, String parentTempId, String name, Integer order) {
+            this.index = index;
+            this.line = line;
+            this.tempId = tempId;
+            this.parentTempId = parentTempId;
+            this.name = name;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryNodeDto;
+import com.dropand.dto.DirectoryTreeDto;
+import com.dropand.repository.DirectoryStreamRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 디렉토리 목록/트리를 JsonGenerator로 바로 응답에 쓰는 스트리밍 직렬화 클래스
+ *
+ * 주요 기능:
+ * 1. 전체 디렉토리 목록을 DB 커서에서 한 행씩 읽어 곧바로 JSON 배열 원소로 기록 (엔티티 그래프를 만들지 않음)
+ * 2. 트리 스냅샷을 사본 없이 깊이 우선으로 순회하며 중첩 JSON으로 기록 (깊이 제한 포함)
+ * 3. 배열을 연 직후 한 번 내보내 첫 바이트가 바로 전송되도록 함
+ *
+ * 기록 중 메모리 사용량은 한 행(목록) 또는 트리 깊이(트리)에만 비례합니다.
+ */
+@Component
+public class DirectoryJsonStreamWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryJsonStreamWriter.class);
+
+    private final DirectoryStreamRepository directoryStreamRepository;
+    private final DirectoryTreeCache directoryTreeCache;
+    private final ObjectMapper objectMapper;
+
+    public DirectoryJsonStreamWriter(DirectoryStreamRepository directoryStreamRepository,
+                                     DirectoryTreeCache directoryTreeCache,
+                                     ObjectMapper objectMapper) {
+        this.directoryStreamRepository = directoryStreamRepository;
+        this.directoryTreeCache = directoryTreeCache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 전체 디렉토리를 평면 JSON 배열로 기록합니다.
+     * 각 원소는 id, parentId, name, path, sortOrder, version을 담으며 하위 목록은 포함하지 않습니다.
+     *
+     * @param out 응답 출력 스트림
+     * @throws IOException 기록 중 오류가 발생한 경우 (클라이언트 연결 종료 등)
+     */
+    public void writeAllDirectories(OutputStream out) throws IOException {
+        long startedAt = System.nanoTime();
+        long[] count = new long[1];
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            generator.flush();
+            try {
+                directoryStreamRepository.forEachNode(node -> {
+                    try {
+                        writeNode(generator, node);
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+        }
+        log.debug("전체 디렉토리 스트리밍 완료 - 디렉토리 수: {}, 소요 시간: {}ms",
+            count[0], (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * 현재 트리 스냅샷을 중첩 JSON 배열로 기록합니다. 형식은 트리 조회 API와 같습니다.
+     * 깊이 제한이 있으면 잘린 노드의 children은 비우고 childCount만 유지합니다.
+     *
+     * @param out 응답 출력 스트림
+     * @param depth 포함할 단계 수 (null이면 전체)
+     * @throws IOException 기록 중 오류가 발생한 경우 (클라이언트 연결 종료 등)
+     * @throws IllegalArgumentException depth가 1 미만인 경우
+     */
+    public void writeTree(OutputStream out, Integer depth) throws IOException {
+        if (depth != null && depth < 1) {
+            throw new IllegalArgumentException("depth는 1 이상이어야 합니다.");
+        }
+        int maxDepth = depth != null ? depth : Integer.MAX_VALUE;
+        DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            generator.flush();
+            writeLevel(generator, snapshot.getRoots(), maxDepth);
+            generator.writeEndArray();
+        }
+        log.debug("디렉토리 트리 스트리밍 완료 - 스냅샷 버전: {}, 깊이: {}", snapshot.getVersion(), depth);
+    }
+
+    /**
+     * 재귀 없이 (열린 단계마다 남은 형제 반복자를 쌓아) 깊이 우선으로 기록합니다.
+     */
+    private static void writeLevel(JsonGenerator generator, List<DirectoryTreeDto> roots, int maxDepth) throws IOException {
+        ArrayDeque<Iterator<DirectoryTreeDto>> stack = new ArrayDeque<>();
+        stack.push(roots.iterator());
+        while (!stack.isEmpty()) {
+            Iterator<DirectoryTreeDto> siblings = stack.peek();
+            if (!siblings.hasNext()) {
+                stack.pop();
+                if (!stack.isEmpty()) {
+                    // 부모 노드의 children 배열과 객체를 닫음
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                continue;
+            }
+            DirectoryTreeDto node = siblings.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", node.getId());
+            generator.writeStringField("name", node.getName());
+            generator.writeStringField("path", node.getPath());
+            writeNullableNumber(generator, "sortOrder", node.getSortOrder());
+            writeNullableNumber(generator, "parentId", node.getParentId());
+            writeNullableNumber(generator, "version", node.getVersion());
+            generator.writeNumberField("childCount", node.getChildCount());
+            generator.writeBooleanField("hasChildren", node.isHasChildren());
+            generator.writeArrayFieldStart("children");
+            if (stack.size() < maxDepth) {
+                stack.push(node.getChildren().iterator());
+            } else {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    private static void writeNode(JsonGenerator generator, DirectoryNodeDto node) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", node.getId());
+        writeNullableNumber(generator, "parentId", node.getParentId());
+        generator.writeStringField("name", node.getName());
+        generator.writeStringField("path", node.getPath());
+        writeNullableNumber(generator, "sortOrder", node.getSortOrder());
+        writeNullableNumber(generator, "version", node.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void writeNullableNumber(JsonGenerator generator, String field, Number value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value.longValue());
+        }
+    }
+}
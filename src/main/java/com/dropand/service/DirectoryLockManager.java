@@ -0,0 +1,171 @@
+package com.dropand.service;
+
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 하위 트리 단위 잠금 관리 클래스 (잠금 스트라이핑)
+ *
+ * 주요 기능:
+ * 1. 디렉토리 ID를 고정 개수의 읽기/쓰기 잠금(스트라이프)에 나누어 배정
+ * 2. 변경하는 디렉토리는 쓰기 잠금, 그 조상은 읽기 잠금으로 잡아 하위 트리 단위로 격리
+ *    - 서로 다른 하위 트리의 이동은 공통 조상에 읽기 잠금만 잡으므로 동시에 실행
+ *    - 이동 중인 하위 트리 안의 디렉토리를 건드리는 작업은 조상(이동 대상)의 쓰기 잠금에 막혀 대기
+ * 3. 스트라이프 번호 순으로만 잠가 교착 상태 방지, 제한 시간을 넘기면 잠금 실패 예외 발생
+ *
+ * 한 JVM 안에서의 조정용이며, 여러 인스턴스 사이의 충돌은 엔티티 버전(낙관적 잠금)으로 감지합니다.
+ */
+@Component
+public class DirectoryLockManager {
+
+    /**
+     * 스트라이프 수 (2의 거듭제곱)
+     */
+    static final int STRIPE_COUNT = 256;
+
+    /**
+     * 잠금 대기 제한 시간 (밀리초)
+     */
+    static final long LOCK_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * 루트 디렉토리들의 형제 순서를 보호하는 키 (부모가 null인 경우)
+     */
+    private static final long ROOT_LEVEL_KEY = 0L;
+
+    private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[STRIPE_COUNT];
+
+    public DirectoryLockManager() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * 잠금 집합에 포함된 스트라이프를 번호 순으로 모두 잠급니다.
+     *
+     * @param lockSet 잠글 대상
+     * @return 잠금 해제용 핸들 (try-with-resources로 사용)
+     * @throws CannotAcquireLockException 제한 시간 안에 잠그지 못한 경우
+     */
+    public Lease acquire(LockSet lockSet) {
+        Deque<Lock> held = new ArrayDeque<>();
+        try {
+            for (Map.Entry<Integer, Boolean> entry : lockSet.stripes.entrySet()) {
+                ReentrantReadWriteLock stripe = stripes[entry.getKey()];
+                Lock lock = entry.getValue() ? stripe.writeLock() : stripe.readLock();
+                if (!lock.tryLock(LOCK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    throw new CannotAcquireLockException("디렉토리 잠금 대기 시간이 초과되었습니다.");
+                }
+                held.push(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseAll(held);
+            throw new CannotAcquireLockException("디렉토리 잠금 대기 중 인터럽트되었습니다.", e);
+        } catch (RuntimeException e) {
+            releaseAll(held);
+            throw e;
+        }
+        return new Lease(held);
+    }
+
+    private static void releaseAll(Deque<Lock> held) {
+        while (!held.isEmpty()) {
+            held.pop().unlock();
+        }
+    }
+
+    private static int stripeOf(Long id) {
+        long key = id != null ? id : ROOT_LEVEL_KEY;
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & (STRIPE_COUNT - 1);
+    }
+
+    /**
+     * 잠근 스트라이프를 해제하는 핸들
+     */
+    public static final class Lease implements AutoCloseable {
+        private final Deque<Lock> held;
+
+        private Lease(Deque<Lock> held) {
+            this.held = held;
+        }
+
+        @Override
+        public void close() {
+            releaseAll(held);
+        }
+    }
+
+    /**
+     * 한 작업이 잠가야 할 스트라이프 집합
+     * 같은 스트라이프에 읽기와 쓰기가 모두 필요하면 쓰기 잠금 하나로 합칩니다.
+     */
+    public static final class LockSet {
+        private final TreeMap<Integer, Boolean> stripes = new TreeMap<>();
+
+        /**
+         * 변경할 디렉토리(또는 형제 순서를 바꿀 부모)를 쓰기 잠금 대상으로 추가합니다.
+         *
+         * @param id 디렉토리 ID (null이면 루트 디렉토리 목록)
+         * @return 자신
+         */
+        public LockSet write(Long id) {
+            stripes.put(stripeOf(id), Boolean.TRUE);
+            return this;
+        }
+
+        /**
+         * 모든 스트라이프를 쓰기 잠금 대상으로 추가합니다.
+         * 저장소 전체를 교체하는 작업(스냅샷 복원 등)이 다른 모든 변경과 겹치지 않도록 할 때 사용합니다.
+         *
+         * @return 자신
+         */
+        public LockSet writeAll() {
+            for (int i = 0; i < STRIPE_COUNT; i++) {
+                stripes.put(i, Boolean.TRUE);
+            }
+            return this;
+        }
+
+        /**
+         * 변경하지 않지만 도중에 옮겨지면 안 되는 디렉토리(조상)들을 읽기 잠금 대상으로 추가합니다.
+         *
+         * @param ids 디렉토리 ID 목록
+         * @return 자신
+         */
+        public LockSet read(Collection<Long> ids) {
+            for (Long id : ids) {
+                stripes.merge(stripeOf(id), Boolean.FALSE, Boolean::logicalOr);
+            }
+            return this;
+        }
+
+        /**
+         * 다른 잠금 집합에 필요한 잠금을 이 집합이 모두 포함하는지 확인합니다.
+         * (같은 스트라이프에 대해 쓰기 잠금은 읽기 잠금을 대신합니다)
+         *
+         * @param other 필요한 잠금 집합
+         * @return 모두 포함하면 true
+         */
+        public boolean covers(LockSet other) {
+            for (Map.Entry<Integer, Boolean> entry : other.stripes.entrySet()) {
+                Boolean held = stripes.get(entry.getKey());
+                if (held == null || (entry.getValue() && !held)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
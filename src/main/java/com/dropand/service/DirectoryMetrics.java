@@ -0,0 +1,208 @@
+package com.dropand.service;
+
+import com.dropand.config.SqlStatementBudget;
+import com.dropand.config.SqlStatementCounter;
+import com.dropand.config.SqlStatementScope;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 디렉토리 작업의 성능 지표를 기록하는 클래스
+ *
+ * 주요 기능:
+ * 1. 작업(create, move, reorder, delete, tree, children 등)별 처리 시간과 결과(success, invalid, conflict, rejected, error) 기록
+ * 2. 작업 하나가 실행한 SQL 수 분포 기록
+ * 3. 이동/순서 변경으로 경로가 다시 쓰인 하위 디렉토리 수와 삭제된 하위 트리 크기 분포 기록
+ * 4. 현재 스냅샷의 전체 디렉토리 수와 최대 깊이, 아직 스냅샷에 반영되지 않은 커밋 수 게이지
+ * 5. DB 작업 동시 실행 수와 허가 대기 수 게이지
+ * 6. 작업의 SQL 예산을 검사 (한도 초과와 반복된 문장 모양 보고)
+ *    쓰기 작업은 트랜잭션 커밋 직전에 checkSqlBudget()으로 검사하므로, fail 모드에서 예산을 넘은 변경은 롤백됩니다.
+ *    충돌로 다시 시도하는 쓰기 작업은 시도마다 따로 검사합니다. (recordAttempt)
+ *    조회 작업은 응답용 지연 로딩까지 포함하도록 정상 완료된 뒤에 검사합니다.
+ *
+ * 지표는 Actuator의 /actuator/prometheus로 내보내며, 분포 지표는 백분위 계산용 히스토그램을 함께 내보냅니다.
+ *
+ * 지표 이름 (Prometheus 형식에서는 '.'이 '_'로 바뀜):
+ * <pre>
+ * directory.operations              (timer)   operation, outcome
+ * directory.operation.sql.statements (summary) operation
+ * directory.subtree.rows            (summary) operation (move, reorder, delete)
+ * directory.nodes                   (gauge)
+ * directory.depth.max               (gauge)
+ * directory.snapshot.pending        (gauge)
+ * directory.db.active               (gauge)
+ * directory.db.waiting              (gauge)
+ * </pre>
+ */
+@Component
+public class DirectoryMetrics {
+
+    /**
+     * 스레드별로 지금 실행 중인 작업
+     */
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+    private final SqlStatementBudget sqlBudget;
+
+    public DirectoryMetrics(MeterRegistry registry, DirectoryTreeCache directoryTreeCache,
+                            DirectoryDatabaseGate databaseGate, SqlStatementBudget sqlBudget) {
+        this.registry = registry;
+        this.sqlBudget = sqlBudget;
+        Gauge.builder("directory.nodes", directoryTreeCache, cache -> cache.getSnapshot().getSize())
+            .description("캐시된 트리 스냅샷의 전체 디렉토리 수")
+            .register(registry);
+        Gauge.builder("directory.depth.max", directoryTreeCache, cache -> cache.getSnapshot().getMaxDepth())
+            .description("캐시된 트리 스냅샷에서 가장 깊은 디렉토리의 깊이")
+            .register(registry);
+        Gauge.builder("directory.snapshot.pending", directoryTreeCache, DirectoryTreeCache::getPendingVersions)
+            .description("커밋되었지만 아직 공개된 트리 스냅샷에 반영되지 않은 변경 수")
+            .register(registry);
+        Gauge.builder("directory.db.active", databaseGate, DirectoryDatabaseGate::getActive)
+            .description("지금 DB를 사용 중인 디렉토리 작업 수")
+            .register(registry);
+        Gauge.builder("directory.db.waiting", databaseGate, DirectoryDatabaseGate::getWaiting)
+            .description("DB 작업 허가를 기다리는 디렉토리 작업 수")
+            .register(registry);
+    }
+
+    /**
+     * 작업을 실행하면서 처리 시간, 결과, 실행된 SQL 수를 기록합니다.
+     *
+     * @param operation 작업 이름
+     * @param action 실행할 작업
+     * @return 작업 결과
+     */
+    public <T> T record(String operation, Supplier<T> action) {
+        long startedAt = System.nanoTime();
+        String outcome = "error";
+        T result;
+        Operation outer = CURRENT.get();
+        try (SqlStatementScope scope = SqlStatementCounter.open(operation)) {
+            Operation current = new Operation(scope);
+            CURRENT.set(current);
+            try {
+                result = action.get();
+                outcome = "success";
+            } catch (DirectoryConflictException e) {
+                outcome = "conflict";
+                throw e;
+            } catch (IllegalArgumentException e) {
+                outcome = "invalid";
+                throw e;
+            } catch (DirectoryBusyException e) {
+                outcome = "rejected";
+                throw e;
+            } finally {
+                Timer.builder("directory.operations")
+                    .description("디렉토리 작업 처리 시간 (쓰기 작업은 커밋 후 캐시 갱신 포함)")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                DistributionSummary.builder("directory.operation.sql.statements")
+                    .description("디렉토리 작업 하나가 실행한 SQL 수")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(scope.getStatements());
+                if (outer != null) {
+                    CURRENT.set(outer);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+            if (!current.checked) {
+                sqlBudget.checkOperation(scope);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 실행 중인 작업의 SQL 예산을 지금 검사합니다.
+     * 트랜잭션 안에서 커밋 직전에 호출하면 fail 모드에서 예산을 넘은 변경이 커밋되지 않고 롤백됩니다.
+     * recordAttempt() 안에서 호출하면 진행 중인 시도의 문장만 검사합니다.
+     * 한 번이라도 검사한 작업은 완료 후에 다시 검사하지 않습니다.
+     *
+     * @throws com.dropand.config.SqlBudgetExceededException fail 모드에서 예산을 넘은 경우
+     */
+    public void checkSqlBudget() {
+        Operation current = CURRENT.get();
+        if (current != null) {
+            current.checked = true;
+            sqlBudget.checkOperation(current.attempt != null ? current.attempt : current.scope);
+        }
+    }
+
+    /**
+     * 실행 중인 작업의 시도 하나를 별도의 SQL 구간에서 실행합니다.
+     * 동시 변경 충돌로 다시 시도하는 경우 앞선 시도에서 실행된 문장은 예산에 넣지 않고,
+     * 이 안에서 호출한 checkSqlBudget()은 이번 시도의 문장만 검사합니다.
+     * 시도의 문장은 작업 구간에도 함께 기록되므로 작업별 SQL 수 분포에는 모든 시도가 포함됩니다.
+     *
+     * @param action 시도 하나 (트랜잭션 하나)
+     * @return 시도 결과
+     */
+    public <T> T recordAttempt(Supplier<T> action) {
+        Operation current = CURRENT.get();
+        if (current == null) {
+            return action.get();
+        }
+        SqlStatementScope outerAttempt = current.attempt;
+        try (SqlStatementScope attempt = SqlStatementCounter.open(current.scope.getName())) {
+            current.attempt = attempt;
+            return action.get();
+        } finally {
+            current.attempt = outerAttempt;
+        }
+    }
+
+    /**
+     * 반환값이 없는 작업을 실행하면서 처리 시간, 결과, 실행된 SQL 수를 기록합니다.
+     *
+     * @param operation 작업 이름
+     * @param action 실행할 작업
+     */
+    public void record(String operation, Runnable action) {
+        record(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 작업 하나가 건드린 하위 트리의 디렉토리 수를 기록합니다.
+     *
+     * @param operation 작업 이름 (move, reorder, delete)
+     * @param rows 경로가 다시 쓰이거나 삭제된 디렉토리 수
+     */
+    public void recordSubtreeRows(String operation, int rows) {
+        DistributionSummary.builder("directory.subtree.rows")
+            .description("이동/순서 변경으로 경로가 다시 쓰이거나 삭제된 하위 디렉토리 수")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(rows);
+    }
+
+    /**
+     * 실행 중인 작업의 SQL 구간, 진행 중인 시도의 구간과 예산 검사 여부
+     */
+    private static final class Operation {
+        private final SqlStatementScope scope;
+        private SqlStatementScope attempt;
+        private boolean checked;
+
+        private Operation(SqlStatementScope scope) {
+            this.scope = scope;
+        }
+    }
+}
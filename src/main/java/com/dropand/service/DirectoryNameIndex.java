@@ -0,0 +1,406 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryTreeDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 디렉토리 이름 검색 색인 클래스 (n-gram)
+ *
+ * 주요 기능:
+ * 1. 서로 다른 이름(대소문자 무시)마다 항목 하나를 두고, 그 이름을 가진 디렉토리 ID를 모아 보관
+ * 2. 이름의 3글자 조각(trigram)과 앞 1~2글자로 이름 항목을 찾는 역색인 유지
+ * 3. 3글자 이상 검색어는 조각 중 가장 적은 후보 목록만 확인하여 부분 일치, 1~2글자 검색어는 앞부분 일치로 검색
+ * 4. 일치 정도(완전 일치, 앞부분, 단어 시작, 부분)와 이름 길이 순으로 정렬하고 커서로 이어서 조회
+ *
+ * 같은 이름의 디렉토리가 아무리 많아도 후보는 이름 단위로 확인하므로, 검색 비용은 디렉토리 수가 아니라
+ * 후보가 된 서로 다른 이름의 수에 비례합니다. (정렬은 한 페이지에 필요한 만큼만 골라냄)
+ * 변경 반영은 경로 색인(DirectoryPathIndex)이 변경 묶음마다 자신의 잠금 안에서 한 번 호출하고, 검색은 잠금 없이 수행합니다.
+ */
+@Component
+public class DirectoryNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryNameIndex.class);
+
+    /**
+     * 부분 일치 검색에 사용하는 조각 길이
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * 앞부분 일치 조각의 접두 표시 (조각과 겹치지 않도록 이름에 올 수 없는 '/' 사용)
+     */
+    private static final String PREFIX_MARK = "/";
+
+    /**
+     * 일치 정도 (작을수록 앞에 정렬)
+     */
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_WORD = 2;
+    private static final int RANK_SUBSTRING = 3;
+
+    private static final long[] NO_IDS = new long[0];
+
+    /**
+     * 현재 색인 (다시 만들 때는 새로 만든 뒤 참조를 교체)
+     */
+    private volatile Postings postings = new Postings();
+
+    /**
+     * 스냅샷의 모든 디렉토리로 색인을 새로 만들고 참조를 교체합니다.
+     *
+     * @param snapshot 기준 스냅샷
+     */
+    void rebuild(DirectoryTreeSnapshot snapshot) {
+        long startedAt = System.nanoTime();
+        Map<String, List<Long>> idsByKey = new HashMap<>();
+        ArrayDeque<DirectoryTreeDto> stack = new ArrayDeque<>(snapshot.getRoots());
+        while (!stack.isEmpty()) {
+            DirectoryTreeDto directory = stack.pop();
+            idsByKey.computeIfAbsent(normalize(directory.getName()), key -> new ArrayList<>()).add(directory.getId());
+            stack.addAll(directory.getChildren());
+        }
+        Postings rebuilt = new Postings();
+        rebuilt.update(idsByKey, Map.of());
+        postings = rebuilt;
+        log.debug("이름 색인 재생성 - 서로 다른 이름 수: {}, 조각 수: {}, 소요 시간: {}ms",
+            rebuilt.names.size(), rebuilt.grams.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * 추가/제거된 디렉토리를 한 번에 반영합니다.
+     * 같은 이름의 디렉토리가 많아도 이름마다 ID 배열을 한 번만 다시 만듭니다.
+     *
+     * @param added 추가된 디렉토리 (ID -> 이름)
+     * @param removed 제거된 디렉토리 (ID -> 이름)
+     */
+    void update(Map<Long, String> added, Map<Long, String> removed) {
+        if (added.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        postings.update(groupByKey(added), groupByKey(removed));
+    }
+
+    private static Map<String, List<Long>> groupByKey(Map<Long, String> names) {
+        Map<String, List<Long>> idsByKey = new HashMap<>();
+        for (Map.Entry<Long, String> name : names.entrySet()) {
+            idsByKey.computeIfAbsent(normalize(name.getValue()), key -> new ArrayList<>()).add(name.getKey());
+        }
+        return idsByKey;
+    }
+
+    /**
+     * 이름으로 디렉토리를 검색합니다. (대소문자 무시)
+     * 3글자 이상이면 이름 어디에 있어도, 1~2글자면 이름이 검색어로 시작할 때만 일치합니다.
+     *
+     * @param query 검색어
+     * @param cursor 이전 페이지의 다음 커서 (첫 페이지면 null)
+     * @param limit 페이지 크기
+     * @return 일치 순서대로 정렬된 디렉토리 ID와 다음 커서
+     * @throws IllegalArgumentException 검색어가 비었거나 커서가 올바르지 않은 경우
+     */
+    public Page search(String query, String cursor, int limit) {
+        String key = normalize(query);
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("검색어를 입력해야 합니다.");
+        }
+        Cursor after = cursor == null || cursor.isEmpty() ? null : Cursor.decode(cursor);
+
+        // 이름마다 ID가 하나 이상이므로 앞에서부터 limit + 1개 이름이면 한 페이지와 다음 페이지 존재 여부를 알 수 있음
+        // (커서가 가리키는 이름은 남은 ID가 없을 수 있어 하나 더) 일치하는 이름이 많아도 전체를 정렬하지 않고 그만큼만 골라냄
+        int capacity = limit + (after != null ? 2 : 1);
+        PriorityQueue<Match> selected = new PriorityQueue<>(Match.ORDER.reversed());
+        Match cursorMatch = after != null ? after.asMatch() : null;
+        for (NameEntry entry : postings.candidates(key)) {
+            int rank = rank(entry.key, key);
+            if (rank < 0) {
+                continue;
+            }
+            Match match = new Match(rank, entry);
+            if (cursorMatch != null && Match.ORDER.compare(match, cursorMatch) < 0) {
+                continue;
+            }
+            if (selected.size() < capacity) {
+                selected.add(match);
+            } else if (Match.ORDER.compare(match, selected.peek()) < 0) {
+                selected.poll();
+                selected.add(match);
+            }
+        }
+        List<Match> matches = new ArrayList<>(selected);
+        matches.sort(Match.ORDER);
+
+        List<Long> ids = new ArrayList<>(Math.min(limit, 64));
+        Match lastMatch = null;
+        for (Match match : matches) {
+            long[] entryIds = match.entry.ids;
+            int from = after != null && match.entry.key.equals(after.key) ? firstAfter(entryIds, after.id) : 0;
+            for (int i = from; i < entryIds.length; i++) {
+                if (ids.size() == limit) {
+                    // 한 건 더 있으므로 마지막으로 담은 항목 다음부터 이어서 조회하도록 커서를 만듦
+                    return new Page(ids, new Cursor(lastMatch.rank, lastMatch.entry.key, ids.get(limit - 1)).encode());
+                }
+                ids.add(entryIds[i]);
+                lastMatch = match;
+            }
+        }
+        return new Page(ids, null);
+    }
+
+    private static int firstAfter(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    /**
+     * 검색어가 이름의 어디에서 일치하는지 판별합니다.
+     *
+     * @return 일치 정도 (일치하지 않으면 -1)
+     */
+    private static int rank(String name, String key) {
+        if (name.equals(key)) {
+            return RANK_EXACT;
+        }
+        if (name.startsWith(key)) {
+            return RANK_PREFIX;
+        }
+        if (key.length() < GRAM_LENGTH) {
+            return -1;
+        }
+        int position = name.indexOf(key);
+        if (position < 0) {
+            return -1;
+        }
+        // 단어 시작(구분 문자 바로 뒤)에서 일치하는 곳이 있으면 한 단계 앞에 정렬
+        for (; position >= 0; position = name.indexOf(key, position + 1)) {
+            if (!Character.isLetterOrDigit(name.charAt(position - 1))) {
+                return RANK_WORD;
+            }
+        }
+        return RANK_SUBSTRING;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return 색인에 있는 서로 다른 이름 수
+     */
+    public int getNameCount() {
+        return postings.names.size();
+    }
+
+    /**
+     * 이름 항목과 역색인
+     * 추가/제거는 한 스레드(경로 색인의 잠금 안)에서만 수행하고, 검색은 여러 스레드에서 동시에 수행합니다.
+     */
+    private static final class Postings {
+        private final Map<String, NameEntry> names = new ConcurrentHashMap<>();
+        private final Map<String, Set<NameEntry>> grams = new ConcurrentHashMap<>();
+
+        /**
+         * 이름별로 ID를 제거한 뒤 추가합니다. ID가 모두 빠진 이름은 역색인에서도 지웁니다.
+         */
+        private void update(Map<String, List<Long>> addedByKey, Map<String, List<Long>> removedByKey) {
+            Set<String> keys = new HashSet<>(addedByKey.keySet());
+            keys.addAll(removedByKey.keySet());
+            for (String key : keys) {
+                NameEntry entry = names.get(key);
+                long[] current = entry != null ? entry.ids : NO_IDS;
+                long[] updated = merge(current, addedByKey.getOrDefault(key, List.of()),
+                    removedByKey.getOrDefault(key, List.of()));
+                if (entry == null && updated.length > 0) {
+                    NameEntry created = new NameEntry(key, updated);
+                    names.put(key, created);
+                    for (String gram : gramsOf(key)) {
+                        grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(created);
+                    }
+                } else if (entry != null && updated.length == 0) {
+                    names.remove(key);
+                    for (String gram : gramsOf(key)) {
+                        Set<NameEntry> entries = grams.get(gram);
+                        if (entries != null) {
+                            entries.remove(entry);
+                            if (entries.isEmpty()) {
+                                grams.remove(gram, entries);
+                            }
+                        }
+                    }
+                } else if (entry != null) {
+                    entry.ids = updated;
+                }
+            }
+        }
+
+        /**
+         * 정렬된 ID 배열에서 제거할 ID를 빼고 추가할 ID를 넣은 새 정렬 배열을 만듭니다.
+         */
+        private static long[] merge(long[] current, List<Long> added, List<Long> removed) {
+            Set<Long> removedIds = new HashSet<>(removed);
+            long[] merged = new long[current.length + added.size()];
+            int size = 0;
+            for (long id : current) {
+                if (!removedIds.contains(id)) {
+                    merged[size++] = id;
+                }
+            }
+            for (Long id : added) {
+                if (!removedIds.contains(id)) {
+                    merged[size++] = id;
+                }
+            }
+            Arrays.sort(merged, 0, size);
+            // 이미 있던 ID가 다시 추가된 경우(변경 재적용) 중복 제거
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || merged[unique - 1] != merged[i]) {
+                    merged[unique++] = merged[i];
+                }
+            }
+            return unique == merged.length ? merged : Arrays.copyOf(merged, unique);
+        }
+
+        /**
+         * 검색어의 조각 중 후보가 가장 적은 목록을 반환합니다. (일치 여부는 호출하는 쪽에서 다시 확인)
+         */
+        private Set<NameEntry> candidates(String key) {
+            if (key.length() < GRAM_LENGTH) {
+                return grams.getOrDefault(PREFIX_MARK + key, Set.of());
+            }
+            Set<NameEntry> smallest = null;
+            for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+                Set<NameEntry> entries = grams.get(key.substring(i, i + GRAM_LENGTH));
+                if (entries == null) {
+                    return Set.of();
+                }
+                if (smallest == null || entries.size() < smallest.size()) {
+                    smallest = entries;
+                }
+            }
+            return smallest;
+        }
+
+        /**
+         * 이름의 앞 1~2글자(접두 표시를 붙임)와 모든 3글자 조각
+         */
+        private static Set<String> gramsOf(String key) {
+            Set<String> result = new HashSet<>();
+            for (int length = 1; length < GRAM_LENGTH && length <= key.length(); length++) {
+                result.add(PREFIX_MARK + key.substring(0, length));
+            }
+            for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+                result.add(key.substring(i, i + GRAM_LENGTH));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 이름(대소문자 무시) 하나와 그 이름을 가진 디렉토리 ID 목록 (오름차순)
+     * ID 목록은 바꿀 때마다 새 배열로 통째로 교체하므로 검색 중에도 안전하게 읽을 수 있습니다.
+     */
+    private static final class NameEntry {
+        private final String key;
+        private volatile long[] ids;
+
+        private NameEntry(String key, long[] ids) {
+            this.key = key;
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * 일치한 이름 항목과 일치 정도
+     */
+    private static final class Match {
+        private static final Comparator<Match> ORDER = Comparator.<Match>comparingInt(match -> match.rank)
+            .thenComparingInt(match -> match.entry.key.length())
+            .thenComparing(match -> match.entry.key);
+
+        private final int rank;
+        private final NameEntry entry;
+
+        private Match(int rank, NameEntry entry) {
+            this.rank = rank;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * 검색 결과 한 페이지 (디렉토리 ID와 다음 커서)
+     */
+    public static final class Page {
+        private final List<Long> ids;
+        private final String nextCursor;
+
+        private Page(List<Long> ids, String nextCursor) {
+            this.ids = ids;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        /**
+         * @return 다음 페이지 커서 (마지막 페이지면 null)
+         */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    /**
+     * 검색 키셋 커서 (마지막으로 반환한 항목의 일치 정도, 이름, ID)
+     */
+    private static final class Cursor {
+        private final int rank;
+        private final String key;
+        private final long id;
+
+        private Cursor(int rank, String key, long id) {
+            this.rank = rank;
+            this.key = key;
+            this.id = id;
+        }
+
+        private static Cursor decode(String value) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                int first = decoded.indexOf(':');
+                int second = decoded.indexOf(':', first + 1);
+                return new Cursor(Integer.parseInt(decoded.substring(0, first)),
+                    decoded.substring(second + 1), Long.parseLong(decoded.substring(first + 1, second)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다: " + value);
+            }
+        }
+
+        private String encode() {
+            String raw = rank + ":" + id + ":" + key;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private Match asMatch() {
+            return new Match(rank, new NameEntry(key, NO_IDS));
+        }
+    }
+}
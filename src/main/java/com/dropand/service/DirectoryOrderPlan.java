@@ -0,0 +1,300 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryNodeDto;
+import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.repository.DirectoryBatchRepository.PathRewrite;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 디렉토리 순서/위치 일괄 변경 계획 클래스
+ *
+ * 주요 기능:
+ * 1. 같은 디렉토리에 대한 중복 요청 제거 (마지막 요청 적용)
+ * 2. 일괄 변경을 모두 적용한 최종 트리 기준으로 순환 참조 검사
+ * 3. 부모가 먼저 오도록 위상 순서로 최종 경로 계산
+ * 4. 실제로 바뀌는 행만 모아 DB에 한 번씩 반영할 목록 생성
+ * 5. 바뀌는 행마다 변경 저널 항목 생성
+ * 6. 새 경로가 다른 대상의 현재 경로와 겹치는지 판별 (맞바꾸기, 연쇄 이동)
+ *    경로 유니크 인덱스는 배치 안에서도 행마다 검사되므로, 겹치면 임시 경로를 거쳐 두 단계로 반영해야 합니다.
+ *
+ * DB에 접근하지 않으며, 변경 대상과 (이전/새) 부모의 조상 전체가 미리 조회되어 있어야 합니다.
+ */
+final class DirectoryOrderPlan {
+
+    private final Set<Long> directoryIds;
+    private final List<DirectoryNodeDto> placements;
+    private final List<PathRewrite> pathRewrites;
+    private final List<DirectoryChangeDto> changes;
+    private final boolean staged;
+
+    private DirectoryOrderPlan(Set<Long> directoryIds, List<DirectoryNodeDto> placements, List<PathRewrite> pathRewrites,
+                               List<DirectoryChangeDto> changes) {
+        this.directoryIds = directoryIds;
+        this.placements = placements;
+        this.pathRewrites = pathRewrites;
+        this.changes = changes;
+        this.staged = pathsOverlap(pathRewrites);
+    }
+
+    /**
+     * 요청 목록이 참조하는 디렉토리 ID와 부모 ID를 모읍니다.
+     *
+     * @param orderList 변경 요청 목록
+     * @return 디렉토리 ID와 부모 ID 목록
+     * @throws IllegalArgumentException ID가 없는 항목이 있는 경우
+     */
+    static Set<Long> referencedIds(List<DirectoryOrderDto> orderList) {
+        Set<Long> ids = new HashSet<>();
+        for (DirectoryOrderDto order : orderList) {
+            if (order.getId() == null) {
+                throw new IllegalArgumentException("디렉토리 ID는 필수입니다.");
+            }
+            ids.add(order.getId());
+            if (order.getParentId() != null) {
+                ids.add(order.getParentId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 미리 조회한 디렉토리 정보로 일괄 변경 계획을 만듭니다.
+     *
+     * @param orderList 변경 요청 목록
+     * @param prefetched 요청에 포함된 디렉토리/부모와 그 조상 전체
+     * @return 변경 계획
+     * @throws IllegalArgumentException 디렉토리가 없거나 최종 트리에 순환 참조가 생기는 경우
+     * @throws DirectoryConflictException 요청에 담긴 버전이 현재 버전과 다른 경우
+     */
+    static DirectoryOrderPlan build(List<DirectoryOrderDto> orderList, List<DirectoryNodeDto> prefetched) {
+        Map<Long, DirectoryNodeDto> current = new HashMap<>();
+        for (DirectoryNodeDto node : prefetched) {
+            current.put(node.getId(), node);
+        }
+
+        // 같은 디렉토리가 여러 번 오면 마지막 요청만 적용
+        Map<Long, DirectoryOrderDto> requested = new LinkedHashMap<>();
+        for (DirectoryOrderDto order : orderList) {
+            if (!current.containsKey(order.getId())) {
+                throw new IllegalArgumentException("Directory not found with id: " + order.getId());
+            }
+            if (order.getParentId() != null && !current.containsKey(order.getParentId())) {
+                throw new IllegalArgumentException("Parent directory not found with id: " + order.getParentId());
+            }
+            Long currentVersion = current.get(order.getId()).getVersion();
+            if (order.getVersion() != null && !order.getVersion().equals(currentVersion)) {
+                throw new DirectoryConflictException(
+                    "다른 사용자가 먼저 변경한 디렉토리입니다. ID: " + order.getId(), order.getId(), currentVersion);
+            }
+            requested.remove(order.getId());
+            requested.put(order.getId(), order);
+        }
+
+        Map<Long, Long> finalParents = new HashMap<>();
+        for (DirectoryNodeDto node : current.values()) {
+            DirectoryOrderDto order = requested.get(node.getId());
+            finalParents.put(node.getId(), order != null ? order.getParentId() : node.getParentId());
+        }
+        checkCycles(requested.keySet(), finalParents);
+
+        Map<Long, String> finalPaths = new HashMap<>();
+        Map<Long, Integer> depths = new HashMap<>();
+        for (Long id : requested.keySet()) {
+            resolvePath(id, current, requested, finalParents, finalPaths, depths);
+        }
+
+        // 부모가 자식보다 먼저 반영되도록 최종 깊이 순으로 정렬
+        List<Long> ordered = new ArrayList<>(requested.keySet());
+        ordered.sort(Comparator.comparing(depths::get));
+
+        List<DirectoryNodeDto> placements = new ArrayList<>();
+        List<PathRewrite> pathRewrites = new ArrayList<>();
+        List<DirectoryChangeDto> changes = new ArrayList<>();
+        for (Long id : ordered) {
+            DirectoryNodeDto before = current.get(id);
+            DirectoryOrderDto order = requested.get(id);
+            Long parentId = finalParents.get(id);
+            Integer sortOrder = order.getSortOrder() != null ? order.getSortOrder() : before.getSortOrder();
+            String path = finalPaths.get(id);
+
+            boolean moved = !Objects.equals(before.getParentId(), parentId) || !Objects.equals(before.getPath(), path);
+            if (moved || !Objects.equals(before.getSortOrder(), sortOrder)) {
+                placements.add(new DirectoryNodeDto(id, parentId, before.getName(), path, sortOrder, before.getVersion()));
+                changes.add(DirectoryChangedEvent.change(
+                    moved ? DirectoryChangedEvent.Type.MOVED : DirectoryChangedEvent.Type.REORDERED,
+                    id, before.getName(), before.getParentId(), parentId, sortOrder, before.getPath(), path));
+            }
+            if (before.getPath() != null && !before.getPath().equals(path)) {
+                pathRewrites.add(new PathRewrite(id, before.getPath(), path));
+            }
+        }
+        return new DirectoryOrderPlan(requested.keySet(), placements, pathRewrites, changes);
+    }
+
+    /**
+     * 어떤 대상의 새 경로(또는 그 조상 경로)가 다른 대상의 현재 경로인지 확인합니다.
+     * 그렇다면 반영 순서에 따라 잠시 같은 경로가 두 행에 생길 수 있습니다.
+     */
+    private static boolean pathsOverlap(List<PathRewrite> pathRewrites) {
+        Set<String> oldPaths = new HashSet<>();
+        for (PathRewrite rewrite : pathRewrites) {
+            oldPaths.add(rewrite.getOldPath());
+        }
+        for (PathRewrite rewrite : pathRewrites) {
+            String path = rewrite.getNewPath();
+            for (int end = path.length(); end > 0; end = path.lastIndexOf('/', end - 1)) {
+                if (oldPaths.contains(path.substring(0, end))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 두 단계 반영에서 쓰는 임시 경로를 만듭니다.
+     * 실제 경로는 항상 '/'로 시작하므로 다른 행의 경로와 겹치지 않고, ID마다 달라 서로도 겹치지 않습니다.
+     */
+    private static String stagingPath(Long id) {
+        return "#" + id;
+    }
+
+    /**
+     * 변경 대상마다 최종 부모를 따라 올라가 자기 자신을 다시 만나는지 검사합니다.
+     * 루트까지 도달한 경로의 디렉토리는 기록해 두어 다음 검사에서 다시 따라가지 않습니다.
+     */
+    private static void checkCycles(Set<Long> ids, Map<Long, Long> finalParents) {
+        Set<Long> reachesRoot = new HashSet<>();
+        for (Long id : ids) {
+            Set<Long> visited = new HashSet<>();
+            Long cursor = id;
+            while (cursor != null && !reachesRoot.contains(cursor)) {
+                if (!visited.add(cursor)) {
+                    throw new IllegalArgumentException("Cannot move a directory to its own subdirectory");
+                }
+                cursor = finalParents.get(cursor);
+            }
+            reachesRoot.addAll(visited);
+        }
+    }
+
+    /**
+     * 최종 트리 기준 경로와 깊이를 계산합니다.
+     * 변경 대상은 새 부모 경로 아래에 이름을 붙이고, 그 밖의 디렉토리는 부모에 대한 상대 경로를 유지합니다.
+     */
+    private static void resolvePath(Long id,
+                                    Map<Long, DirectoryNodeDto> current,
+                                    Map<Long, DirectoryOrderDto> requested,
+                                    Map<Long, Long> finalParents,
+                                    Map<Long, String> finalPaths,
+                                    Map<Long, Integer> depths) {
+        // 이미 계산된 조상을 만날 때까지 올라간 뒤 위에서부터 차례로 계산 (재귀 없이 위상 순서)
+        Deque<Long> chain = new ArrayDeque<>();
+        for (Long cursor = id; cursor != null && !finalPaths.containsKey(cursor); cursor = finalParents.get(cursor)) {
+            chain.push(cursor);
+        }
+        while (!chain.isEmpty()) {
+            Long nodeId = chain.pop();
+            DirectoryNodeDto node = current.get(nodeId);
+            Long parentId = finalParents.get(nodeId);
+            String parentPath = parentId != null ? finalPaths.get(parentId) : null;
+            depths.put(nodeId, parentId != null ? depths.get(parentId) + 1 : 0);
+
+            String path;
+            if (requested.containsKey(nodeId)) {
+                path = (parentPath != null ? parentPath : "") + "/" + node.getName();
+            } else if (parentId == null) {
+                path = node.getPath();
+            } else {
+                String oldParentPath = current.get(parentId).getPath();
+                path = node.getPath() != null && oldParentPath != null && node.getPath().startsWith(oldParentPath)
+                    ? parentPath + node.getPath().substring(oldParentPath.length())
+                    : parentPath + "/" + node.getName();
+            }
+            finalPaths.put(nodeId, path);
+        }
+    }
+
+    /**
+     * @return 요청에 포함된 디렉토리 ID (중복 제거)
+     */
+    Set<Long> getDirectoryIds() {
+        return directoryIds;
+    }
+
+    /**
+     * @return 부모/정렬 순서/경로 중 하나라도 바뀌는 디렉토리의 최종 상태 (부모가 먼저 오는 순서, 버전은 조회 당시 값)
+     */
+    List<DirectoryNodeDto> getPlacements() {
+        return placements;
+    }
+
+    /**
+     * @return 경로가 바뀌어 하위 디렉토리 경로도 재작성해야 하는 디렉토리 목록
+     */
+    List<PathRewrite> getPathRewrites() {
+        return pathRewrites;
+    }
+
+    /**
+     * @return 바뀌는 디렉토리별 변경 저널 항목 (placements와 같은 순서, 하위 경로 재작성은 포함하지 않음)
+     */
+    List<DirectoryChangeDto> getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return 경로를 임시 경로를 거쳐 두 단계로 반영해야 하는지 여부
+     */
+    boolean isStaged() {
+        return staged;
+    }
+
+    /**
+     * @return 첫 단계에 반영할 최종 상태 (경로가 바뀌는 디렉토리는 최종 경로 대신 임시 경로)
+     */
+    List<DirectoryNodeDto> getStagedPlacements() {
+        Set<Long> rewritten = new HashSet<>();
+        for (PathRewrite rewrite : pathRewrites) {
+            rewritten.add(rewrite.getId());
+        }
+        List<DirectoryNodeDto> staged = new ArrayList<>(placements.size());
+        for (DirectoryNodeDto node : placements) {
+            staged.add(rewritten.contains(node.getId())
+                ? new DirectoryNodeDto(node.getId(), node.getParentId(), node.getName(), stagingPath(node.getId()),
+                    node.getSortOrder(), node.getVersion())
+                : node);
+        }
+        return staged;
+    }
+
+    /**
+     * @return 첫 단계의 하위 경로 재작성 (현재 경로에서 임시 경로로)
+     */
+    List<PathRewrite> getStagingRewrites() {
+        return pathRewrites.stream()
+            .map(rewrite -> new PathRewrite(rewrite.getId(), rewrite.getOldPath(), stagingPath(rewrite.getId())))
+            .toList();
+    }
+
+    /**
+     * @return 둘째 단계의 경로 재작성 (임시 경로에서 최종 경로로, 대상 자신과 하위 디렉토리 모두)
+     */
+    List<PathRewrite> getUnstagingRewrites() {
+        return pathRewrites.stream()
+            .map(rewrite -> new PathRewrite(rewrite.getId(), stagingPath(rewrite.getId()), rewrite.getNewPath()))
+            .toList();
+    }
+}
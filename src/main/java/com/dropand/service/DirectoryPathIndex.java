@@ -0,0 +1,319 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryTreeDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 경로로 디렉토리 ID를 찾는 메모리 색인 클래스
+ *
+ * 주요 기능:
+ * 1. 경로를 '/' 단위 구간으로 나눈 트라이(trie)로 보관하여 경로 깊이만큼만 따라가 ID 조회 (DB 접근 없음)
+ * 2. 커밋된 변경 저널 항목을 순번 순서대로 반영 (생성은 노드 추가, 이동은 노드 하나를 새 부모 아래로 옮김, 삭제는 하위 트리 제거)
+ * 3. 이동 시 하위 디렉토리는 옮긴 노드에 그대로 매달려 있으므로 하위 트리 크기와 관계없이 상수 개의 노드만 변경
+ * 4. 저널로 이어갈 수 없으면(초기화, 밀려남) 현재 스냅샷으로 전체를 다시 만듦
+ * 5. 추가/제거된 디렉토리(삭제된 하위 트리 포함)를 이름 검색 색인에 함께 반영
+ *
+ * 변경 반영은 한 번에 하나씩 수행하고, 조회는 잠금 없이 수행합니다.
+ * 반영 도중의 조회는 옮겨지는 디렉토리를 잠시 찾지 못할 수 있으므로, 찾지 못한 경우 호출하는 쪽에서 DB로 확인합니다.
+ */
+@Component
+public class DirectoryPathIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryPathIndex.class);
+
+    /**
+     * 디렉토리가 아닌 중간 노드의 ID
+     */
+    private static final long NO_ID = 0L;
+
+    private final DirectoryChangeJournal changeJournal;
+    private final DirectoryNameIndex nameIndex;
+
+    /**
+     * 재생성과 변경 반영을 한 번에 하나씩 실행하기 위한 잠금 (조회는 잠그지 않음)
+     */
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    /**
+     * 최상위 노드 (경로 "/"에 해당, 아직 적재 전이면 null)
+     */
+    private volatile Node root;
+
+    /**
+     * 디렉토리 ID별 노드 (변경 반영 시에만 사용하므로 updateLock 안에서만 접근)
+     */
+    private Map<Long, Node> nodesById = new HashMap<>();
+
+    /**
+     * 색인에 모두 반영된 마지막 변경 저널 순번
+     */
+    private long appliedSequence;
+
+    public DirectoryPathIndex(DirectoryChangeJournal changeJournal, DirectoryNameIndex nameIndex) {
+        this.changeJournal = changeJournal;
+        this.nameIndex = nameIndex;
+    }
+
+    /**
+     * 경로에 해당하는 디렉토리 ID를 찾습니다.
+     *
+     * @param path '/'로 시작하고 '/'로 끝나지 않는 경로
+     * @return 디렉토리 ID (없거나 색인이 아직 적재되지 않았으면 null)
+     */
+    public Long find(String path) {
+        Node node = root;
+        int start = 1;
+        while (node != null && start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            Map<String, Node> children = node.children;
+            node = children == null ? null : children.get(path.substring(start, end));
+            start = end + 1;
+        }
+        if (node == null || node == root || node.id == NO_ID) {
+            return null;
+        }
+        return node.id;
+    }
+
+    /**
+     * 스냅샷의 모든 디렉토리로 색인을 새로 만들고 참조를 교체합니다.
+     * 스냅샷의 저널 순번 이후 항목은 다음 반영 때 다시 적용되며, 이미 반영된 항목을 다시 적용해도 결과는 같습니다.
+     *
+     * @param snapshot 기준 스냅샷
+     */
+    public void rebuild(DirectoryTreeSnapshot snapshot) {
+        updateLock.lock();
+        try {
+            rebuildLocked(snapshot);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void rebuildLocked(DirectoryTreeSnapshot snapshot) {
+        long startedAt = System.nanoTime();
+        Node rebuilt = new Node(null, "", NO_ID);
+        Map<Long, Node> rebuiltById = new HashMap<>(snapshot.getSize() * 2);
+        ArrayDeque<DirectoryTreeDto> stack = new ArrayDeque<>(snapshot.getRoots());
+        while (!stack.isEmpty()) {
+            DirectoryTreeDto directory = stack.pop();
+            Node node = ensurePath(rebuilt, directory.getPath());
+            node.id = directory.getId();
+            node.name = directory.getName();
+            rebuiltById.put(directory.getId(), node);
+            stack.addAll(directory.getChildren());
+        }
+        nodesById = rebuiltById;
+        appliedSequence = snapshot.getJournalSequence();
+        root = rebuilt;
+        nameIndex.rebuild(snapshot);
+        log.debug("경로 색인 재생성 - 디렉토리 수: {}, 저널 순번: {}, 소요 시간: {}ms",
+            rebuiltById.size(), appliedSequence, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * 커밋된 변경 항목을 순번 순서대로 반영합니다.
+     * 앞 순번이 아직 반영되지 않았으면 저널에서 함께 읽어 반영하고, 이미 반영한 항목은 건너뜁니다.
+     *
+     * @param changes 순번이 붙은 변경 항목 목록
+     * @param latest 저널로 이어갈 수 없을 때 다시 만들 기준인 최신 스냅샷 (그때만 읽음)
+     */
+    public void apply(List<DirectoryChangeDto> changes, Supplier<DirectoryTreeSnapshot> latest) {
+        updateLock.lock();
+        try {
+            applyLocked(changes, latest);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void applyLocked(List<DirectoryChangeDto> changes, Supplier<DirectoryTreeSnapshot> latest) {
+        if (root == null || changes.isEmpty() || changes.get(changes.size() - 1).getSequence() <= appliedSequence) {
+            return;
+        }
+        List<DirectoryChangeDto> pending = changes;
+        if (changes.get(0).getSequence() > appliedSequence + 1) {
+            pending = changeJournal.readSince(appliedSequence);
+            if (pending == null) {
+                rebuildLocked(latest.get());
+                return;
+            }
+        }
+        Map<Long, String> added = new HashMap<>();
+        Map<Long, String> removed = new HashMap<>();
+        for (DirectoryChangeDto change : pending) {
+            if (change.getSequence() <= appliedSequence) {
+                continue;
+            }
+            if (DirectoryChangedEvent.Type.DELETED.name().equals(change.getOp())) {
+                remove(change.getId(), removed);
+            } else {
+                place(change.getId(), change.getPath(), change.getName(), added);
+            }
+            appliedSequence = change.getSequence();
+        }
+        nameIndex.update(added, removed);
+    }
+
+    /**
+     * 디렉토리를 경로 위치에 둡니다. 이미 있으면 노드를 하위 트리째 옮기고, 없으면 새로 만듭니다.
+     * 같은 위치에 이미 다른 디렉토리가 있으면(일괄 이동 중 자리 교환) 그 디렉토리는 떼어 두었다가
+     * 자신의 이동 항목이 반영될 때 하위 트리와 함께 다시 붙입니다.
+     */
+    private void place(Long id, String path, String name, Map<Long, String> added) {
+        Node node = nodesById.get(id);
+        int slash = path.lastIndexOf('/');
+        Node parent = ensurePath(root, path.substring(0, slash));
+        String segment = path.substring(slash + 1);
+        if (node != null && node.parent == parent && node.segment.equals(segment)) {
+            return;
+        }
+        if (node == null) {
+            node = new Node(null, segment, id);
+            node.name = name;
+            nodesById.put(id, node);
+            added.put(id, name);
+        } else {
+            detach(node);
+            node.segment = segment;
+            // 떼어낼 때 비어 있던 중간 노드가 정리되었을 수 있으므로 부모를 다시 찾음
+            parent = ensurePath(root, path.substring(0, slash));
+        }
+
+        Node occupant = parent.children().get(segment);
+        if (occupant != null && occupant.id == NO_ID) {
+            // 먼저 만들어진 중간 노드의 하위 노드를 넘겨받음
+            for (Node child : occupant.children().values()) {
+                child.parent = node;
+                node.children().put(child.segment, child);
+            }
+        } else if (occupant != null) {
+            occupant.parent = null;
+        }
+        node.parent = parent;
+        parent.children().put(segment, node);
+    }
+
+    /**
+     * 디렉토리와 모든 하위 디렉토리를 색인에서 제거하고 제거한 디렉토리를 기록합니다.
+     */
+    private void remove(Long id, Map<Long, String> removed) {
+        Node node = nodesById.get(id);
+        if (node == null) {
+            return;
+        }
+        detach(node);
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node current = stack.pop();
+            if (current.id != NO_ID) {
+                nodesById.remove(current.id);
+                removed.put(current.id, current.name);
+            }
+            if (current.children != null) {
+                stack.addAll(current.children.values());
+            }
+        }
+    }
+
+    /**
+     * 노드를 부모에서 떼어내고, 디렉토리가 아니면서 하위 노드도 없게 된 중간 노드를 정리합니다.
+     */
+    private void detach(Node node) {
+        Node parent = node.parent;
+        if (parent == null) {
+            return;
+        }
+        parent.children().remove(node.segment, node);
+        node.parent = null;
+        while (parent != root && parent.id == NO_ID && parent.children().isEmpty() && parent.parent != null) {
+            parent.parent.children().remove(parent.segment, parent);
+            Node emptied = parent;
+            parent = parent.parent;
+            emptied.parent = null;
+        }
+    }
+
+    /**
+     * 경로를 따라가며 없는 구간은 중간 노드로 만들어 마지막 노드를 반환합니다.
+     *
+     * @param from 시작 노드 (최상위 노드)
+     * @param path '/'로 시작하는 경로 (빈 문자열이면 시작 노드)
+     */
+    private static Node ensurePath(Node from, String path) {
+        Node node = from;
+        int start = 1;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            String segment = path.substring(start, end);
+            Node parent = node;
+            node = parent.children().computeIfAbsent(segment, key -> new Node(parent, key, NO_ID));
+            start = end + 1;
+        }
+        return node;
+    }
+
+    /**
+     * @return 색인에 있는 디렉토리 수
+     */
+    public int getSize() {
+        updateLock.lock();
+        try {
+            return nodesById.size();
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * 경로 구간 하나에 해당하는 트라이 노드
+     * 하위 노드 맵과 ID는 잠금 없는 조회를 위해 스레드 간에 공개되고, 부모와 구간 이름은 반영하는 스레드만 사용합니다.
+     */
+    private static final class Node {
+        private volatile long id;
+        private volatile Map<String, Node> children;
+        private Node parent;
+        private String segment;
+
+        /**
+         * 디렉토리 이름 (중간 노드면 null, 이름 색인에서 제거할 때 사용)
+         */
+        private String name;
+
+        private Node(Node parent, String segment, long id) {
+            this.parent = parent;
+            this.segment = segment;
+            this.id = id;
+        }
+
+        /**
+         * 하위 노드 맵 (리프가 대부분이므로 처음 필요할 때 만듦, 반영하는 스레드만 호출)
+         */
+        private Map<String, Node> children() {
+            Map<String, Node> current = children;
+            if (current == null) {
+                current = new ConcurrentHashMap<>(4);
+                children = current;
+            }
+            return current;
+        }
+    }
+}
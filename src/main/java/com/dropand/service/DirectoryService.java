@@ -1,15 +1,53 @@
 package com.dropand.service;
 
 import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryChangesResponse;
+import com.dropand.dto.DirectoryImportRecord;
+import com.dropand.dto.DirectoryImportResponse;
+import com.dropand.dto.DirectoryNodeDto;
 import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.dto.DirectoryPageResponse;
+import com.dropand.dto.DirectoryRestoreResponse;
+import com.dropand.dto.DirectoryTreeDto;
+import com.dropand.repository.DirectoryBatchRepository;
 import com.dropand.repository.DirectoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -20,18 +58,188 @@ import java.util.stream.Collectors;
 public class DirectoryService {
     
     private static final Logger log = LoggerFactory.getLogger(DirectoryService.class);
+
+    /**
+     * 하위 트리 삭제 시 DELETE 문 하나에 담을 최대 ID 수
+     */
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    /**
+     * 일괄 가져오기 시 INSERT 배치 한 번에 담을 최대 행 수
+     */
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    /**
+     * 스냅샷 복원 시 INSERT 배치 한 번에 담을 최대 행 수
+     */
+    private static final int RESTORE_BATCH_SIZE = 5000;
+
+    /**
+     * 하위 디렉토리 페이지 조회 시 허용하는 최대 페이지 크기
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * 새로 배치하는 디렉토리 사이의 정렬 순서 간격
+     * 간격이 남아 있는 동안에는 형제 사이에 끼워 넣어도 다른 형제를 다시 매길 필요가 없습니다.
+     */
+    static final int SORT_ORDER_GAP = 1024;
+
+    /**
+     * 동시 변경 충돌 시 최대 시도 횟수 (첫 시도 포함)
+     */
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    /**
+     * 잠금을 기다리는 동안 조상이 바뀌어 잠금 대상을 다시 계산하는 최대 횟수
+     */
+    private static final int MAX_LOCK_REFRESHES = 16;
+
     /**
      * 디렉토리 리포지토리 객체
      * 데이터베이스 작업을 처리합니다.
      */
     private final DirectoryRepository directoryRepository;
+
+    /**
+     * 디렉토리 트리 읽기 캐시
+     * 트리 조회는 DB 대신 이 캐시의 스냅샷을 사용합니다.
+     */
+    private final DirectoryTreeCache directoryTreeCache;
+
+    /**
+     * 변경 이벤트 발행기
+     * 커밋 이후 캐시 갱신을 위해 변경 작업마다 이벤트를 발행합니다.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * JDBC 일괄 처리 리포지토리
+     * 여러 디렉토리를 한 번에 변경할 때 사용합니다.
+     */
+    private final DirectoryBatchRepository directoryBatchRepository;
+
+    /**
+     * JDBC로 직접 변경하기 전후에 영속성 컨텍스트를 정리하는 데 사용합니다.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * 하위 트리 단위 잠금 관리자
+     * 서로 다른 하위 트리의 변경은 동시에, 같은 하위 트리의 변경은 차례로 실행되도록 합니다.
+     */
+    private final DirectoryLockManager directoryLockManager;
+
+    /**
+     * 변경 작업용 트랜잭션 템플릿
+     * 잠금을 잡은 상태에서 트랜잭션을 시작하고 커밋 후에 잠금을 풀기 위해 선언적 트랜잭션 대신 사용합니다.
+     */
+    private final TransactionTemplate writeTransaction;
+
+    /**
+     * DB를 읽는 조회 작업용 읽기 전용 트랜잭션 템플릿
+     * DB 작업 허가를 받은 뒤에 트랜잭션(커넥션)을 시작하기 위해 선언적 트랜잭션 대신 사용합니다.
+     */
+    private final TransactionTemplate readTransaction;
+
+    /**
+     * DB 작업 동시 실행 한도
+     */
+    private final DirectoryDatabaseGate databaseGate;
+
+    /**
+     * 커밋된 변경 저널
+     * 클라이언트가 전체 트리 대신 변경분만 받아 갈 때 사용합니다.
+     */
+    private final DirectoryChangeJournal changeJournal;
+
+    /**
+     * 커밋된 변경을 SSE 구독자에게 전달하는 발행기
+     */
+    private final DirectoryChangeBroadcaster changeBroadcaster;
+
+    /**
+     * 목록/트리를 응답 스트림에 바로 기록하는 직렬화기
+     */
+    private final DirectoryJsonStreamWriter jsonStreamWriter;
+
+    /**
+     * 트리를 열 단위 배열 형식으로 인코딩하는 인코더
+     */
+    private final DirectoryColumnarEncoder columnarEncoder;
+
+    /**
+     * 일괄 가져오기 입력 한 줄을 읽는 JSON 리더
+     */
+    private final ObjectReader importRecordReader;
+
+    /**
+     * 디렉토리 테이블 스냅샷 파일 기록기
+     */
+    private final DirectorySnapshotFile snapshotFile;
+
+    /**
+     * 경로로 디렉토리 ID를 찾는 메모리 색인
+     */
+    private final DirectoryPathIndex pathIndex;
+
+    /**
+     * 이름으로 디렉토리를 찾는 메모리 검색 색인
+     */
+    private final DirectoryNameIndex nameIndex;
+
+    /**
+     * 부모/자식 관계를 기본형 배열로 보관하는 메모리 계층 색인
+     */
+    private final DirectoryHierarchyIndex hierarchyIndex;
+
+    /**
+     * 작업별 처리 시간과 SQL 수를 기록하는 지표
+     */
+    private final DirectoryMetrics metrics;
     
     /**
      * 생성자를 통한 의존성 주입
      * 스프링이 자동으로 DirectoryRepository 구현체를 주입합니다.
      */
-    public DirectoryService(DirectoryRepository directoryRepository) {
+    public DirectoryService(DirectoryRepository directoryRepository,
+                            DirectoryTreeCache directoryTreeCache,
+                            ApplicationEventPublisher eventPublisher,
+                            DirectoryBatchRepository directoryBatchRepository,
+                            EntityManager entityManager,
+                            DirectoryLockManager directoryLockManager,
+                            PlatformTransactionManager transactionManager,
+                            DirectoryChangeJournal changeJournal,
+                            DirectoryChangeBroadcaster changeBroadcaster,
+                            DirectoryJsonStreamWriter jsonStreamWriter,
+                            DirectoryColumnarEncoder columnarEncoder,
+                            ObjectMapper objectMapper,
+                            DirectorySnapshotFile snapshotFile,
+                            DirectoryPathIndex pathIndex,
+                            DirectoryNameIndex nameIndex,
+                            DirectoryHierarchyIndex hierarchyIndex,
+                            DirectoryMetrics metrics,
+                            DirectoryDatabaseGate databaseGate) {
         this.directoryRepository = directoryRepository;
+        this.directoryTreeCache = directoryTreeCache;
+        this.eventPublisher = eventPublisher;
+        this.directoryBatchRepository = directoryBatchRepository;
+        this.entityManager = entityManager;
+        this.directoryLockManager = directoryLockManager;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.databaseGate = databaseGate;
+        this.changeJournal = changeJournal;
+        this.changeBroadcaster = changeBroadcaster;
+        this.jsonStreamWriter = jsonStreamWriter;
+        this.columnarEncoder = columnarEncoder;
+        this.importRecordReader = objectMapper.readerFor(DirectoryImportRecord.class);
+        this.snapshotFile = snapshotFile;
+        this.pathIndex = pathIndex;
+        this.nameIndex = nameIndex;
+        this.hierarchyIndex = hierarchyIndex;
+        this.metrics = metrics;
         log.info("DirectoryService 초기화됨");
     }
     
@@ -40,27 +248,280 @@ public class DirectoryService {
      * 
      * @return 전체 디렉토리 목록
      */
-    @Transactional(readOnly = true) // 읽기 전용 트랜잭션 설정
     public List<Directory> getAllDirectories() {
-        log.debug("모든 디렉토리 조회");
-        List<Directory> directories = directoryRepository.findAll();
-        log.debug("전체 디렉토리 조회 완료 - 조회된 디렉토리 수: {}", directories.size());
-        return directories;
+        return executeRead(() -> {
+            log.debug("모든 디렉토리 조회");
+            List<Directory> directories = directoryRepository.findAll();
+            log.debug("전체 디렉토리 조회 완료 - 조회된 디렉토리 수: {}", directories.size());
+            return directories;
+        });
+    }
+    
+    /**
+     * 전체 디렉토리 목록을 스트리밍으로 내보내는 메소드
+     * 엔티티 그래프를 만들지 않고 DB 커서에서 한 행씩 읽어 바로 응답에 기록하므로
+     * 디렉토리 수와 관계없이 메모리 사용량이 일정하고 첫 바이트가 곧바로 전송됩니다.
+     * 각 항목은 하위 목록 없이 parentId로 부모를 가리키는 평면 형태입니다.
+     * 
+     * @return 응답 본문 기록 함수
+     */
+    public StreamingResponseBody streamAllDirectories() {
+        log.debug("전체 디렉토리 스트리밍 요청");
+        return databaseGate.stream(jsonStreamWriter::writeAllDirectories);
+    }
+
+    /**
+     * 디렉토리 트리를 스트리밍으로 내보내는 메소드
+     * 캐시된 스냅샷을 사본 없이 순회하며 응답에 바로 기록합니다. 형식은 getDirectoryTree와 같습니다.
+     * 
+     * @param depth 포함할 단계 수 (null이면 전체)
+     * @return 응답 본문 기록 함수
+     * @throws IllegalArgumentException depth가 1 미만인 경우
+     */
+    public StreamingResponseBody streamDirectoryTree(Integer depth) {
+        if (depth != null && depth < 1) {
+            throw new IllegalArgumentException("depth는 1 이상이어야 합니다.");
+        }
+        log.debug("디렉토리 트리 스트리밍 요청 - 깊이: {}", depth);
+        return out -> jsonStreamWriter.writeTree(out, depth);
+    }
+
+    /**
+     * 전체 디렉토리 트리를 열 단위 배열 형식으로 조회하는 메소드
+     * 경로와 필드 이름을 반복하지 않아 중첩 JSON보다 작고, 스냅샷마다 한 번만 인코딩하여 재사용합니다.
+     * 
+     * @param binary true면 바이너리 형식, false면 JSON 배열 형식
+     * @return 인코딩된 트리
+     */
+    public byte[] getColumnarTree(boolean binary) {
+        return metrics.record("tree", () -> {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+            log.debug("열 단위 트리 조회 - 스냅샷 버전: {}, 바이너리: {}", snapshot.getVersion(), binary);
+            return binary ? columnarEncoder.encodeBinary(snapshot) : columnarEncoder.encodeJson(snapshot);
+        });
+    }
+
+    /**
+     * 전체 디렉토리 트리를 조회하는 메소드
+     * 커밋된 변경이 반영된 트리 스냅샷을 캐시에서 반환하므로 DB를 조회하지 않습니다.
+     * 
+     * @return 루트 디렉토리 목록 (각 노드에 하위 디렉토리 포함)
+     */
+    public List<DirectoryTreeDto> getDirectoryTree() {
+        return metrics.record("tree", () -> {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+            log.debug("디렉토리 트리 조회 - 스냅샷 버전: {}, 전체 디렉토리 수: {}", snapshot.getVersion(), snapshot.getSize());
+            return snapshot.getRoots();
+        });
     }
     
     /**
-     * 루트 디렉토리 목록을 조회하는 메소드
+     * 디렉토리 트리를 지정한 깊이까지만 조회하는 메소드
+     * 잘린 노드도 하위 디렉토리 수(childCount)를 포함하므로 화면에서 펼침 표시를 할 수 있습니다.
+     * 
+     * @param depth 포함할 단계 수 (1이면 루트 디렉토리만)
+     * @return 깊이 제한된 루트 디렉토리 목록
+     * @throws IllegalArgumentException depth가 1 미만인 경우
+     */
+    public List<DirectoryTreeDto> getDirectoryTree(int depth) {
+        return metrics.record("tree", () -> {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+            log.debug("디렉토리 트리 조회 - 스냅샷 버전: {}, 깊이: {}", snapshot.getVersion(), depth);
+            return snapshot.getRoots(depth);
+        });
+    }
+
+    /**
+     * 경로로 디렉토리를 조회하는 메소드
+     * 메모리 경로 색인에서 경로 깊이만큼만 따라가 ID를 찾고, 디렉토리 정보는 캐시된 스냅샷에서 가져옵니다.
+     * 색인이 아직 적재되지 않았거나 방금 커밋된 변경이 반영되는 중이어서 찾지 못하면
+     * 경로 유니크 인덱스로 DB에서 한 번 더 확인합니다.
+     * 
+     * @param path 디렉토리 경로 (예: /a/b/c, 끝의 '/'는 무시)
+     * @param depth 포함할 단계 수 (1이면 디렉토리 자신만)
+     * @return 깊이 제한된 디렉토리 (없으면 빈 값)
+     * @throws IllegalArgumentException 경로 형식이 올바르지 않거나 depth가 1 미만인 경우
+     */
+    public Optional<DirectoryTreeDto> getDirectoryByPath(String path, int depth) {
+        String normalized = normalizePath(path);
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth는 1 이상이어야 합니다.");
+        }
+        DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+        Long id = pathIndex.find(normalized);
+        DirectoryTreeDto directory = id != null ? snapshot.getNode(id, depth) : null;
+        if (directory == null || !directory.getPath().equals(normalized)) {
+            log.debug("경로 색인에서 찾지 못해 DB로 확인 - 경로: {}", normalized);
+            directory = directoryRepository.findNodeByPath(normalized)
+                .map(node -> directoryTreeCache.getSnapshot().getNode(node.getId(), depth))
+                .orElse(null);
+        }
+        log.debug("경로로 디렉토리 조회 - 경로: {}, ID: {}", normalized, directory != null ? directory.getId() : null);
+        return Optional.ofNullable(directory);
+    }
+
+    /**
+     * 이름으로 디렉토리를 검색하는 메소드
+     * 메모리 이름 색인에서 일치 정도 순으로 ID를 찾고, 경로 등 디렉토리 정보는 캐시된 스냅샷에서 가져오므로 DB를 조회하지 않습니다.
+     * 검색어가 3글자 이상이면 이름 어디에 있어도, 1~2글자면 이름이 검색어로 시작할 때만 일치합니다. (대소문자 무시)
+     * 정렬은 완전 일치, 앞부분 일치, 단어 시작 일치, 부분 일치 순이며, 같으면 짧은 이름, 이름, ID 순입니다.
      * 
-     * @return 루트 디렉토리 목록
+     * @param query 검색어
+     * @param cursor 이전 페이지 응답의 다음 커서 (첫 페이지면 null)
+     * @param limit 페이지 크기 (1 ~ MAX_PAGE_SIZE)
+     * @return 검색 결과 페이지
+     * @throws IllegalArgumentException 검색어가 비었거나 커서/페이지 크기가 잘못된 경우
+     */
+    public DirectoryPageResponse searchDirectories(String query, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_PAGE_SIZE + " 이하이어야 합니다.");
+        }
+        long startedAt = System.nanoTime();
+        DirectoryNameIndex.Page page = nameIndex.search(query, cursor, limit);
+        DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+        List<DirectoryTreeDto> items = new ArrayList<>(page.getIds().size());
+        for (Long id : page.getIds()) {
+            // 색인에 막 반영된 변경이 스냅샷과 어긋난 경우 해당 항목만 건너뜀
+            DirectoryTreeDto directory = snapshot.getNode(id, 1);
+            if (directory != null) {
+                items.add(directory);
+            }
+        }
+        log.debug("디렉토리 이름 검색 - 검색어: {}, 결과 수: {}, 다음 페이지 존재: {}, 소요 시간: {}us",
+            query, items.size(), page.getNextCursor() != null, (System.nanoTime() - startedAt) / 1_000);
+        return new DirectoryPageResponse(items, page.getNextCursor());
+    }
+
+    /**
+     * 경로를 '/'로 시작하고 '/'로 끝나지 않는 형태로 맞춥니다.
+     */
+    private static String normalizePath(String path) {
+        String normalized = path == null ? "" : path.trim();
+        if (!normalized.startsWith("/")) {
+            throw new IllegalArgumentException("경로는 '/'로 시작해야 합니다.");
+        }
+        int end = normalized.length();
+        while (end > 0 && normalized.charAt(end - 1) == '/') {
+            end--;
+        }
+        if (end == 0) {
+            throw new IllegalArgumentException("디렉토리 경로를 입력해야 합니다.");
+        }
+        return normalized.substring(0, end);
+    }
+
+    /**
+     * 하위 디렉토리 트리를 지정한 깊이까지만 조회하는 메소드
+     * 
+     * @param parentId 부모 디렉토리 ID
+     * @param depth 포함할 단계 수 (1이면 직계 하위 디렉토리만)
+     * @return 깊이 제한된 하위 디렉토리 목록
+     * @throws IllegalArgumentException 부모 디렉토리가 없거나 depth가 1 미만인 경우
      */
-    @Transactional(readOnly = true) // 읽기 전용 트랜잭션 설정
-    public List<Directory> getDirectoryTree() {
-        log.debug("루트 디렉토리 목록 조회");
-        List<Directory> rootDirectories = directoryRepository.findByParentIsNullOrderBySortOrder();
-        log.debug("루트 디렉토리 조회 완료 - 조회된 디렉토리 수: {}", rootDirectories.size());
-        return rootDirectories;
+    public List<DirectoryTreeDto> getSubDirectoryTree(Long parentId, int depth) {
+        return metrics.record("children", () -> {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+            log.debug("하위 디렉토리 트리 조회 - 스냅샷 버전: {}, parentId: {}, 깊이: {}", snapshot.getVersion(), parentId, depth);
+            return snapshot.getChildren(parentId, depth);
+        });
     }
     
+    /**
+     * 한 디렉토리가 다른 디렉토리의 조상인지 확인하는 메소드
+     * 공개된 트리 스냅샷이 계층 색인에 반영된 변경을 모두 담고 있으면 스냅샷의 전위 순회 구간으로 상수 시간에 판별하고,
+     * 스냅샷이 아직 재생성 중이라 뒤처져 있으면 커밋 직후 갱신되는 계층 색인에서 부모를 따라 올라가며 판별합니다.
+     * 어느 쪽이든 DB를 조회하지 않습니다.
+     * 
+     * @param ancestorId 조상인지 확인할 디렉토리 ID
+     * @param descendantId 하위 디렉토리인지 확인할 디렉토리 ID
+     * @return ancestorId가 descendantId의 조상이면 true (자기 자신은 false)
+     * @throws IllegalArgumentException 디렉토리가 존재하지 않는 경우
+     */
+    public boolean isAncestor(Long ancestorId, Long descendantId) {
+        // 스냅샷을 먼저 읽어야, 그 뒤에 읽은 색인 순번 이하의 변경이 스냅샷에 모두 담겼는지 판단할 수 있음
+        DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+        if (!hierarchyIndex.isLoaded() || snapshot.getJournalSequence() >= hierarchyIndex.getAppliedSequence()) {
+            return snapshot.isAncestor(ancestorId, descendantId);
+        }
+        return hierarchyIndex.isAncestor(ancestorId, descendantId);
+    }
+
+    /**
+     * 디렉토리 트리 버전을 반환하는 메소드
+     * 변경이 커밋될 때마다 증가하므로 트리 응답의 ETag로 사용합니다. DB를 조회하지 않습니다.
+     * 
+     * @return 현재 트리 스냅샷 버전
+     */
+    public long getTreeVersion() {
+        return directoryTreeCache.getSnapshot().getVersion();
+    }
+
+    /**
+     * 현재 요청 스레드가 마지막으로 커밋한 변경의 저널 순번을 반환하는 메소드
+     * 변경 작업은 트리 스냅샷 공개를 기다리지 않으므로, 변경 API가 이 순번을 응답에 담아
+     * 클라이언트가 이후 트리 조회에서 자신의 변경이 반영되기를 기다릴 수 있게 합니다.
+     * 
+     * @return 커밋한 변경의 저널 순번 (커밋한 변경이 없으면 null)
+     */
+    public Long takeCommittedSequence() {
+        return directoryTreeCache.takeCommittedSequence();
+    }
+
+    /**
+     * 지정한 저널 순번까지의 변경이 담긴 트리 스냅샷이 공개될 때까지 기다리는 메소드
+     * 제한 시간이 지나면 기다리지 않고 반환하므로, 호출한 쪽은 그때의 스냅샷으로 응답합니다.
+     * 
+     * @param sequence 변경 API 응답으로 받은 저널 순번
+     * @return 제한 시간 안에 공개되었으면 true
+     */
+    public boolean awaitTreeSequence(long sequence) {
+        return directoryTreeCache.awaitSequence(sequence);
+    }
+
+    /**
+     * 하위 트리 버전을 반환하는 메소드
+     * 해당 디렉토리 아래에서 변경이 커밋될 때만 바뀌므로 하위 디렉토리 응답의 ETag로 사용합니다.
+     * 
+     * @param parentId 부모 디렉토리 ID
+     * @return 하위 트리 버전 (존재하지 않는 디렉토리면 null)
+     */
+    public Long getSubtreeVersion(Long parentId) {
+        return directoryTreeCache.getSnapshot().getSubtreeVersion(parentId);
+    }
+
+    /**
+     * 지정한 순번 이후에 커밋된 변경 내역을 조회하는 메소드
+     * 변경 저널만 읽으므로 DB를 조회하지 않습니다.
+     * 요청한 순번이 저널에서 이미 밀려났거나(또는 재시작/초기화 이전 순번이거나) 순번 없이 요청한 경우
+     * truncated로 표시하고 전체 트리 스냅샷과 그 스냅샷의 순번을 대신 반환합니다.
+     * 
+     * @param since 클라이언트가 마지막으로 반영한 순번 (처음이면 null)
+     * @return 변경 내역 또는 전체 스냅샷
+     */
+    public DirectoryChangesResponse getChanges(Long since) {
+        List<DirectoryChangeDto> changes = since == null ? null : changeJournal.readSince(since);
+        if (changes == null) {
+            DirectoryTreeSnapshot snapshot = directoryTreeCache.getSnapshot();
+            log.debug("변경 내역 조회 - 저널로 이어갈 수 없어 전체 스냅샷 반환, since: {}, 스냅샷 순번: {}",
+                since, snapshot.getJournalSequence());
+            return DirectoryChangesResponse.fullSnapshot(snapshot.getJournalSequence(), snapshot.getRoots());
+        }
+        long latestSequence = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+        log.debug("변경 내역 조회 - since: {}, 항목 수: {}, 마지막 순번: {}", since, changes.size(), latestSequence);
+        return DirectoryChangesResponse.delta(latestSequence, changes);
+    }
+
+    /**
+     * 커밋된 변경을 실시간으로 받는 구독을 등록하는 메소드
+     * 이벤트는 트랜잭션이 커밋되고 트리 스냅샷이 갱신된 뒤에만 전달됩니다.
+     * 
+     * @param lastEventId 마지막으로 받은 변경 순번 (처음이면 null)
+     * @return SSE 응답
+     */
+    public SseEmitter subscribeChanges(Long lastEventId) {
+        return changeBroadcaster.subscribe(lastEventId);
+    }
+
     /**
      * 하위 디렉토리 목록을 조회하는 메소드
      * 
@@ -68,78 +529,139 @@ public class DirectoryService {
      * @return 하위 디렉토리 목록
      * @throws IllegalArgumentException 부모 디렉토리가 존재하지 않는 경우
      */
-    @Transactional(readOnly = true) // 읽기 전용 트랜잭션 설정
     public List<Directory> getSubDirectories(Long parentId) {
-        log.debug("하위 디렉토리 조회 시작 - parentId: {}", parentId);
-        Directory parent = directoryRepository.findById(parentId)
-            .orElseThrow(() -> new IllegalArgumentException("Parent directory not found with id: " + parentId));
-        List<Directory> directories = directoryRepository.findByParentOrderBySortOrder(parent);
-        log.debug("하위 디렉토리 조회 완료 - 조회된 디렉토리 수: {}", directories.size());
-        return directories;
+        return metrics.record("children", () -> executeRead(() -> {
+            log.debug("하위 디렉토리 조회 시작 - parentId: {}", parentId);
+            Directory parent = directoryRepository.findById(parentId)
+                .orElseThrow(() -> new IllegalArgumentException("Parent directory not found with id: " + parentId));
+            List<Directory> directories = directoryRepository.findByParentOrderBySortOrder(parent);
+            log.debug("하위 디렉토리 조회 완료 - 조회된 디렉토리 수: {}", directories.size());
+            return directories;
+        }));
+    }
+    
+    /**
+     * 하위 디렉토리 목록을 키셋(커서) 방식으로 한 페이지씩 조회하는 메소드
+     * 
+     * @param parentId 부모 디렉토리 ID
+     * @param cursor 이전 페이지 응답의 다음 커서 (첫 페이지면 null)
+     * @param limit 페이지 크기 (1 ~ MAX_PAGE_SIZE)
+     * @return 하위 디렉토리 페이지
+     * @throws IllegalArgumentException 부모 디렉토리가 없거나 커서/페이지 크기가 잘못된 경우
+     */
+    public DirectoryPageResponse getSubDirectoryPage(Long parentId, String cursor, int limit) {
+        return metrics.record("children", () -> executeRead(() -> {
+            log.debug("하위 디렉토리 페이지 조회 시작 - parentId: {}, cursor: {}, limit: {}", parentId, cursor, limit);
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("limit은 1 이상 " + MAX_PAGE_SIZE + " 이하이어야 합니다.");
+            }
+            if (!directoryRepository.existsById(parentId)) {
+                throw new IllegalArgumentException("Parent directory not found with id: " + parentId);
+            }
+
+            // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회
+            Limit fetchLimit = Limit.of(limit + 1);
+            List<DirectoryNodeDto> items;
+            if (cursor == null || cursor.isEmpty()) {
+                items = directoryRepository.findChildrenFirstPage(parentId, fetchLimit);
+            } else {
+                DirectoryCursor after = DirectoryCursor.decode(cursor);
+                items = directoryRepository.findChildrenAfter(parentId, after.getSortOrder(), after.getId(), fetchLimit);
+            }
+
+            String nextCursor = null;
+            if (items.size() > limit) {
+                items = items.subList(0, limit);
+                nextCursor = DirectoryCursor.after(items.get(limit - 1)).encode();
+            }
+
+            // 페이지 항목들의 하위 디렉토리 수를 집계 쿼리 한 번으로 조회
+            Map<Long, Integer> childCounts = new HashMap<>();
+            if (!items.isEmpty()) {
+                List<Long> ids = items.stream().map(DirectoryNodeDto::getId).collect(Collectors.toList());
+                for (DirectoryRepository.ChildCount count : directoryRepository.countChildrenByParentIds(ids)) {
+                    childCounts.put(count.getParentId(), count.getChildCount().intValue());
+                }
+            }
+            List<DirectoryTreeDto> page = items.stream()
+                .map(item -> new DirectoryTreeDto(item, childCounts.getOrDefault(item.getId(), 0)))
+                .collect(Collectors.toList());
+            log.debug("하위 디렉토리 페이지 조회 완료 - 조회된 디렉토리 수: {}, 다음 페이지 존재: {}", page.size(), nextCursor != null);
+            return new DirectoryPageResponse(page, nextCursor);
+        }));
     }
     
     /**
      * 디렉토리 순서를 업데이트하는 메소드
+     * 요청 전체를 하나의 일괄 변경으로 처리합니다.
+     * 1. 대상/부모 디렉토리와 그 조상을 재귀 쿼리 한 번으로 조회
+     * 2. 중복 요청을 제거하고 최종 트리 기준으로 순환 참조 검사
+     * 3. 부모/정렬 순서/경로 변경과 하위 경로 재작성을 각각 JDBC 배치 한 번으로 반영
+     *    (새 경로가 다른 대상의 현재 경로와 겹치면 임시 경로로 옮긴 뒤 최종 경로로 바꾸는 두 단계로 반영)
+     * 
+     * 대상과 새 부모는 쓰기 잠금, 그 조상은 읽기 잠금을 잡은 상태로 실행됩니다.
      * 
      * @param orderList 업데이트할 디렉토리 순서 목록
-     * @throws Exception 디렉토리 순서 업데이트 중 오류 발생 시
+     * @throws IllegalArgumentException 디렉토리가 없거나 순환 참조가 발생하는 경우
+     * @throws DirectoryConflictException 요청한 버전이 현재 버전과 다르거나 재시도 후에도 충돌한 경우
      */
-    @Transactional
     public void updateDirectoryOrder(List<DirectoryOrderDto> orderList) {
-        log.debug("디렉토리 순서 업데이트 시작 - 업데이트할 항목 수: {}", orderList.size());
+        metrics.record("reorder", () -> {
+            log.debug("디렉토리 순서 업데이트 시작 - 업데이트할 항목 수: {}", orderList.size());
+            if (orderList.isEmpty()) {
+                return;
+            }
         
+            try {
+                executeWrite(orderList.get(0).getId(), hierarchy -> {
+                    DirectoryLockManager.LockSet lockSet = new DirectoryLockManager.LockSet();
+                    for (DirectoryOrderDto order : orderList) {
+                        lockSet.write(order.getId()).write(order.getParentId())
+                            .read(hierarchy.getAncestorIds(order.getId()))
+                            .read(hierarchy.getAncestorIds(order.getParentId()));
+                    }
+                    return lockSet;
+                }, () -> applyDirectoryOrder(orderList));
+                log.debug("디렉토리 순서 업데이트 완료");
+            } catch (Exception e) {
+                log.error("디렉토리 순서 업데이트 중 오류 발생", e);
+                throw e;
+            }
+        });
+    }
+
+    private Void applyDirectoryOrder(List<DirectoryOrderDto> orderList) {
+        Set<Long> referencedIds = DirectoryOrderPlan.referencedIds(orderList);
+        List<DirectoryNodeDto> prefetched = directoryBatchRepository.findWithAncestors(referencedIds);
+        log.debug("대상 및 조상 디렉토리 조회됨 - 참조 ID 수: {}, 조회된 디렉토리 수: {}", referencedIds.size(), prefetched.size());
+
+        DirectoryOrderPlan plan = DirectoryOrderPlan.build(orderList, prefetched);
+
+        // JDBC로 직접 변경하므로 대기 중인 엔티티 변경을 먼저 반영하고, 이후 읽기는 DB에서 다시 하도록 비움
+        entityManager.flush();
+        int placed;
+        int rewritten;
         try {
-            // 모든 디렉토리를 한 번에 조회
-            List<Long> directoryIds = orderList.stream()
-                    .map(DirectoryOrderDto::getId)
-                    .collect(Collectors.toList());
-            log.debug("업데이트할 디렉토리 ID 목록: {}", directoryIds);
-            
-            List<Directory> directories = directoryRepository.findAllById(directoryIds);
-            log.debug("조회된 디렉토리 수: {}", directories.size());
-            
-            Map<Long, Directory> directoryMap = directories.stream()
-                    .collect(Collectors.toMap(Directory::getId, d -> d));
-            
-            for (DirectoryOrderDto orderDto : orderList) {
-                log.debug("디렉토리 업데이트 처리 중 - ID: {}, ParentID: {}, SortOrder: {}", 
-                    orderDto.getId(), orderDto.getParentId(), orderDto.getSortOrder());
-                
-                Directory directory = directoryMap.get(orderDto.getId());
-                if (directory == null) {
-                    log.error("디렉토리를 찾을 수 없음 - ID: {}", orderDto.getId());
-                    throw new IllegalArgumentException("Directory not found with id: " + orderDto.getId());
-                }
-                
-                Directory parent = null;
-                if (orderDto.getParentId() != null) {
-                    parent = directoryRepository.findById(orderDto.getParentId())
-                            .orElseThrow(() -> {
-                                log.error("부모 디렉토리를 찾을 수 없음 - ID: {}", orderDto.getParentId());
-                                return new IllegalArgumentException("Parent directory not found with id: " + orderDto.getParentId());
-                            });
-                }
-                
-                log.debug("디렉토리 정보 업데이트 - Name: {}, OldPath: {}", directory.getName(), directory.getPath());
-                directory.setParent(parent);
-                directory.setSortOrder(orderDto.getSortOrder());
-                
-                // 경로 업데이트
-                String newPath = parent == null ? "/" + directory.getName() : parent.getPath() + "/" + directory.getName();
-                directory.setPath(newPath);
-                log.debug("새로운 경로 설정 - NewPath: {}", newPath);
-                
-                directoryRepository.save(directory);
-                log.debug("디렉토리 저장 완료 - ID: {}", directory.getId());
-                
-                // 하위 디렉토리들의 경로도 업데이트
-                updateChildrenPaths(directory);
+            if (plan.isStaged()) {
+                // 맞바꾸기나 연쇄 이동은 최종 상태가 유일해도 행 단위 검사에 걸리므로 임시 경로를 거쳐 반영
+                placed = directoryBatchRepository.updatePlacements(plan.getStagedPlacements());
+                rewritten = directoryBatchRepository.rewriteDescendantPaths(plan.getStagingRewrites(), plan.getDirectoryIds());
+                directoryBatchRepository.replaceStagedPaths(plan.getUnstagingRewrites(), plan.getDirectoryIds());
+            } else {
+                placed = directoryBatchRepository.updatePlacements(plan.getPlacements());
+                rewritten = directoryBatchRepository.rewriteDescendantPaths(plan.getPathRewrites(), plan.getDirectoryIds());
             }
-            log.debug("디렉토리 순서 업데이트 완료");
-        } catch (Exception e) {
-            log.error("디렉토리 순서 업데이트 중 오류 발생", e);
-            throw e;
+        } catch (DuplicateKeyException e) {
+            // 여러 디렉토리를 한꺼번에 옮기므로 미리 확인하지 않고 경로 유니크 인덱스 위반으로 판별
+            throw new DirectoryConflictException("같은 경로의 디렉토리가 이미 있는 위치로 옮길 수 없습니다.", null, null);
         }
+        entityManager.clear();
+        metrics.recordSubtreeRows("reorder", rewritten);
+        log.debug("디렉토리 일괄 변경 완료 - 대상 수: {}, 변경된 디렉토리 수: {}, 경로 재작성 수: {}",
+            plan.getDirectoryIds().size(), placed, rewritten);
+
+        eventPublisher.publishEvent(new DirectoryChangedEvent(DirectoryChangedEvent.Type.REORDERED, plan.getChanges()));
+        return null;
     }
 
     /**
@@ -150,59 +672,245 @@ public class DirectoryService {
      * @return 생성된 디렉토리
      * @throws Exception 디렉토리 생성 중 오류 발생 시
      */
-    @Transactional
     public Directory createDirectory(String name, Long parentId) {
-        try {
-            log.info("디렉토리 생성 시작 - 이름: {}, 부모 ID: {}", name, parentId);
+        return metrics.record("create", () -> {
+            try {
+                log.info("디렉토리 생성 시작 - 이름: {}, 부모 ID: {}", name, parentId);
             
-            if (name == null || name.trim().isEmpty()) {
-                throw new IllegalArgumentException("디렉토리 이름은 필수입니다.");
-            }
-
-            // 부모 디렉토리 조회
-            Directory parent = null;
-            if (parentId != null) {
-                parent = directoryRepository.findById(parentId)
-                        .orElseThrow(() -> {
-                            log.error("부모 디렉토리를 찾을 수 없음 - ID: {}", parentId);
-                            return new IllegalArgumentException("부모 디렉토리를 찾을 수 없습니다. ID: " + parentId);
-                        });
-                log.debug("부모 디렉토리 조회됨 - 이름: {}, 경로: {}", parent.getName(), parent.getPath());
-            }
+                if (name == null || name.trim().isEmpty()) {
+                    throw new IllegalArgumentException("디렉토리 이름은 필수입니다.");
+                }
+                if (name.contains("/")) {
+                    throw new IllegalArgumentException("디렉토리 이름에 '/'를 사용할 수 없습니다.");
+                }
 
-            // 디렉토리 생성
-            Directory directory = new Directory();
-            directory.setName(name.trim());
+                // 같은 부모 아래 정렬 순서가 겹치지 않도록 부모는 쓰기 잠금
+                Directory savedDirectory = executeWrite(parentId,
+                    hierarchy -> new DirectoryLockManager.LockSet().write(parentId).read(hierarchy.getAncestorIds(parentId)),
+                    () -> insertDirectory(name, parentId));
             
-            // 정렬 순서 설정
-            List<Directory> siblings = parentId == null ? 
-                directoryRepository.findByParentIsNullOrderBySortOrder() :
-                directoryRepository.findByParentOrderBySortOrder(parent);
+                log.info("디렉토리 생성 완료 - ID: {}, 이름: {}, 경로: {}, 부모 ID: {}", 
+                    savedDirectory.getId(), savedDirectory.getName(), savedDirectory.getPath(),
+                    savedDirectory.getParent() != null ? savedDirectory.getParent().getId() : null);
             
-            int maxSortOrder = siblings.isEmpty() ? 0 : 
-                siblings.stream()
-                    .mapToInt(Directory::getSortOrder)
-                    .max()
-                    .orElse(0);
+                return savedDirectory;
             
-            directory.setSortOrder(maxSortOrder + 1);
-            
-            // 부모-자식 관계 설정
-            directory.setParent(parent);
-            
-            // 저장
-            Directory savedDirectory = directoryRepository.saveAndFlush(directory);
-            
-            log.info("디렉토리 생성 완료 - ID: {}, 이름: {}, 경로: {}, 부모 ID: {}", 
-                savedDirectory.getId(), savedDirectory.getName(), savedDirectory.getPath(),
-                savedDirectory.getParent() != null ? savedDirectory.getParent().getId() : null);
-            
-            return savedDirectory;
-            
-        } catch (Exception e) {
-            log.error("디렉토리 생성 중 오류 발생 - 이름: {}, 부모 ID: {}", name, parentId, e);
-            throw e;
+            } catch (Exception e) {
+                log.error("디렉토리 생성 중 오류 발생 - 이름: {}, 부모 ID: {}", name, parentId, e);
+                throw e;
+            }
+        });
+    }
+
+    private Directory insertDirectory(String name, Long parentId) {
+        // 정렬 순서 결정 (형제 목록을 읽지 않고 인덱스로 최대값만 조회)
+        List<DirectoryChangeDto> changes = new ArrayList<>();
+        int sortOrder = resolveSortOrder(parentId, null, null, null, changes);
+
+        // 부모 디렉토리 조회
+        Directory parent = null;
+        if (parentId != null) {
+            parent = directoryRepository.findById(parentId)
+                    .orElseThrow(() -> {
+                        log.error("부모 디렉토리를 찾을 수 없음 - ID: {}", parentId);
+                        return new IllegalArgumentException("부모 디렉토리를 찾을 수 없습니다. ID: " + parentId);
+                    });
+            log.debug("부모 디렉토리 조회됨 - 이름: {}, 경로: {}", parent.getName(), parent.getPath());
         }
+        checkPathAvailable((parent != null ? parent.getPath() : "") + "/" + name.trim(), null);
+
+        // 디렉토리 생성
+        Directory directory = new Directory();
+        directory.setName(name.trim());
+        directory.setSortOrder(sortOrder);
+        
+        // 부모-자식 관계 설정 (부모의 자식 목록은 로딩하지 않음)
+        directory.changeParent(parent);
+        
+        // 저장
+        Directory savedDirectory = directoryRepository.saveAndFlush(directory);
+        changes.add(DirectoryChangedEvent.change(DirectoryChangedEvent.Type.CREATED, savedDirectory.getId(),
+            savedDirectory.getName(), null, parentId, sortOrder, null, savedDirectory.getPath()));
+        eventPublisher.publishEvent(new DirectoryChangedEvent(DirectoryChangedEvent.Type.CREATED, changes));
+        return savedDirectory;
+    }
+
+    /**
+     * NDJSON 입력으로 디렉토리 계층을 한 번에 가져오는 메소드
+     * 각 줄은 {"id": 임시 ID, "parentId": 부모 임시 ID, "name": 이름, "order": 순서} 형태이며,
+     * 부모 임시 ID가 없는 줄은 대상 디렉토리(parentId) 바로 아래에 생성됩니다.
+     * 
+     * 입력은 잠금 밖에서 한 줄씩 읽어 메모리에서 부모를 연결하고, 잘못된 줄과 그 하위 줄만 거부합니다.
+     * 이후 대상 디렉토리를 쓰기 잠금한 트랜잭션 하나에서 경로와 정렬 순서를 한 번에 계산하고,
+     * 얕은 단계부터 JDBC 배치로 생성합니다. 일부라도 실패하면 전체가 롤백됩니다.
+     * 생성 수가 변경 저널 크기를 넘으면 항목 대신 캐시와 저널을 초기화합니다.
+     * 
+     * @param parentId 가져오기 대상 디렉토리 ID (null이면 루트 아래)
+     * @param input NDJSON 입력 (UTF-8)
+     * @return 생성/거부 건수, 거부 사유, 처리 속도
+     * @throws IllegalArgumentException 대상 디렉토리가 존재하지 않는 경우
+     * @throws DirectoryConflictException 재시도 후에도 동시 변경과 충돌한 경우
+     */
+    public DirectoryImportResponse importDirectories(Long parentId, InputStream input) {
+        long startedAt = System.nanoTime();
+        log.info("디렉토리 일괄 가져오기 시작 - 대상 부모 ID: {}", parentId);
+        DirectoryImportPlan plan = DirectoryImportPlan.read(input, importRecordReader);
+        log.debug("가져오기 입력 읽기 완료 - 읽은 줄 수: {}, 거부 수: {}, 소요 시간: {}ms",
+            plan.getReceivedCount(), plan.getRejections().size(), (System.nanoTime() - startedAt) / 1_000_000);
+
+        DirectoryImportPlan.Layout layout = executeWrite(parentId,
+            hierarchy -> new DirectoryLockManager.LockSet().write(parentId).read(hierarchy.getAncestorIds(parentId)),
+            () -> insertImport(parentId, plan));
+        if (layout.getImportedCount() > DirectoryChangeJournal.CAPACITY) {
+            directoryTreeCache.invalidate();
+        }
+
+        List<DirectoryImportResponse.Rejection> rejections = new ArrayList<>(plan.getRejections());
+        rejections.addAll(layout.getRejections());
+        rejections.sort(Comparator.comparingInt(DirectoryImportResponse.Rejection::getLine));
+        DirectoryImportResponse response = new DirectoryImportResponse(parentId, plan.getReceivedCount(),
+            layout.getImportedCount(), rejections, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("디렉토리 일괄 가져오기 완료 - 생성 수: {}, 거부 수: {}, 소요 시간: {}ms, 초당 {}건",
+            response.getImportedCount(), response.getRejectedCount(), response.getElapsedMillis(),
+            response.getRowsPerSecond());
+        return response;
+    }
+
+    private DirectoryImportPlan.Layout insertImport(Long parentId, DirectoryImportPlan plan) {
+        String mountPath = "";
+        if (parentId != null) {
+            mountPath = directoryRepository.findNodeById(parentId)
+                .orElseThrow(() -> new IllegalArgumentException("부모 디렉토리를 찾을 수 없습니다. ID: " + parentId))
+                .getPath();
+        }
+        // 대상 디렉토리 바로 아래만 기존 디렉토리와 경로가 겹칠 수 있음 (더 아래는 모두 새로 만드는 디렉토리)
+        Set<String> existingPaths = directoryRepository.findSiblingNodes(parentId).stream()
+            .map(DirectoryNodeDto::getPath)
+            .collect(Collectors.toSet());
+        DirectoryImportPlan.Layout layout = plan.layout(mountPath, directoryRepository.findMaxSortOrder(parentId, null),
+            existingPaths);
+        int imported = layout.insert(parentId, IMPORT_BATCH_SIZE, directoryBatchRepository::insertNodes);
+        log.debug("가져오기 생성 완료 - 생성 수: {}, 경로 계산 단계 거부 수: {}", imported, layout.getRejections().size());
+
+        // 저널에 담을 수 있는 크기면 생성 항목으로 알리고, 넘으면 커밋 후 invalidate로 전체를 다시 받게 함
+        if (imported > 0 && imported <= DirectoryChangeJournal.CAPACITY) {
+            eventPublisher.publishEvent(new DirectoryChangedEvent(DirectoryChangedEvent.Type.CREATED,
+                layout.changes(parentId)));
+        }
+        return layout;
+    }
+
+    /**
+     * 전체 디렉토리 테이블을 스냅샷 파일 형식으로 내보내는 메소드
+     * DB에서 부모가 먼저 오는 순서로 한 행씩 읽어 바로 기록하므로 메모리 사용량이 일정합니다.
+     * 
+     * @return 응답 본문 기록 함수
+     */
+    public StreamingResponseBody exportSnapshot() {
+        log.debug("디렉토리 스냅샷 내보내기 요청");
+        return databaseGate.stream(out -> {
+            long startedAt = System.nanoTime();
+            long count = snapshotFile.write(out);
+            log.info("디렉토리 스냅샷 내보내기 완료 - 디렉토리 수: {}, 소요 시간: {}ms",
+                count, (System.nanoTime() - startedAt) / 1_000_000);
+        });
+    }
+
+    /**
+     * 업로드된 스냅샷으로 전체 디렉토리를 교체하는 메소드
+     * 본문을 임시 파일로 받은 뒤 파일 복원과 같은 방식으로 처리하고 임시 파일을 지웁니다.
+     * 
+     * @param input 스냅샷 파일 내용
+     * @return 삭제/복원 건수와 처리 속도
+     * @throws IllegalArgumentException 스냅샷 형식이 올바르지 않은 경우
+     */
+    public DirectoryRestoreResponse restoreSnapshot(InputStream input) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("directories-", ".snapshot");
+            Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            return restoreSnapshot(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷을 받지 못했습니다.", e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("임시 스냅샷 파일 삭제 실패 - {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 스냅샷 파일로 전체 디렉토리를 교체하는 메소드
+     * 파일을 메모리 매핑해 DB에 접근하기 전에 전체 구조를 검증하고,
+     * 모든 잠금을 잡은 트랜잭션 하나에서 기존 디렉토리를 지운 뒤 ID와 버전 그대로 JDBC 배치로 적재합니다.
+     * 엔티티를 거치지 않으며, 실패하면 기존 디렉토리가 그대로 남습니다.
+     * 복원 후에는 캐시와 변경 저널을 초기화하여 구독자가 전체 트리를 다시 받게 합니다.
+     * 
+     * @param file 스냅샷 파일
+     * @return 삭제/복원 건수와 처리 속도
+     * @throws IllegalArgumentException 스냅샷 형식이 올바르지 않거나 부모 참조가 맞지 않는 경우
+     */
+    public DirectoryRestoreResponse restoreSnapshot(Path file) {
+        long startedAt = System.nanoTime();
+        DirectorySnapshotFile.Snapshot snapshot = DirectorySnapshotFile.open(file);
+        log.info("디렉토리 스냅샷 복원 시작 - 파일: {}, 디렉토리 수: {}", file, snapshot.getCount());
+
+        int deleted = executeWrite(null, current -> new DirectoryLockManager.LockSet().writeAll(),
+            () -> replaceAll(snapshot.getMaxId(), snapshot::forEachBatch));
+        directoryTreeCache.invalidate();
+
+        DirectoryRestoreResponse response = new DirectoryRestoreResponse(deleted, snapshot.getCount(),
+            snapshot.getCreatedAt(), (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("디렉토리 스냅샷 복원 완료 - 삭제 수: {}, 복원 수: {}, 소요 시간: {}ms, 초당 {}건",
+            deleted, response.getRestoredCount(), response.getElapsedMillis(), response.getRowsPerSecond());
+        return response;
+    }
+
+    /**
+     * 합성 트리로 전체 디렉토리를 교체하는 메소드
+     * 스냅샷 복원과 같은 방식으로, 모든 잠금을 잡은 트랜잭션 하나에서 기존 디렉토리를 지우고
+     * 생성기가 만든 행을 엔티티 없이 JDBC 배치로 적재한 뒤 캐시와 변경 저널을 초기화합니다.
+     * 
+     * @param generator 트리 생성기
+     * @return 삭제/생성 건수와 처리 속도 (생성 건수는 restoredCount, 생성 시각은 snapshotCreatedAt)
+     */
+    public DirectoryRestoreResponse generateTree(DirectoryTreeGenerator generator) {
+        long startedAt = System.nanoTime();
+        log.info("합성 디렉토리 트리 생성 시작 - 디렉토리 수: {}", generator.getCount());
+
+        int deleted = executeWrite(null, current -> new DirectoryLockManager.LockSet().writeAll(),
+            () -> replaceAll(generator.getMaxId(), generator::forEachBatch));
+        directoryTreeCache.invalidate();
+
+        DirectoryRestoreResponse response = new DirectoryRestoreResponse(deleted, generator.getCount(),
+            System.currentTimeMillis(), (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("합성 디렉토리 트리 생성 완료 - 삭제 수: {}, 생성 수: {}, 소요 시간: {}ms, 초당 {}건",
+            deleted, response.getRestoredCount(), response.getElapsedMillis(), response.getRowsPerSecond());
+        return response;
+    }
+
+    /**
+     * 기존 디렉토리를 모두 지우고 부모가 먼저 오는 순서의 행을 ID 그대로 배치 적재합니다.
+     * 
+     * @param maxId 적재할 행 중 가장 큰 ID
+     * @param batches 배치 크기와 배치 처리 함수를 받아 행을 넘겨주는 함수
+     * @return 삭제된 디렉토리 수
+     */
+    private int replaceAll(long maxId, BiConsumer<Integer, Consumer<List<DirectoryNodeDto>>> batches) {
+        // 교체가 롤백되어도 기존 ID와 겹치지 않도록 양쪽 중 큰 값 다음부터 발급
+        directoryBatchRepository.restartIdentity(Math.max(maxId, directoryBatchRepository.findMaxId()) + 1);
+        int deleted = directoryBatchRepository.deleteAll();
+        try {
+            batches.accept(RESTORE_BATCH_SIZE, directoryBatchRepository::insertRestored);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("스냅샷의 ID, 부모 참조 또는 경로가 올바르지 않습니다.", e);
+        }
+        entityManager.clear();
+        return deleted;
     }
 
     /**
@@ -211,12 +919,63 @@ public class DirectoryService {
      * @param id 이동할 디렉토리 ID
      * @param newParentId 새로운 부모 디렉토리 ID
      * @param newSortOrder 새로운 정렬 순서
+     * @param expectedVersion 클라이언트가 본 디렉토리 버전 (선택, 다르면 충돌)
      * @throws IllegalArgumentException 디렉토리가 존재하지 않거나 순환 참조가 발생하는 경우
+     * @throws DirectoryConflictException 요청한 버전이 현재 버전과 다르거나 재시도 후에도 충돌한 경우
      */
-    @Transactional
-    public void moveDirectory(Long id, Long newParentId, int newSortOrder) {
-        log.debug("디렉토리 이동 시작 - ID: {}, 새 부모 ID: {}, 새 정렬 순서: {}", id, newParentId, newSortOrder);
-        
+    public void moveDirectory(Long id, Long newParentId, int newSortOrder, Long expectedVersion) {
+        metrics.record("move", () -> {
+            log.debug("디렉토리 이동 시작 - ID: {}, 새 부모 ID: {}, 새 정렬 순서: {}", id, newParentId, newSortOrder);
+            executeWrite(id, hierarchy -> moveLocks(hierarchy, id, newParentId),
+                () -> applyMove(id, newParentId, changes -> newSortOrder, expectedVersion));
+        });
+    }
+
+    /**
+     * 디렉토리를 지정한 형제 바로 앞/뒤(또는 맨 끝)로 이동하는 메소드
+     * 두 형제 사이의 빈 정렬 값을 사용하므로 같은 부모 안에서의 순서 변경은 한 행만 수정합니다.
+     * 
+     * @param id 이동할 디렉토리 ID
+     * @param newParentId 새로운 부모 디렉토리 ID (루트면 null)
+     * @param afterId 이 형제 바로 뒤에 배치 (선택)
+     * @param beforeId 이 형제 바로 앞에 배치 (선택, afterId가 없을 때 사용)
+     * @param expectedVersion 클라이언트가 본 디렉토리 버전 (선택, 다르면 충돌)
+     * @throws IllegalArgumentException 디렉토리가 존재하지 않거나 기준 형제가 대상 부모 아래에 없는 경우
+     * @throws DirectoryConflictException 요청한 버전이 현재 버전과 다르거나 재시도 후에도 충돌한 경우
+     */
+    public void moveDirectory(Long id, Long newParentId, Long afterId, Long beforeId, Long expectedVersion) {
+        metrics.record("move", () -> {
+            log.debug("디렉토리 이동 시작 - ID: {}, 새 부모 ID: {}, afterId: {}, beforeId: {}", id, newParentId, afterId, beforeId);
+            executeWrite(id, hierarchy -> moveLocks(hierarchy, id, newParentId),
+                () -> applyMove(id, newParentId,
+                    changes -> resolveSortOrder(newParentId, id, afterId, beforeId, changes), expectedVersion));
+        });
+    }
+
+    /**
+     * 이동할 디렉토리(하위 트리 전체)와 새 부모(형제 순서)는 쓰기 잠금, 양쪽 조상은 읽기 잠금
+     */
+    private static DirectoryLockManager.LockSet moveLocks(DirectoryHierarchyIndex hierarchy, Long id, Long newParentId) {
+        return new DirectoryLockManager.LockSet()
+            .write(id)
+            .write(newParentId)
+            .read(hierarchy.getAncestorIds(id))
+            .read(hierarchy.getAncestorIds(newParentId));
+    }
+
+    private Void applyMove(Long id, Long newParentId, ToIntFunction<List<DirectoryChangeDto>> sortOrderResolver,
+                           Long expectedVersion) {
+        // 정렬 값 재배치가 일어나면 버전이 바뀌므로 버전 확인을 먼저 수행
+        if (expectedVersion != null) {
+            Long currentVersion = directoryRepository.findVersionById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + id));
+            if (!expectedVersion.equals(currentVersion)) {
+                throw new DirectoryConflictException("다른 사용자가 먼저 변경한 디렉토리입니다. ID: " + id, id, currentVersion);
+            }
+        }
+        List<DirectoryChangeDto> changes = new ArrayList<>();
+        int newSortOrder = sortOrderResolver.applyAsInt(changes);
+
         Directory directory = directoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + id));
         log.debug("이동할 디렉토리 조회됨 - 이름: {}, 현재 경로: {}", directory.getName(), directory.getPath());
@@ -227,85 +986,279 @@ public class DirectoryService {
             newParent = directoryRepository.findById(newParentId)
                     .orElseThrow(() -> new IllegalArgumentException("Parent directory not found with id: " + newParentId));
             
-            // 순환 참조 체크
-            Directory current = newParent;
-            while (current != null) {
-                if (current.getId().equals(id)) {
-                    throw new IllegalArgumentException("Cannot move a directory to its own subdirectory");
-                }
-                current = current.getParent();
+            // 순환 참조 체크 (DB를 조회하지 않고 트리 스냅샷이나 계층 색인으로 판별)
+            if (newParentId.equals(id) || isAncestor(id, newParentId)) {
+                throw new IllegalArgumentException("Cannot move a directory to its own subdirectory");
             }
             log.debug("새 부모 디렉토리 조회됨 - 이름: {}, 경로: {}", newParent.getName(), newParent.getPath());
         }
+        checkPathAvailable((newParent != null ? newParent.getPath() : "") + "/" + directory.getName(), id);
+
+        String oldPath = directory.getPath();
+        Long oldParentId = directory.getParent() != null ? directory.getParent().getId() : null;
 
         // 정렬 순서 설정
         directory.setSortOrder(newSortOrder);
         
-        // 부모 설정 (이 메서드 내에서 자동으로 이전 부모에서 제거하고 새 부모에 추가함)
-        directory.setParent(newParent);
+        // 부모 설정 (형제 목록을 로딩하지 않도록 부모 참조와 경로만 변경)
+        directory.changeParent(newParent);
         
         // 저장
         directoryRepository.save(directory);
         
         // 하위 디렉토리들의 경로도 업데이트
-        updateChildrenPaths(directory);
+        updateChildrenPaths(directory.getId(), oldPath, directory.getPath());
+        changes.add(DirectoryChangedEvent.change(DirectoryChangedEvent.Type.MOVED, id, directory.getName(),
+            oldParentId, newParentId, newSortOrder, oldPath, directory.getPath()));
+        eventPublisher.publishEvent(new DirectoryChangedEvent(DirectoryChangedEvent.Type.MOVED, changes));
         
         log.debug("디렉토리 이동 완료 - 새 경로: {}", directory.getPath());
+        return null;
+    }
+
+    /**
+     * 새 위치의 정렬 순서를 결정합니다.
+     * 앞뒤 형제 사이에 빈 값이 없으면 해당 부모의 형제들을 간격을 두고 다시 매긴 뒤 한 번 더 계산합니다.
+     * 다시 매긴 형제들의 정렬 순서는 변경 저널 항목으로 추가합니다.
+     *
+     * @throws IllegalStateException 다시 매긴 뒤에도 정수 범위 안에 빈 값이 없는 경우
+     */
+    private int resolveSortOrder(Long parentId, Long movingId, Long afterId, Long beforeId,
+                                 List<DirectoryChangeDto> changes) {
+        Integer sortOrder = findFreeSortOrder(parentId, movingId, afterId, beforeId);
+        if (sortOrder == null) {
+            int rebalanced = directoryRepository.rebalanceSortOrders(parentId, SORT_ORDER_GAP);
+            log.debug("정렬 순서 재배치 - 부모 ID: {}, 재배치된 디렉토리 수: {}", parentId, rebalanced);
+            for (DirectoryNodeDto sibling : directoryRepository.findSiblingNodes(parentId)) {
+                changes.add(DirectoryChangedEvent.change(DirectoryChangedEvent.Type.REORDERED, sibling.getId(),
+                    sibling.getName(), parentId, parentId, sibling.getSortOrder(), sibling.getPath(), sibling.getPath()));
+            }
+            sortOrder = findFreeSortOrder(parentId, movingId, afterId, beforeId);
+            if (sortOrder == null) {
+                // 재배치 후에도 빈 값이 없으면 형제 수가 정렬 순서 범위(간격 SORT_ORDER_GAP)를 넘은 경우
+                throw new IllegalStateException("정렬 순서를 배정할 수 없습니다. 부모 ID: " + parentId
+                    + ", 재배치된 디렉토리 수: " + rebalanced);
+            }
+        }
+        return sortOrder;
+    }
+
+    /**
+     * 인덱스 조회로 앞뒤 형제의 정렬 순서만 읽어 그 사이 값을 계산합니다.
+     *
+     * @return 사용할 정렬 순서 (사이에 빈 값이 없으면 null)
+     */
+    private Integer findFreeSortOrder(Long parentId, Long movingId, Long afterId, Long beforeId) {
+        if (afterId != null) {
+            DirectoryNodeDto previous = findSibling(afterId, parentId, movingId);
+            DirectoryNodeDto next = first(directoryRepository.findSiblingsAfter(
+                parentId, previous.getSortOrder(), previous.getId(), movingId, Limit.of(1)));
+            return between(previous.getSortOrder(), next == null ? null : next.getSortOrder());
+        }
+        if (beforeId != null) {
+            DirectoryNodeDto next = findSibling(beforeId, parentId, movingId);
+            DirectoryNodeDto previous = first(directoryRepository.findSiblingsBefore(
+                parentId, next.getSortOrder(), next.getId(), movingId, Limit.of(1)));
+            return between(previous == null ? null : previous.getSortOrder(), next.getSortOrder());
+        }
+        return between(directoryRepository.findMaxSortOrder(parentId, movingId), null);
+    }
+
+    private DirectoryNodeDto findSibling(Long siblingId, Long parentId, Long movingId) {
+        if (siblingId.equals(movingId)) {
+            throw new IllegalArgumentException("이동할 디렉토리 자신을 기준으로 배치할 수 없습니다.");
+        }
+        DirectoryNodeDto sibling = directoryRepository.findNodeById(siblingId)
+            .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + siblingId));
+        if (!Objects.equals(sibling.getParentId(), parentId)) {
+            throw new IllegalArgumentException("기준 디렉토리가 대상 부모의 하위 디렉토리가 아닙니다. ID: " + siblingId);
+        }
+        return sibling;
     }
 
-    private void updateDirectoryPath(Directory directory) {
-        Directory parent = directory.getParent();
-        String newPath = parent == null ? "/" + directory.getName() : parent.getPath() + "/" + directory.getName();
-        directory.setPath(newPath);
-        log.debug("디렉토리 경로 업데이트 - ID: {}, 새 경로: {}", directory.getId(), newPath);
+    private static DirectoryNodeDto first(List<DirectoryNodeDto> nodes) {
+        return nodes.isEmpty() ? null : nodes.get(0);
     }
 
-    private void updateChildrenPaths(Directory parent) {
-        Directory refreshedParent = directoryRepository.findById(parent.getId())
-            .orElseThrow(() -> new IllegalArgumentException("Parent directory not found with id: " + parent.getId()));
-        List<Directory> children = directoryRepository.findByParentOrderBySortOrder(refreshedParent);
-        for (Directory child : children) {
-            updateDirectoryPath(child);
-            directoryRepository.save(child);
-            log.debug("하위 디렉토리 경로 업데이트 - ID: {}, 새 경로: {}", child.getId(), child.getPath());
-            updateChildrenPaths(child);
+    /**
+     * 두 정렬 값 사이의 중간값을 계산합니다. 한쪽이 없으면 간격(SORT_ORDER_GAP)만큼 떨어진 값을 사용합니다.
+     *
+     * @return 중간값 (사이에 빈 값이 없거나 int 범위를 벗어나면 null)
+     */
+    private static Integer between(Integer previous, Integer next) {
+        long low = previous != null ? previous : (next != null ? (long) next - 2L * SORT_ORDER_GAP : 0L);
+        long high = next != null ? next : low + 2L * SORT_ORDER_GAP;
+        if (high - low < 2) {
+            return null;
+        }
+        long middle = low + (high - low) / 2;
+        if (middle < Integer.MIN_VALUE || middle > Integer.MAX_VALUE) {
+            return null;
         }
+        return (int) middle;
     }
 
     /**
-     * 디렉토리를 삭제하는 메소드
+     * 새 경로를 다른 디렉토리가 이미 쓰고 있으면 충돌로 처리합니다.
+     * 부모를 쓰기 잠금한 상태에서 호출하므로 확인과 저장 사이에 같은 경로가 생기지 않으며,
+     * 경로 유니크 인덱스가 마지막 방어선 역할을 합니다.
+     *
+     * @param path 새 경로
+     * @param movingId 옮기는 디렉토리 ID (생성이면 null, 자신의 현재 경로는 충돌로 보지 않음)
+     * @throws DirectoryConflictException 같은 경로의 디렉토리가 이미 있는 경우
+     */
+    private void checkPathAvailable(String path, Long movingId) {
+        Optional<DirectoryNodeDto> existing = directoryRepository.findNodeByPath(path);
+        if (existing.isPresent() && !existing.get().getId().equals(movingId)) {
+            throw new DirectoryConflictException("같은 경로의 디렉토리가 이미 있습니다: " + path,
+                existing.get().getId(), existing.get().getVersion());
+        }
+    }
+
+    /**
+     * 하위 디렉토리들의 경로를 이전 경로 접두사 기준으로 일괄 갱신합니다.
+     * 하위 트리 크기와 관계없이 SQL 문 한 번으로 처리됩니다.
+     * 일괄 갱신 후 영속성 컨텍스트는 비워집니다.
+     *
+     * @param id 이동한 디렉토리 ID
+     * @param oldPath 이동 전 경로
+     * @param newPath 이동 후 경로
+     */
+    private void updateChildrenPaths(Long id, String oldPath, String newPath) {
+        if (oldPath == null || oldPath.equals(newPath)) {
+            return;
+        }
+        int updated = directoryRepository.rewriteDescendantPaths(id, oldPath, newPath);
+        metrics.recordSubtreeRows("move", updated);
+        log.debug("하위 디렉토리 경로 일괄 업데이트 - ID: {}, {} -> {}, 갱신 수: {}", id, oldPath, newPath, updated);
+    }
+
+    /**
+     * 디렉토리를 하위 디렉토리까지 포함해 삭제하는 메소드
+     * 하위 트리 전체를 한 번의 쿼리로 조회한 뒤, 깊이가 깊은 항목부터
+     * 같은 깊이끼리 묶어 일괄 삭제합니다.
+     * 삭제하는 동안 해당 하위 트리 안으로의 이동/생성은 잠금으로 대기합니다.
      * 
      * @param id 삭제할 디렉토리 ID
+     * @return 삭제된 디렉토리 수 (자신 포함)
      * @throws IllegalArgumentException 디렉토리가 존재하지 않는 경우
      */
-    @Transactional
-    public void deleteDirectory(Long id) {
-        log.debug("디렉토리 삭제 시작 - ID: {}", id);
-        
-        Directory directory = directoryRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + id));
-        
-        // 하위 디렉토리가 있는지 확인
-        Directory refreshedDirectory = directoryRepository.findById(id)
+    public int deleteDirectory(Long id) {
+        return metrics.record("delete", () -> {
+            log.debug("디렉토리 삭제 시작 - ID: {}", id);
+            return executeWrite(id,
+                hierarchy -> new DirectoryLockManager.LockSet().write(id).read(hierarchy.getAncestorIds(id)),
+                () -> deleteSubtree(id));
+        });
+    }
+
+    private int deleteSubtree(Long id) {
+        DirectoryNodeDto target = directoryRepository.findNodeById(id)
             .orElseThrow(() -> new IllegalArgumentException("Directory not found with id: " + id));
-        List<Directory> children = directoryRepository.findByParentOrderBySortOrder(refreshedDirectory);
-        if (!children.isEmpty()) {
-            log.debug("하위 디렉토리가 있어 재귀적으로 삭제 - 하위 디렉토리 수: {}", children.size());
-            for (Directory child : children) {
-                deleteDirectory(child.getId());
+        List<DirectoryRepository.SubtreeEntry> subtree = directoryRepository.findSubtreeLeafFirst(id);
+        log.debug("삭제할 하위 트리 조회됨 - 디렉토리 수: {}", subtree.size());
+        
+        // 같은 깊이의 디렉토리끼리는 서로 참조하지 않으므로 한 문장으로 삭제 가능
+        List<Long> batch = new ArrayList<>();
+        Integer batchDepth = null;
+        for (DirectoryRepository.SubtreeEntry entry : subtree) {
+            if (!entry.getDepth().equals(batchDepth) || batch.size() >= DELETE_BATCH_SIZE) {
+                deleteBatch(batch);
+                batchDepth = entry.getDepth();
             }
+            batch.add(entry.getId());
         }
+        deleteBatch(batch);
+        // 하위 디렉토리는 따로 기록하지 않음 (삭제 항목 하나가 하위 트리 전체를 뜻함)
+        eventPublisher.publishEvent(new DirectoryChangedEvent(DirectoryChangedEvent.Type.DELETED,
+            List.of(DirectoryChangedEvent.change(DirectoryChangedEvent.Type.DELETED, id, target.getName(),
+                target.getParentId(), null, target.getSortOrder(), target.getPath(), null))));
         
-        // 부모 디렉토리에서 제거
-        Directory parent = directory.getParent();
-        if (parent != null) {
-            parent.getChildren().remove(directory);
-            directoryRepository.save(parent);
-            log.debug("부모 디렉토리에서 제거됨 - 부모 ID: {}", parent.getId());
+        metrics.recordSubtreeRows("delete", subtree.size());
+        log.debug("디렉토리 삭제 완료 - ID: {}, 삭제된 디렉토리 수: {}", id, subtree.size());
+        return subtree.size();
+    }
+
+    private void deleteBatch(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
         }
-        
-        // 디렉토리 삭제
-        directoryRepository.delete(directory);
-        log.debug("디렉토리 삭제 완료 - ID: {}", id);
+        directoryRepository.deleteAllByIdInBatch(ids);
+        log.debug("디렉토리 일괄 삭제 - 삭제 수: {}", ids.size());
+        ids.clear();
+    }
+
+    /**
+     * 변경 작업을 하위 트리 잠금과 쓰기 트랜잭션 안에서 실행합니다.
+     * 1. 계층 색인으로 잠글 대상(변경 대상은 쓰기, 조상은 읽기)을 계산해 잠금
+     *    (계층 색인은 커밋 직후 잠금을 놓기 전에 갱신되므로, 잠금을 얻은 시점에는 앞선 변경이 모두 반영되어 있음)
+     * 2. 잠금을 기다리는 동안 조상이 바뀌어 잡은 잠금으로 부족하면 잠금 대상을 다시 계산 (최대 MAX_LOCK_REFRESHES번)
+     * 3. DB 작업 허가를 받은 뒤 트랜잭션을 시작하고, 커밋 직전에 변경을 반영(flush)한 뒤 이번 시도의 SQL 예산을 검사,
+     *    커밋한 뒤(변경 저널과 색인 반영 포함) 허가와 잠금 해제
+     * 4. 트리 스냅샷 공개는 기다리지 않고 반환 (재생성은 별도 스레드, 커밋한 저널 순번은 takeCommittedSequence로 확인)
+     * 동시 변경 충돌(버전 불일치, 잠금 대기 시간 초과)은 최대 MAX_WRITE_ATTEMPTS번까지 처음부터 다시 시도하고,
+     * 그래도 실패하면 현재 버전을 담은 DirectoryConflictException을 던집니다.
+     *
+     * @param directoryId 충돌 시 현재 버전을 알려줄 기본 디렉토리 ID
+     * @param lockSetBuilder 계층 색인으로 잠글 대상을 계산하는 함수
+     * @param action 트랜잭션 안에서 실행할 작업
+     * @return 작업 결과
+     */
+    private <T> T executeWrite(Long directoryId,
+                               Function<DirectoryHierarchyIndex, DirectoryLockManager.LockSet> lockSetBuilder,
+                               Supplier<T> action) {
+        ConcurrencyFailureException lastFailure = null;
+        int attempt = 0;
+        int refreshes = 0;
+        // 앞선 요청이 남긴 순번이 이번 변경의 순번으로 보이지 않도록 지움
+        directoryTreeCache.takeCommittedSequence();
+        while (attempt < MAX_WRITE_ATTEMPTS && refreshes <= MAX_LOCK_REFRESHES) {
+            DirectoryHierarchyIndex hierarchy = directoryTreeCache.getHierarchyIndex();
+            DirectoryLockManager.LockSet lockSet = lockSetBuilder.apply(hierarchy);
+            T result;
+            try (DirectoryLockManager.Lease lease = directoryLockManager.acquire(lockSet)) {
+                if (!lockSet.covers(lockSetBuilder.apply(hierarchy))) {
+                    refreshes++;
+                    log.debug("잠금 대기 중 조상 디렉토리가 변경됨 - 잠금 대상 재계산 {}/{}", refreshes, MAX_LOCK_REFRESHES);
+                    continue;
+                }
+                // 예산은 시도마다 따로 검사 (충돌로 실패한 시도의 문장은 다시 시도한 작업의 예산에 넣지 않음)
+                result = metrics.recordAttempt(() -> databaseGate.call(() -> writeTransaction.execute(status -> {
+                    T value = action.get();
+                    // 변경 문장까지 실행한 뒤 커밋 전에 예산을 검사해야 초과 시 롤백됨
+                    status.flush();
+                    metrics.checkSqlBudget();
+                    return value;
+                })));
+            } catch (ConcurrencyFailureException e) {
+                lastFailure = e;
+                attempt++;
+                log.debug("동시 변경 충돌 - 재시도 {}/{}: {}", attempt, MAX_WRITE_ATTEMPTS, e.getMessage());
+                continue;
+            }
+            return result;
+        }
+
+        Long conflictId = directoryId;
+        if (lastFailure instanceof ObjectOptimisticLockingFailureException
+                && ((ObjectOptimisticLockingFailureException) lastFailure).getIdentifier() instanceof Long) {
+            conflictId = (Long) ((ObjectOptimisticLockingFailureException) lastFailure).getIdentifier();
+        }
+        Long currentVersion = conflictId == null ? null : directoryRepository.findVersionById(conflictId).orElse(null);
+        log.warn("동시 변경 충돌로 작업 실패 - ID: {}, 현재 버전: {}", conflictId, currentVersion);
+        throw new DirectoryConflictException("동시에 변경된 디렉토리입니다. 다시 시도해 주세요. ID: " + conflictId,
+            conflictId, currentVersion);
+    }
+
+    /**
+     * DB를 읽는 조회 작업을 DB 작업 허가와 읽기 전용 트랜잭션 안에서 실행합니다.
+     * 허가를 받은 뒤에 커넥션을 잡으므로, 요청이 몰려도 커넥션 풀 앞에서 한없이 기다리지 않습니다.
+     *
+     * @param action 트랜잭션 안에서 실행할 작업
+     * @return 작업 결과
+     * @throws DirectoryBusyException 대기 제한 시간 안에 허가를 받지 못한 경우
+     */
+    private <T> T executeRead(Supplier<T> action) {
+        return databaseGate.call(() -> readTransaction.execute(status -> action.get()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,268 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryNodeDto;
+import com.dropand.repository.DirectoryStreamRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 디렉토리 테이블 스냅샷 파일을 쓰고 읽는 클래스
+ *
+ * 주요 기능:
+ * 1. 전체 디렉토리를 DB에서 한 행씩 읽어 필드 이름 없는 바이너리 레코드로 바로 기록 (메모리 사용량 일정)
+ * 2. 스냅샷 파일을 메모리 매핑하여 복사 없이 전체 구조를 먼저 검증
+ * 3. 검증된 파일을 배치 단위의 행 목록으로 넘겨 일괄 적재에 사용
+ *
+ * 파일 형식 (모든 정수는 리틀 엔디언):
+ * <pre>
+ * "DRSN" | int32 형식 버전(1) | int64 생성 시각(밀리초)
+ * 레코드 반복: int64 id | int64 parentId(루트는 0) | int32 sortOrder | int64 version
+ *             | int32 이름 길이 | 이름(UTF-8) | int32 경로 길이 | 경로(UTF-8)
+ * int64 -1(레코드 끝) | int64 레코드 수
+ * </pre>
+ * 레코드는 부모가 항상 자식보다 먼저 오는 순서로 기록되므로 그대로 INSERT할 수 있습니다.
+ * 끝의 레코드 수로 중간에 잘린 파일을 가려냅니다.
+ */
+@Component
+public class DirectorySnapshotFile {
+
+    /**
+     * 스냅샷 파일 형식 버전
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = {'D', 'R', 'S', 'N'};
+
+    private static final int HEADER_SIZE = MAGIC.length + Integer.BYTES + Long.BYTES;
+
+    /**
+     * 레코드의 고정 길이 부분 (id, parentId, sortOrder, version, 이름 길이)
+     */
+    private static final int FIXED_RECORD_SIZE = Long.BYTES * 3 + Integer.BYTES * 2;
+
+    private static final long END_OF_RECORDS = -1L;
+
+    /**
+     * 기록용 버퍼 크기 (가득 차면 응답으로 내보냄)
+     */
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final DirectoryStreamRepository directoryStreamRepository;
+
+    public DirectorySnapshotFile(DirectoryStreamRepository directoryStreamRepository) {
+        this.directoryStreamRepository = directoryStreamRepository;
+    }
+
+    /**
+     * 전체 디렉토리를 스냅샷 형식으로 기록합니다.
+     * 조회 문장 하나로 읽으므로 기록되는 내용은 조회 시점의 일관된 상태입니다.
+     *
+     * @param out 출력 스트림
+     * @return 기록한 디렉토리 수
+     * @throws IOException 기록에 실패한 경우
+     */
+    public long write(OutputStream out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC).putInt(FORMAT_VERSION).putLong(System.currentTimeMillis());
+        long[] count = {0};
+        try {
+            directoryStreamRepository.forEachNodeParentsFirst(node -> {
+                byte[] name = node.getName().getBytes(StandardCharsets.UTF_8);
+                byte[] path = node.getPath().getBytes(StandardCharsets.UTF_8);
+                ensure(buffer, out, FIXED_RECORD_SIZE + name.length + Integer.BYTES + path.length);
+                buffer.putLong(node.getId())
+                    .putLong(node.getParentId() != null ? node.getParentId() : 0L)
+                    .putInt(node.getSortOrder())
+                    .putLong(node.getVersion())
+                    .putInt(name.length).put(name)
+                    .putInt(path.length).put(path);
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        ensure(buffer, out, Long.BYTES * 2);
+        buffer.putLong(END_OF_RECORDS).putLong(count[0]);
+        out.write(buffer.array(), 0, buffer.position());
+        out.flush();
+        return count[0];
+    }
+
+    private static void ensure(ByteBuffer buffer, OutputStream out, int size) {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        if (size > buffer.capacity()) {
+            throw new IllegalStateException("스냅샷 레코드가 버퍼보다 큽니다. 크기: " + size);
+        }
+        try {
+            out.write(buffer.array(), 0, buffer.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 스냅샷 파일을 메모리 매핑하고 전체 구조를 검증합니다. DB에는 접근하지 않습니다.
+     *
+     * @param file 스냅샷 파일
+     * @return 검증된 스냅샷
+     * @throws IllegalArgumentException 파일 형식이 올바르지 않은 경우
+     * @throws UncheckedIOException 파일을 읽지 못한 경우
+     */
+    public static Snapshot open(Path file) {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("스냅샷 파일이 너무 큽니다. 크기: " + channel.size());
+            }
+            // 매핑은 채널을 닫아도 유지됨
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 파일을 열지 못했습니다: " + file, e);
+        }
+        return Snapshot.validate(buffer);
+    }
+
+    /**
+     * 검증된 스냅샷 파일 (메모리 매핑된 내용)
+     */
+    public static final class Snapshot {
+        private final ByteBuffer buffer;
+        private final long createdAt;
+        private final int count;
+        private final long maxId;
+
+        private Snapshot(ByteBuffer buffer, long createdAt, int count, long maxId) {
+            this.buffer = buffer;
+            this.createdAt = createdAt;
+            this.count = count;
+            this.maxId = maxId;
+        }
+
+        private static Snapshot validate(ByteBuffer buffer) {
+            ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            if (view.remaining() < HEADER_SIZE + Long.BYTES * 2) {
+                throw invalid("파일이 너무 짧습니다.");
+            }
+            byte[] magic = new byte[MAGIC.length];
+            view.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw invalid("스냅샷 파일이 아닙니다.");
+            }
+            int formatVersion = view.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw invalid("지원하지 않는 형식 버전입니다: " + formatVersion);
+            }
+            long createdAt = view.getLong();
+
+            int count = 0;
+            long maxId = 0;
+            while (true) {
+                if (view.remaining() < Long.BYTES) {
+                    throw invalid("레코드 끝 표시가 없습니다.");
+                }
+                long id = view.getLong();
+                if (id == END_OF_RECORDS) {
+                    break;
+                }
+                if (id <= 0 || view.remaining() < FIXED_RECORD_SIZE - Long.BYTES) {
+                    throw invalid((count + 1) + "번째 레코드가 올바르지 않습니다.");
+                }
+                view.position(view.position() + Long.BYTES * 2 + Integer.BYTES);
+                skipString(view, count);
+                if (view.remaining() < Integer.BYTES) {
+                    throw invalid((count + 1) + "번째 레코드가 잘렸습니다.");
+                }
+                skipString(view, count);
+                maxId = Math.max(maxId, id);
+                count++;
+            }
+            if (view.remaining() != Long.BYTES || view.getLong() != count) {
+                throw invalid("레코드 수가 맞지 않습니다. 읽은 수: " + count);
+            }
+            return new Snapshot(buffer, createdAt, count, maxId);
+        }
+
+        private static void skipString(ByteBuffer view, int index) {
+            int length = view.getInt();
+            if (length <= 0 || length > view.remaining()) {
+                throw invalid((index + 1) + "번째 레코드의 문자열 길이가 올바르지 않습니다.");
+            }
+            view.position(view.position() + length);
+        }
+
+        private static IllegalArgumentException invalid(String reason) {
+            return new IllegalArgumentException("스냅샷 파일 형식이 올바르지 않습니다: " + reason);
+        }
+
+        /**
+         * 레코드를 파일 순서(부모가 먼저)대로 batchSize건씩 넘깁니다.
+         *
+         * @param batchSize 한 번에 넘길 최대 건수
+         * @param consumer 배치마다 호출할 처리 함수 (넘긴 목록은 호출 후 재사용하지 않음)
+         */
+        public void forEachBatch(int batchSize, Consumer<List<DirectoryNodeDto>> consumer) {
+            ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            view.position(HEADER_SIZE);
+            List<DirectoryNodeDto> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < count; i++) {
+                long id = view.getLong();
+                long parentId = view.getLong();
+                int sortOrder = view.getInt();
+                long version = view.getLong();
+                String name = readString(view);
+                String path = readString(view);
+                batch.add(new DirectoryNodeDto(id, parentId == 0 ? null : parentId, name, path, sortOrder, version));
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+        }
+
+        private static String readString(ByteBuffer view) {
+            byte[] bytes = new byte[view.getInt()];
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return 스냅샷을 만든 시각 (밀리초)
+         */
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        /**
+         * @return 디렉토리 수
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return 가장 큰 디렉토리 ID
+         */
+        public long getMaxId() {
+            return maxId;
+        }
+    }
+}
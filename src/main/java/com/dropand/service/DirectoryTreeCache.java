@@ -0,0 +1,323 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryNodeDto;
+import com.dropand.repository.DirectoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 디렉토리 트리 읽기 전용 캐시 클래스
+ *
+ * 주요 기능:
+ * 1. 디렉토리 트리를 불변 스냅샷으로 보관
+ * 2. 읽기는 참조 하나만 읽으므로 잠금 없이 처리 (DB 접근 없음)
+ * 3. 변경 트랜잭션이 커밋된 직후 변경 저널에 기록하고 경로 색인과 계층 색인에 변경 항목만 반영 (변경 크기에 비례)
+ * 4. 새 스냅샷은 별도 스레드 하나가 만들어 참조를 교체 (그동안 쌓인 커밋을 한 번에 반영)
+ * 5. 새 스냅샷을 공개한 뒤 그 스냅샷에 담긴 변경 내용을 SSE 구독자에게 전달 (이벤트를 받은 클라이언트가 다시 조회하면 반영된 트리를 받음)
+ * 6. 변경 작업은 스냅샷 공개를 기다리지 않고 커밋한 변경의 저널 순번을 알려주며,
+ *    그 순번이 담긴 트리가 필요한 클라이언트만 공개될 때까지 기다림
+ *
+ * 전체 테이블을 다시 읽는 스냅샷 재생성이 변경 작업 밖에서 실행되므로,
+ * 변경 작업의 응답 시간은 트리 크기와 관계없이 변경 크기에만 비례합니다.
+ * 잠금 대상 계산처럼 커밋 직후의 계층이 필요한 곳은 스냅샷 대신 계층 색인을 사용합니다.
+ */
+@Component
+public class DirectoryTreeCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryTreeCache.class);
+
+    /**
+     * 조회 요청이 지정한 저널 순번이 담긴 스냅샷 공개를 기다리는 최대 시간 (밀리초)
+     */
+    private static final long PUBLISH_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * 현재 스레드가 마지막으로 커밋한 변경의 저널 순번 (응답에 담은 뒤 지움)
+     */
+    private static final ThreadLocal<Long> COMMITTED_SEQUENCE = new ThreadLocal<>();
+
+    private final DirectoryRepository directoryRepository;
+    private final DirectoryChangeJournal changeJournal;
+    private final DirectoryChangeBroadcaster changeBroadcaster;
+    private final DirectoryPathIndex pathIndex;
+    private final DirectoryHierarchyIndex hierarchyIndex;
+    private final TransactionTemplate readOnlyTransaction;
+
+    /**
+     * 현재 공개된 스냅샷
+     */
+    private final AtomicReference<DirectoryTreeSnapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * 커밋된 변경 횟수 (스냅샷 버전의 기준)
+     */
+    private final AtomicLong committedVersion = new AtomicLong();
+
+    /**
+     * 스냅샷을 다시 만드는 스레드 (하나뿐이므로 재생성이 겹치지 않음)
+     */
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "directory-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 재생성 작업이 이미 예약되어 있으면 true (예약된 작업이 시작되기 전의 커밋은 모두 그 작업이 함께 반영)
+     */
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    /**
+     * 스냅샷 재생성을 한 번에 하나씩 실행하기 위한 잠금
+     * 재생성은 DB를 읽으므로 가상 스레드가 기다려도 캐리어 스레드를 붙잡지 않도록 synchronized 대신 사용합니다.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final Condition published = publishLock.newCondition();
+
+    public DirectoryTreeCache(DirectoryRepository directoryRepository,
+                              DirectoryChangeJournal changeJournal,
+                              DirectoryChangeBroadcaster changeBroadcaster,
+                              DirectoryPathIndex pathIndex,
+                              DirectoryHierarchyIndex hierarchyIndex,
+                              PlatformTransactionManager transactionManager) {
+        this.directoryRepository = directoryRepository;
+        this.changeJournal = changeJournal;
+        this.changeBroadcaster = changeBroadcaster;
+        this.pathIndex = pathIndex;
+        this.hierarchyIndex = hierarchyIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 현재 스냅샷을 반환합니다.
+     * 아직 한 번도 만들어지지 않은 경우에만 DB에서 적재합니다.
+     *
+     * @return 현재 디렉토리 트리 스냅샷
+     */
+    public DirectoryTreeSnapshot getSnapshot() {
+        DirectoryTreeSnapshot current = snapshot.get();
+        if (current == null) {
+            current = rebuild(committedVersion.get());
+        }
+        return current;
+    }
+
+    /**
+     * 애플리케이션 시작 시 초기 데이터가 모두 적재된 뒤 첫 스냅샷을 만듭니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        DirectoryTreeSnapshot initial = rebuild(committedVersion.get());
+        pathIndex.rebuild(initial);
+        hierarchyIndex.rebuild(initial);
+    }
+
+    /**
+     * 계층 색인을 반환합니다. 아직 한 번도 만들어지지 않았으면 최신 스냅샷으로 만듭니다.
+     * 계층 색인은 커밋 직후에 변경이 반영되므로, 잠금 대상 계산처럼 스냅샷 공개를 기다릴 수 없는 곳에서 사용합니다.
+     *
+     * @return 계층 색인
+     */
+    public DirectoryHierarchyIndex getHierarchyIndex() {
+        if (!hierarchyIndex.isLoaded()) {
+            hierarchyIndex.rebuild(loadLatest());
+        }
+        return hierarchyIndex;
+    }
+
+    /**
+     * 디렉토리 변경이 커밋된 뒤 변경 저널에 추가하고 경로/계층 색인에 반영한 다음 스냅샷 재생성을 예약합니다.
+     * 변경을 요청한 스레드에서 잠금을 가진 채 실행되므로 변경 크기에 비례하는 작업만 합니다.
+     * 저널로 이어갈 수 없어 색인을 다시 만들어야 하는 경우에만 최신 스냅샷을 바로 읽습니다.
+     *
+     * @param event 디렉토리 변경 이벤트
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDirectoryChanged(DirectoryChangedEvent event) {
+        List<DirectoryChangeDto> appended = changeJournal.append(event.getChanges());
+        long version = committedVersion.incrementAndGet();
+        log.debug("디렉토리 변경 커밋됨 - {}, 버전: {}, 저널 항목 수: {}", event, version, appended.size());
+        pathIndex.apply(appended, this::loadLatest);
+        hierarchyIndex.apply(appended, this::loadLatest);
+        if (!appended.isEmpty()) {
+            COMMITTED_SEQUENCE.set(appended.get(appended.size() - 1).getSequence());
+        }
+        scheduleRebuild();
+    }
+
+    /**
+     * 현재 스레드가 마지막으로 커밋한 변경의 저널 순번을 반환하고 지웁니다.
+     * 변경 작업은 스냅샷 공개를 기다리지 않으므로, 응답에 이 순번을 담아 클라이언트가 필요할 때 기다리게 합니다.
+     *
+     * @return 커밋한 변경의 저널 순번 (커밋한 변경이 없으면 null)
+     */
+    public Long takeCommittedSequence() {
+        Long sequence = COMMITTED_SEQUENCE.get();
+        COMMITTED_SEQUENCE.remove();
+        return sequence;
+    }
+
+    /**
+     * 지정한 저널 순번까지의 변경이 모두 담긴 스냅샷이 공개될 때까지 기다립니다.
+     * 변경 응답으로 받은 순번을 조회 요청에 함께 보낸 클라이언트만 기다리며, 이미 공개되었으면 바로 반환합니다.
+     * 아직 부여되지 않은 순번은 마지막으로 부여한 순번까지만 기다립니다.
+     * 제한 시간 안에 공개되지 않으면 경고만 남기고 현재 스냅샷으로 응답하도록 false를 반환합니다.
+     *
+     * @param requested 기다릴 저널 순번
+     * @return 제한 시간 안에 공개되었으면 true
+     */
+    public boolean awaitSequence(long requested) {
+        long sequence = Math.min(requested, changeJournal.getLatestSequence());
+        if (publishedSequence() >= sequence) {
+            return true;
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(PUBLISH_TIMEOUT_MILLIS);
+        publishLock.lock();
+        try {
+            while (publishedSequence() < sequence) {
+                if (remaining <= 0) {
+                    log.warn("스냅샷 공개 대기 시간 초과 - 기다린 순번: {}, 공개된 순번: {}", sequence, publishedSequence());
+                    return false;
+                }
+                remaining = published.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * @return 커밋된 변경 중 아직 공개된 스냅샷에 반영되지 않은 변경 수
+     */
+    public long getPendingVersions() {
+        return Math.max(0, committedVersion.get() - publishedVersion());
+    }
+
+    /**
+     * 저장소를 직접 변경한 경우(일괄 적재 등) 캐시를 강제로 갱신합니다.
+     * 변경 내용을 항목으로 남길 수 없으므로 변경 저널도 초기화하고, 구독자에게 전체 트리를 다시 받도록 알립니다.
+     */
+    public void invalidate() {
+        changeJournal.reset();
+        DirectoryTreeSnapshot rebuilt = rebuild(committedVersion.incrementAndGet());
+        pathIndex.rebuild(rebuilt);
+        hierarchyIndex.rebuild(rebuilt);
+        changeBroadcaster.broadcastReset();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * 재생성 작업이 예약되어 있지 않으면 예약합니다.
+     * 예약 표시는 작업이 시작될 때 지우므로, 재생성 도중 들어온 커밋은 다음 작업 하나가 모아서 반영합니다.
+     */
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(this::rebuildPending);
+        } catch (RejectedExecutionException e) {
+            // 종료 중
+            rebuildScheduled.set(false);
+        }
+    }
+
+    private void rebuildPending() {
+        rebuildScheduled.set(false);
+        try {
+            DirectoryTreeSnapshot current = rebuild(committedVersion.get());
+            changeBroadcaster.broadcastThrough(current.getJournalSequence());
+        } catch (RuntimeException e) {
+            log.error("디렉토리 트리 스냅샷 갱신 실패 - 다음 커밋 때 다시 시도합니다.", e);
+        }
+    }
+
+    /**
+     * 지금까지 커밋된 변경이 모두 담긴 스냅샷을 바로 만들어 반환합니다.
+     * 색인을 처음 만들거나 저널로 이어갈 수 없을 때만 사용합니다.
+     */
+    private DirectoryTreeSnapshot loadLatest() {
+        return rebuild(committedVersion.get());
+    }
+
+    private long publishedVersion() {
+        DirectoryTreeSnapshot current = snapshot.get();
+        return current == null ? -1 : current.getVersion();
+    }
+
+    private long publishedSequence() {
+        DirectoryTreeSnapshot current = snapshot.get();
+        return current == null ? Long.MIN_VALUE : current.getJournalSequence();
+    }
+
+    /**
+     * 요청한 버전 이상의 스냅샷이 공개되도록 보장합니다.
+     * 재생성 스레드와 초기화(invalidate)가 겹치면 먼저 들어온 쪽이 최신 버전으로 한 번만 다시 만들고,
+     * 뒤따른 쪽은 이미 반영된 것을 확인하고 바로 반환합니다.
+     */
+    private DirectoryTreeSnapshot rebuild(long minVersion) {
+        rebuildLock.lock();
+        try {
+            return rebuildLocked(minVersion);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private DirectoryTreeSnapshot rebuildLocked(long minVersion) {
+        DirectoryTreeSnapshot current = snapshot.get();
+        if (current != null && current.getVersion() >= minVersion) {
+            return current;
+        }
+
+        // 버전과 저널 순번을 먼저 읽고 조회해야 해당 버전/순번까지의 커밋이 모두 포함됨
+        long version = committedVersion.get();
+        long journalSequence = changeJournal.getLatestSequence();
+        long startedAt = System.nanoTime();
+        List<DirectoryNodeDto> nodes = readOnlyTransaction.execute(status -> directoryRepository.findAllNodes());
+        DirectoryTreeSnapshot rebuilt = DirectoryTreeSnapshot.build(version, journalSequence, nodes, current);
+        snapshot.set(rebuilt);
+        publishLock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            publishLock.unlock();
+        }
+        log.debug("디렉토리 트리 스냅샷 갱신 - 버전: {}, 디렉토리 수: {}, 소요 시간: {}ms",
+            version, rebuilt.getSize(), (System.nanoTime() - startedAt) / 1_000_000);
+        return rebuilt;
+    }
+}
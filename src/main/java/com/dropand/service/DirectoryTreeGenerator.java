@@ -0,0 +1,253 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryNodeDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * 대규모 합성 디렉토리 트리 생성 클래스
+ *
+ * 주요 기능:
+ * 1. 디렉토리 수, 최대 깊이, 자식 수 분포, 이름 길이로 트리 모양을 지정
+ * 2. 너비 우선으로 채워 ID 1번부터 부모가 항상 자식보다 먼저 오는 순서로 행을 만듦 (그대로 INSERT 가능)
+ * 3. 전체를 메모리에 만들지 않고 배치 단위로 넘겨 10^6개 이상도 일괄 적재에 사용
+ *
+ * 같은 설정과 시드로는 항상 같은 트리가 만들어지므로 측정 결과를 다시 재현할 수 있습니다.
+ * 모든 디렉토리가 최대 깊이에 닿거나 자식 수가 0이 되어 더 채울 곳이 없으면 최상위 디렉토리를 새로 추가합니다.
+ */
+public final class DirectoryTreeGenerator {
+
+    private final int count;
+    private final int maxDepth;
+    private final FanOut fanOut;
+    private final int nameLength;
+    private final long seed;
+
+    /**
+     * @param count 만들 디렉토리 수
+     * @param maxDepth 최대 깊이 (최상위 디렉토리가 1)
+     * @param fanOut 디렉토리마다 자식 수를 뽑는 분포
+     * @param nameLength 디렉토리 이름 길이 (형제 사이 순번을 붙이므로 순번 자릿수보다 짧으면 더 길어짐)
+     * @param seed 난수 시드
+     * @throws IllegalArgumentException 값이 범위를 벗어나거나 가장 깊은 경로가 경로 최대 길이를 넘는 경우
+     */
+    public DirectoryTreeGenerator(int count, int maxDepth, FanOut fanOut, int nameLength, long seed) {
+        if (count < 1) {
+            throw new IllegalArgumentException("디렉토리 수는 1 이상이어야 합니다.");
+        }
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("최대 깊이는 1 이상이어야 합니다.");
+        }
+        if (nameLength < 1) {
+            throw new IllegalArgumentException("이름 길이는 1 이상이어야 합니다.");
+        }
+        int segmentLength = Math.max(nameLength, 1 + digits(fanOut.max)) + 1;
+        int topSegmentLength = Math.max(nameLength, 1 + digits(count)) + 1;
+        if (topSegmentLength + (long) (maxDepth - 1) * segmentLength > DirectoryImportPlan.MAX_LENGTH) {
+            throw new IllegalArgumentException("최대 깊이와 이름 길이로 만들어지는 경로가 "
+                + DirectoryImportPlan.MAX_LENGTH + "자를 넘습니다.");
+        }
+        this.count = count;
+        this.maxDepth = maxDepth;
+        this.fanOut = fanOut;
+        this.nameLength = nameLength;
+        this.seed = seed;
+    }
+
+    /**
+     * 생성한 디렉토리를 부모가 먼저 오는 순서로 batchSize건씩 넘깁니다.
+     *
+     * @param batchSize 한 번에 넘길 최대 건수
+     * @param consumer 배치마다 호출할 처리 함수 (넘긴 목록은 호출 후 재사용하지 않음)
+     */
+    public void forEachBatch(int batchSize, Consumer<List<DirectoryNodeDto>> consumer) {
+        SplittableRandom random = new SplittableRandom(seed);
+        // 아직 자식을 만들지 않은 디렉토리 (최대 깊이에 닿은 디렉토리는 넣지 않음)
+        ArrayDeque<Pending> pending = new ArrayDeque<>();
+        List<DirectoryNodeDto> batch = new ArrayList<>(batchSize);
+        Pending top = new Pending(null, "", 0);
+        int topLevelCount = 0;
+        long nextId = 1;
+        while (nextId <= count) {
+            Pending parent = pending.isEmpty() ? top : pending.poll();
+            int children = fanOut.sample(random);
+            if (parent == top) {
+                children = Math.max(children, 1);
+            }
+            for (int i = 0; i < children && nextId <= count; i++) {
+                int index = parent == top ? topLevelCount++ : i;
+                String name = name(random, index);
+                String path = parent.path + "/" + name;
+                long id = nextId++;
+                batch.add(new DirectoryNodeDto(id, parent.id, name, path,
+                    (int) Math.min((index + 1L) * DirectoryService.SORT_ORDER_GAP, Integer.MAX_VALUE), 0L));
+                if (parent.depth + 1 < maxDepth) {
+                    pending.add(new Pending(id, path, parent.depth + 1));
+                }
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+
+    /**
+     * 무작위 소문자 뒤에 형제 사이 순번(10진수)을 붙인 이름을 만듭니다.
+     * 앞부분에는 숫자가 없으므로 순번이 다르면 이름도 항상 다릅니다.
+     */
+    private String name(SplittableRandom random, int index) {
+        String suffix = Integer.toString(index);
+        int prefixLength = Math.max(1, nameLength - suffix.length());
+        StringBuilder name = new StringBuilder(prefixLength + suffix.length());
+        for (int i = 0; i < prefixLength; i++) {
+            name.append((char) ('a' + random.nextInt(26)));
+        }
+        return name.append(suffix).toString();
+    }
+
+    private static int digits(int value) {
+        return Integer.toString(Math.max(value, 0)).length();
+    }
+
+    /**
+     * @return 만들 디렉토리 수
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return 가장 큰 디렉토리 ID (ID는 1번부터 차례로 부여)
+     */
+    public long getMaxId() {
+        return count;
+    }
+
+    /**
+     * 자식을 만들 차례를 기다리는 디렉토리
+     */
+    private record Pending(Long id, String path, int depth) {
+    }
+
+    /**
+     * 디렉토리마다 자식 수를 뽑는 분포
+     *
+     * 설정 문자열 형식:
+     * <pre>
+     * fixed:N             항상 N개
+     * uniform:MIN-MAX     MIN~MAX 사이 균등
+     * zipf:MIN-MAX:S      MIN에 가까울수록 많고 드물게 MAX까지 (k번째 값의 확률이 1/k^S에 비례)
+     * </pre>
+     */
+    public static final class FanOut {
+
+        /**
+         * 분포가 가질 수 있는 최대 자식 수
+         */
+        private static final int MAX_FAN_OUT = 100_000;
+
+        private final int min;
+        private final int max;
+
+        /**
+         * zipf 분포의 누적 확률 (균등 분포면 null)
+         */
+        private final double[] cumulative;
+
+        private FanOut(int min, int max, double[] cumulative) {
+            this.min = min;
+            this.max = max;
+            this.cumulative = cumulative;
+        }
+
+        /**
+         * 설정 문자열로 분포를 만듭니다.
+         *
+         * @param spec 분포 설정 (예: uniform:1-16, zipf:0-2000:1.2)
+         * @return 자식 수 분포
+         * @throws IllegalArgumentException 형식이 올바르지 않은 경우
+         */
+        public static FanOut parse(String spec) {
+            String[] parts = spec.trim().split(":");
+            try {
+                switch (parts[0]) {
+                    case "fixed" -> {
+                        if (parts.length == 2) {
+                            int n = Integer.parseInt(parts[1]);
+                            return of(n, n, null);
+                        }
+                    }
+                    case "uniform" -> {
+                        if (parts.length == 2) {
+                            int[] range = range(parts[1]);
+                            return of(range[0], range[1], null);
+                        }
+                    }
+                    case "zipf" -> {
+                        if (parts.length == 3) {
+                            int[] range = range(parts[1]);
+                            return of(range[0], range[1], Double.parseDouble(parts[2]));
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } catch (NumberFormatException e) {
+                // 아래에서 형식 오류로 처리
+            }
+            throw new IllegalArgumentException("자식 수 분포 형식이 올바르지 않습니다: " + spec
+                + " (fixed:N, uniform:MIN-MAX, zipf:MIN-MAX:S)");
+        }
+
+        private static int[] range(String value) {
+            int dash = value.indexOf('-');
+            if (dash < 0) {
+                throw new NumberFormatException(value);
+            }
+            return new int[]{Integer.parseInt(value.substring(0, dash)), Integer.parseInt(value.substring(dash + 1))};
+        }
+
+        /**
+         * @param exponent zipf 지수 (균등 분포면 null)
+         */
+        private static FanOut of(int min, int max, Double exponent) {
+            if (min < 0 || max < min || max > MAX_FAN_OUT) {
+                throw new IllegalArgumentException("자식 수 범위는 0 이상 " + MAX_FAN_OUT + " 이하이고 MIN <= MAX여야 합니다.");
+            }
+            return new FanOut(min, max, exponent != null ? zipf(max - min + 1, exponent) : null);
+        }
+
+        private static double[] zipf(int size, double exponent) {
+            if (!(exponent > 0)) {
+                throw new IllegalArgumentException("zipf 지수는 0보다 커야 합니다.");
+            }
+            double[] cumulative = new double[size];
+            double sum = 0;
+            for (int k = 0; k < size; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < size; k++) {
+                cumulative[k] /= sum;
+            }
+            return cumulative;
+        }
+
+        int sample(SplittableRandom random) {
+            if (cumulative == null) {
+                return min == max ? min : min + random.nextInt(max - min + 1);
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return min + Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
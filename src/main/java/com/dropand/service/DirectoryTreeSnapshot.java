@@ -0,0 +1,359 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryNodeDto;
+import com.dropand.dto.DirectoryTreeDto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 특정 시점의 디렉토리 트리를 담는 불변 스냅샷 클래스
+ * 
+ * 주요 기능:
+ * 1. 평면 디렉토리 목록으로 트리 구조 조립
+ * 2. 스냅샷 버전 관리 (커밋된 변경이 반영될 때마다 증가)
+ * 3. 공개된 이후에는 변경되지 않으므로 잠금 없이 여러 스레드에서 공유
+ * 4. 깊이 제한 조회 (지정한 단계까지만 잘라낸 사본 반환)
+ * 5. 조상 관계 색인 (전위 순회 구간으로 상수 시간 조상 판별)
+ * 6. 하위 트리 버전 (하위 트리 안에서 마지막으로 변경이 일어난 스냅샷 버전, ETag 용)
+ * 7. 변경 저널 순번 (이 순번까지의 변경이 모두 반영됨, 변경분 동기화의 시작점)
+ */
+public final class DirectoryTreeSnapshot {
+
+    private final long version;
+
+    /**
+     * 스냅샷에 모두 반영된 마지막 변경 저널 순번
+     * 이후 순번의 변경 일부가 이미 반영되어 있을 수도 있습니다.
+     */
+    private final long journalSequence;
+
+    private final List<DirectoryTreeDto> roots;
+    private final Map<Long, DirectoryTreeDto> nodesById;
+
+    /**
+     * 디렉토리 ID별 전위 순회 순번
+     */
+    private final Map<Long, Integer> preorder;
+
+    /**
+     * 전위 순회 순번별 하위 트리 구간의 끝 (해당 순번 미포함)
+     * 순번 i인 디렉토리의 하위 디렉토리는 모두 (i, subtreeEnd[i]) 구간에 위치합니다.
+     */
+    private final int[] subtreeEnd;
+
+    /**
+     * 디렉토리 ID별 하위 트리 버전
+     * 자신이나 하위 디렉토리가 추가/삭제/변경된 마지막 스냅샷 버전입니다.
+     */
+    private final Map<Long, Long> subtreeVersions;
+
+    /**
+     * 가장 깊은 디렉토리의 깊이 (루트 디렉토리가 1, 비어 있으면 0)
+     */
+    private final int maxDepth;
+
+    private DirectoryTreeSnapshot(long version, long journalSequence, List<DirectoryTreeDto> roots, Map<Long, DirectoryTreeDto> nodesById,
+                                  Map<Long, Integer> preorder, int[] subtreeEnd, Map<Long, Long> subtreeVersions, int maxDepth) {
+        this.version = version;
+        this.journalSequence = journalSequence;
+        this.roots = roots;
+        this.nodesById = nodesById;
+        this.preorder = preorder;
+        this.subtreeEnd = subtreeEnd;
+        this.subtreeVersions = subtreeVersions;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * 평면 디렉토리 목록으로 스냅샷을 생성합니다.
+     * 목록이 정렬 순서대로 주어지므로 순서대로 부모의 자식 목록에 추가하면 정렬이 유지됩니다.
+     * 재귀 없이 ID 맵만 사용하므로 트리 깊이와 관계없이 동작합니다.
+     * 이전 스냅샷과 비교해 바뀐 디렉토리가 있는 하위 트리만 새 버전으로 표시합니다.
+     *
+     * @param version 스냅샷 버전
+     * @param journalSequence 조회 직전에 읽은 변경 저널 순번
+     * @param nodes 정렬 순서대로 조회된 전체 디렉토리 목록
+     * @param previous 직전 스냅샷 (처음 만드는 경우 null)
+     * @return 생성된 스냅샷
+     */
+    public static DirectoryTreeSnapshot build(long version, long journalSequence, List<DirectoryNodeDto> nodes, DirectoryTreeSnapshot previous) {
+        Map<Long, Integer> childCounts = new HashMap<>(nodes.size() * 2);
+        for (DirectoryNodeDto node : nodes) {
+            if (node.getParentId() != null) {
+                childCounts.merge(node.getParentId(), 1, Integer::sum);
+            }
+        }
+
+        Map<Long, DirectoryTreeDto> treeNodes = new HashMap<>(nodes.size() * 2);
+        for (DirectoryNodeDto node : nodes) {
+            treeNodes.put(node.getId(), new DirectoryTreeDto(node, childCounts.getOrDefault(node.getId(), 0)));
+        }
+
+        List<DirectoryTreeDto> roots = new ArrayList<>();
+        for (DirectoryNodeDto node : nodes) {
+            DirectoryTreeDto treeNode = treeNodes.get(node.getId());
+            DirectoryTreeDto parent = node.getParentId() == null ? null : treeNodes.get(node.getParentId());
+            if (parent == null) {
+                roots.add(treeNode);
+            } else {
+                parent.addChild(treeNode);
+            }
+        }
+
+        // 전위 순회 순번을 매긴 뒤, 역순으로 하위 트리 크기를 부모에 더해 구간 끝을 계산 (재귀 없이 처리)
+        // 부모가 자식보다 먼저 방문되므로 깊이도 부모의 깊이에서 바로 계산
+        Map<Long, Integer> preorder = new HashMap<>(treeNodes.size() * 2);
+        List<DirectoryTreeDto> visitOrder = new ArrayList<>(treeNodes.size());
+        int[] depths = new int[treeNodes.size()];
+        int maxDepth = 0;
+        ArrayDeque<DirectoryTreeDto> stack = new ArrayDeque<>();
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            stack.push(roots.get(i));
+        }
+        while (!stack.isEmpty()) {
+            DirectoryTreeDto node = stack.pop();
+            int position = visitOrder.size();
+            preorder.put(node.getId(), position);
+            visitOrder.add(node);
+            Integer parentPosition = node.getParentId() == null ? null : preorder.get(node.getParentId());
+            depths[position] = parentPosition == null ? 1 : depths[parentPosition] + 1;
+            maxDepth = Math.max(maxDepth, depths[position]);
+            List<DirectoryTreeDto> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
+        }
+
+        int[] subtreeSize = new int[visitOrder.size()];
+        int[] subtreeEnd = new int[visitOrder.size()];
+        for (int i = visitOrder.size() - 1; i >= 0; i--) {
+            subtreeSize[i]++;
+            subtreeEnd[i] = i + subtreeSize[i];
+            Long parentId = visitOrder.get(i).getParentId();
+            Integer parentPosition = parentId == null ? null : preorder.get(parentId);
+            if (parentPosition != null) {
+                subtreeSize[parentPosition] += subtreeSize[i];
+            }
+        }
+
+        Map<Long, Long> subtreeVersions = computeSubtreeVersions(version, treeNodes, previous);
+        return new DirectoryTreeSnapshot(version, journalSequence, Collections.unmodifiableList(roots), treeNodes, preorder, subtreeEnd,
+            subtreeVersions, maxDepth);
+    }
+
+    /**
+     * 이전 스냅샷과 비교해 하위 트리 버전을 계산합니다.
+     * 추가/변경된 디렉토리는 자신과 (새 트리의) 조상을, 옮겨지거나 삭제된 디렉토리는 이전 조상을
+     * 새 버전으로 표시하고, 나머지는 이전 스냅샷의 값을 그대로 이어받습니다.
+     */
+    private static Map<Long, Long> computeSubtreeVersions(long version, Map<Long, DirectoryTreeDto> treeNodes,
+                                                          DirectoryTreeSnapshot previous) {
+        Map<Long, Long> subtreeVersions = new HashMap<>(treeNodes.size() * 2);
+        if (previous == null) {
+            for (Long id : treeNodes.keySet()) {
+                subtreeVersions.put(id, version);
+            }
+            return subtreeVersions;
+        }
+
+        for (DirectoryTreeDto node : treeNodes.values()) {
+            DirectoryTreeDto before = previous.nodesById.get(node.getId());
+            if (before == null || !sameContent(before, node)) {
+                markChanged(node.getId(), version, treeNodes, subtreeVersions);
+                if (before != null && !Objects.equals(before.getParentId(), node.getParentId())) {
+                    markChanged(before.getParentId(), version, treeNodes, subtreeVersions);
+                }
+            }
+        }
+        for (DirectoryTreeDto before : previous.nodesById.values()) {
+            if (!treeNodes.containsKey(before.getId())) {
+                // 삭제된 디렉토리는 남아 있는 가장 가까운 이전 조상부터 표시
+                Long ancestorId = before.getParentId();
+                while (ancestorId != null && !treeNodes.containsKey(ancestorId)) {
+                    DirectoryTreeDto removedAncestor = previous.nodesById.get(ancestorId);
+                    ancestorId = removedAncestor != null ? removedAncestor.getParentId() : null;
+                }
+                markChanged(ancestorId, version, treeNodes, subtreeVersions);
+            }
+        }
+
+        for (Long id : treeNodes.keySet()) {
+            if (!subtreeVersions.containsKey(id)) {
+                subtreeVersions.put(id, previous.subtreeVersions.getOrDefault(id, version));
+            }
+        }
+        return subtreeVersions;
+    }
+
+    /**
+     * 디렉토리와 그 조상(새 트리 기준)을 지정한 버전으로 표시합니다.
+     * 이미 표시된 조상을 만나면 그 위는 표시되어 있으므로 멈춥니다.
+     */
+    private static void markChanged(Long id, long version, Map<Long, DirectoryTreeDto> treeNodes,
+                                    Map<Long, Long> subtreeVersions) {
+        Long cursor = id;
+        while (cursor != null && treeNodes.containsKey(cursor) && subtreeVersions.put(cursor, version) == null) {
+            cursor = treeNodes.get(cursor).getParentId();
+        }
+    }
+
+    private static boolean sameContent(DirectoryTreeDto a, DirectoryTreeDto b) {
+        return Objects.equals(a.getParentId(), b.getParentId())
+            && Objects.equals(a.getName(), b.getName())
+            && Objects.equals(a.getPath(), b.getPath())
+            && Objects.equals(a.getSortOrder(), b.getSortOrder())
+            && Objects.equals(a.getVersion(), b.getVersion());
+    }
+
+    /**
+     * 지정한 디렉토리의 하위 트리에서 마지막으로 변경이 일어난 스냅샷 버전을 반환합니다.
+     * 하위 디렉토리 조회 응답의 ETag로 사용합니다.
+     *
+     * @param id 디렉토리 ID
+     * @return 하위 트리 버전 (스냅샷에 없으면 null)
+     */
+    public Long getSubtreeVersion(Long id) {
+        return subtreeVersions.get(id);
+    }
+
+    /**
+     * 한 디렉토리가 다른 디렉토리의 조상인지 상수 시간에 판별합니다.
+     * 자기 자신은 조상으로 보지 않습니다.
+     *
+     * @param ancestorId 조상인지 확인할 디렉토리 ID
+     * @param descendantId 하위 디렉토리인지 확인할 디렉토리 ID
+     * @return ancestorId가 descendantId의 (직계 또는 간접) 조상이면 true
+     * @throws IllegalArgumentException 스냅샷에 없는 디렉토리인 경우
+     */
+    public boolean isAncestor(Long ancestorId, Long descendantId) {
+        int ancestor = positionOf(ancestorId);
+        int descendant = positionOf(descendantId);
+        return ancestor < descendant && descendant < subtreeEnd[ancestor];
+    }
+
+    /**
+     * 지정한 디렉토리의 조상 ID 목록을 부모부터 루트 순으로 반환합니다.
+     *
+     * @param id 디렉토리 ID (null이거나 스냅샷에 없으면 빈 목록)
+     * @return 조상 ID 목록 (자기 자신 제외)
+     */
+    public List<Long> getAncestorIds(Long id) {
+        List<Long> ancestors = new ArrayList<>();
+        DirectoryTreeDto node = id == null ? null : nodesById.get(id);
+        while (node != null && node.getParentId() != null) {
+            ancestors.add(node.getParentId());
+            node = nodesById.get(node.getParentId());
+        }
+        return ancestors;
+    }
+
+    private int positionOf(Long id) {
+        Integer position = preorder.get(id);
+        if (position == null) {
+            throw new IllegalArgumentException("Directory not found with id: " + id);
+        }
+        return position;
+    }
+
+    /**
+     * 루트부터 지정한 깊이까지만 담은 트리를 반환합니다.
+     * 깊이 1이면 루트 디렉토리만, 깊이 2면 루트와 그 하위 디렉토리까지 포함합니다.
+     * 잘린 노드도 childCount로 실제 하위 디렉토리 수를 알려줍니다.
+     *
+     * @param depth 포함할 단계 수 (1 이상)
+     * @return 깊이 제한된 루트 디렉토리 목록
+     */
+    public List<DirectoryTreeDto> getRoots(int depth) {
+        return limitDepth(roots, depth);
+    }
+
+    /**
+     * 지정한 디렉토리의 하위 디렉토리를 지정한 깊이까지만 반환합니다.
+     *
+     * @param id 부모 디렉토리 ID
+     * @param depth 포함할 단계 수 (1이면 직계 하위 디렉토리만)
+     * @return 깊이 제한된 하위 디렉토리 목록
+     * @throws IllegalArgumentException 스냅샷에 없는 디렉토리인 경우
+     */
+    public List<DirectoryTreeDto> getChildren(Long id, int depth) {
+        DirectoryTreeDto parent = nodesById.get(id);
+        if (parent == null) {
+            throw new IllegalArgumentException("Parent directory not found with id: " + id);
+        }
+        return limitDepth(parent.getChildren(), depth);
+    }
+
+    /**
+     * 지정한 디렉토리를 지정한 깊이까지의 하위 디렉토리와 함께 반환합니다.
+     *
+     * @param id 디렉토리 ID
+     * @param depth 포함할 단계 수 (1이면 디렉토리 자신만)
+     * @return 깊이 제한된 디렉토리 (스냅샷에 없으면 null)
+     */
+    public DirectoryTreeDto getNode(Long id, int depth) {
+        DirectoryTreeDto node = nodesById.get(id);
+        if (node == null) {
+            return null;
+        }
+        return limitDepth(List.of(node), depth).get(0);
+    }
+
+    /**
+     * 지정한 깊이까지만 하위 목록을 채운 사본을 만듭니다.
+     * 요청한 깊이가 커도 스택을 쓰지 않도록 너비 우선으로 처리합니다.
+     */
+    private static List<DirectoryTreeDto> limitDepth(List<DirectoryTreeDto> level, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth는 1 이상이어야 합니다.");
+        }
+        List<DirectoryTreeDto> result = new ArrayList<>(level.size());
+        ArrayDeque<DirectoryTreeDto[]> queue = new ArrayDeque<>();
+        for (DirectoryTreeDto node : level) {
+            DirectoryTreeDto copy = new DirectoryTreeDto(node);
+            result.add(copy);
+            queue.add(new DirectoryTreeDto[] {node, copy});
+        }
+
+        for (int currentDepth = 1; currentDepth < depth && !queue.isEmpty(); currentDepth++) {
+            int levelSize = queue.size();
+            for (int i = 0; i < levelSize; i++) {
+                DirectoryTreeDto[] pair = queue.poll();
+                for (DirectoryTreeDto child : pair[0].getChildren()) {
+                    DirectoryTreeDto copy = new DirectoryTreeDto(child);
+                    pair[1].addChild(copy);
+                    queue.add(new DirectoryTreeDto[] {child, copy});
+                }
+            }
+        }
+        return result;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public List<DirectoryTreeDto> getRoots() {
+        return roots;
+    }
+
+    public int getSize() {
+        return nodesById.size();
+    }
+
+    /**
+     * @return 가장 깊은 디렉토리의 깊이 (루트 디렉토리가 1, 비어 있으면 0)
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+}
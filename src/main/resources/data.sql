@@ -1,5 +1,5 @@
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('Root', '/', 1, NULL);
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('Documents', '/Documents', 1, 1);
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('Pictures', '/Pictures', 2, 1);
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('Music', '/Music', 3, 1);
-INSERT INTO directories (name, path, sort_order, parent_id) VALUES ('Videos', '/Videos', 4, 1); 
\ No newline at end of file
+INSERT INTO directories (name, path, sort_order, parent_id, version) VALUES ('Root', '/Root', 1, NULL, 0);
+INSERT INTO directories (name, path, sort_order, parent_id, version) VALUES ('Documents', '/Root/Documents', 1, 1, 0);
+INSERT INTO directories (name, path, sort_order, parent_id, version) VALUES ('Pictures', '/Root/Pictures', 2, 1, 0);
+INSERT INTO directories (name, path, sort_order, parent_id, version) VALUES ('Music', '/Root/Music', 3, 1, 0);
+INSERT INTO directories (name, path, sort_order, parent_id, version) VALUES ('Videos', '/Root/Videos', 4, 1, 0); 
@@ -0,0 +1,154 @@
+/**
+ * 열 단위 배열 형식의 디렉토리 트리를 해석하는 모듈
+ *
+ * 주요 기능:
+ * 1. 바이너리 형식(리틀 엔디언, 길이 접두)을 병렬 배열로 해석
+ * 2. 병렬 배열(JSON 또는 바이너리)로 중첩 트리를 다시 조립 (경로는 부모 경로 + 이름으로 계산)
+ * 3. 서버에서 트리를 열 단위 형식으로 받아오기
+ */
+
+export const COLUMNAR_JSON_TYPE = 'application/vnd.dropand.columnar+json';
+export const COLUMNAR_BINARY_TYPE = 'application/vnd.dropand.columnar';
+
+const MAGIC = 'DRTC';
+const FORMAT_VERSION = 1;
+const textDecoder = new TextDecoder();
+
+/**
+ * 부호 있는 64비트 정수를 읽습니다. (디렉토리 ID는 2^53 미만이므로 Number로 충분)
+ */
+function readInt64(view, offset) {
+    return view.getInt32(offset + 4, true) * 4294967296 + view.getUint32(offset, true);
+}
+
+export const DirectoryColumnar = {
+    /**
+     * 바이너리 형식을 병렬 배열로 해석합니다.
+     * @param {ArrayBuffer} buffer - 서버 응답 본문
+     * @returns {Object} JSON 형식과 같은 구조의 병렬 배열
+     */
+    decodeBinary(buffer) {
+        const view = new DataView(buffer);
+        const bytes = new Uint8Array(buffer);
+        const magic = String.fromCharCode(...bytes.subarray(0, 4));
+        if (magic !== MAGIC || view.getInt32(4, true) !== FORMAT_VERSION) {
+            throw new Error('지원하지 않는 트리 형식입니다.');
+        }
+        const version = readInt64(view, 8);
+        const journalSequence = readInt64(view, 16);
+        const nodeCount = view.getInt32(24, true);
+        const nameCount = view.getInt32(28, true);
+        let offset = 32;
+
+        const names = new Array(nameCount);
+        for (let i = 0; i < nameCount; i++) {
+            const length = view.getInt32(offset, true);
+            names[i] = textDecoder.decode(bytes.subarray(offset + 4, offset + 4 + length));
+            offset += 4 + length;
+        }
+
+        const ids = new Array(nodeCount);
+        for (let i = 0; i < nodeCount; i++, offset += 8) ids[i] = readInt64(view, offset);
+        const parentIds = new Array(nodeCount);
+        for (let i = 0; i < nodeCount; i++, offset += 8) parentIds[i] = readInt64(view, offset);
+        const sortOrders = new Int32Array(nodeCount);
+        for (let i = 0; i < nodeCount; i++, offset += 4) sortOrders[i] = view.getInt32(offset, true);
+        const nameIndexes = new Int32Array(nodeCount);
+        for (let i = 0; i < nodeCount; i++, offset += 4) nameIndexes[i] = view.getInt32(offset, true);
+
+        const overrideCount = view.getInt32(offset, true);
+        offset += 4;
+        const overrideIndexes = new Array(overrideCount);
+        const overridePaths = new Array(overrideCount);
+        for (let i = 0; i < overrideCount; i++) {
+            overrideIndexes[i] = view.getInt32(offset, true);
+            const length = view.getInt32(offset + 4, true);
+            overridePaths[i] = textDecoder.decode(bytes.subarray(offset + 8, offset + 8 + length));
+            offset += 8 + length;
+        }
+
+        return { version, journalSequence, ids, parentIds, sortOrders, nameIndexes, names, overrideIndexes, overridePaths };
+    },
+
+    /**
+     * 병렬 배열로 중첩 트리를 조립합니다.
+     * 배열이 전위 순서(부모가 먼저)이므로 한 번의 순회로 조립되며, 형제 순서도 그대로 유지됩니다.
+     * @param {Object} columns - JSON 형식 응답 또는 decodeBinary 결과
+     * @returns {Array} 루트 디렉토리 목록 (트리 조회 API와 같은 필드)
+     */
+    buildTree(columns) {
+        const { ids, parentIds, sortOrders, nameIndexes, names } = columns;
+        const overrides = new Map();
+        columns.overrideIndexes.forEach((position, i) => overrides.set(position, columns.overridePaths[i]));
+
+        const roots = [];
+        const nodesById = new Map();
+        for (let i = 0; i < ids.length; i++) {
+            const parent = parentIds[i] === 0 ? null : nodesById.get(parentIds[i]);
+            const name = names[nameIndexes[i]];
+            const node = {
+                id: ids[i],
+                name,
+                path: overrides.get(i) ?? `${parent ? parent.path : ''}/${name}`,
+                sortOrder: sortOrders[i],
+                parentId: parent ? parent.id : null,
+                childCount: 0,
+                hasChildren: false,
+                children: []
+            };
+            nodesById.set(node.id, node);
+            if (parent) {
+                parent.children.push(node);
+                parent.childCount++;
+                parent.hasChildren = true;
+            } else {
+                roots.push(node);
+            }
+        }
+        return roots;
+    },
+
+    /**
+     * 서버에서 전체 트리를 열 단위 형식으로 받아 조립합니다.
+     * @param {boolean} binary - true면 바이너리, false면 JSON 배열 형식
+     * @param {?string} minSequence - 반영되어 있어야 하는 변경 순번 (변경 응답의 X-Directory-Sequence, 선택)
+     * @returns {Promise<{roots: Array, version: number, journalSequence: number}>}
+     */
+    async fetchTree(binary = true, minSequence = null) {
+        const url = minSequence == null ? '/api/directories' : `/api/directories?minSequence=${minSequence}`;
+        const response = await fetch(url, {
+            headers: { Accept: binary ? COLUMNAR_BINARY_TYPE : COLUMNAR_JSON_TYPE }
+        });
+        if (!response.ok) throw new Error('디렉토리 트리 로드 실패');
+        const columns = binary ? this.decodeBinary(await response.arrayBuffer()) : await response.json();
+        return { roots: this.buildTree(columns), version: columns.version, journalSequence: columns.journalSequence };
+    },
+
+    /**
+     * 기존 중첩 JSON 트리와 열 단위 형식(JSON, 바이너리)의 응답 크기와 해석 시간을 비교합니다.
+     * 브라우저 콘솔에서 실행하며, 해석 시간은 본문을 받은 뒤 트리 조립까지의 평균입니다.
+     * @param {number} rounds - 형식별 해석 반복 횟수
+     * @returns {Promise<Array>} 형식별 { format, bytes, parseMillis }
+     */
+    async benchmark(rounds = 20) {
+        const formats = [
+            { format: 'nested-json', url: '/api/directories/tree', accept: 'application/json',
+              parse: buffer => JSON.parse(textDecoder.decode(buffer)) },
+            { format: 'columnar-json', url: '/api/directories', accept: COLUMNAR_JSON_TYPE,
+              parse: buffer => this.buildTree(JSON.parse(textDecoder.decode(buffer))) },
+            { format: 'columnar-binary', url: '/api/directories', accept: COLUMNAR_BINARY_TYPE,
+              parse: buffer => this.buildTree(this.decodeBinary(buffer)) }
+        ];
+        const results = [];
+        for (const { format, url, accept, parse } of formats) {
+            const response = await fetch(url, { headers: { Accept: accept }, cache: 'no-store' });
+            const buffer = await response.arrayBuffer();
+            parse(buffer);
+            const start = performance.now();
+            for (let i = 0; i < rounds; i++) parse(buffer);
+            results.push({ format, bytes: buffer.byteLength, parseMillis: (performance.now() - start) / rounds });
+        }
+        console.table(results);
+        return results;
+    }
+};
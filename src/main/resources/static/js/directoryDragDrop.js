@@ -5,6 +5,7 @@
  * 1. 디렉토리 드래그 시작/진행/종료 처리
  * 2. 드래그 중인 디렉토리의 시각적 피드백 제공
  * 3. 드롭 위치에 따른 디렉토리 이동 처리
+ *    (대상 위쪽/아래쪽 가장자리는 대상의 앞/뒤 형제로, 가운데는 대상의 마지막 하위 디렉토리로 이동)
  * 4. 이동 전/후의 디렉토리 상태 유지
  */
 
@@ -13,6 +14,12 @@ import { DirectoryRender } from './directoryRender.js';
 import { showNotification } from './notification.js';
 
 export const DirectoryDragDrop = {
+    /**
+     * 대상 앞/뒤에 놓는 것으로 보는 위/아래 가장자리 비율
+     * @type {number}
+     */
+    EDGE_RATIO: 0.25,
+
     /**
      * 현재 드래그 중인 디렉토리 요소
      * @type {HTMLElement}
@@ -75,23 +82,24 @@ export const DirectoryDragDrop = {
      * @param {Object} targetDirectory - 드롭된 대상 디렉토리 정보
      */
     handleDrop(event) {
-        // 기본 동작 방지
+        // 기본 동작 방지 (상위 디렉토리 요소에서 다시 처리되지 않도록 전파도 중단)
         event.preventDefault();
+        event.stopPropagation();
         
         const target = event.target.closest('.directory');
-        if (!target) return;
+        if (!target || !this.draggedDirectory) return;
 
         // 드롭 위치의 디렉토리 ID 가져오기
         const targetId = target.dataset.id;
         
         // 자기 자신이나 자식 디렉토리로의 이동 방지
-        if (this.draggedDirectory.id === targetId || 
+        if (String(this.draggedDirectory.id) === targetId || 
             this.isChildDirectory(targetId, this.draggedDirectory.id)) {
             return;
         }
 
-        // 서버에 이동 요청 전송
-        this.moveDirectory(this.draggedDirectory.id, targetId)
+        // 서버에 이동 요청 전송 (드롭 위치의 이웃을 기준으로 정렬 순서 결정)
+        this.moveDirectory(this.draggedDirectory.id, this.getDropPlacement(event, target))
             .then(() => {
                 // 성공 시 UI 업데이트
                 DirectoryRender.renderTree();
@@ -122,6 +130,39 @@ export const DirectoryDragDrop = {
         return targetId !== sourceId && !this.isChildDirectory(targetId, sourceId);
     },
 
+    /**
+     * 드롭 위치로 새 부모와 기준 이웃을 계산하는 메소드
+     * 대상 헤더의 위쪽 가장자리면 대상 바로 앞, 아래쪽 가장자리면 대상 바로 뒤,
+     * 가운데면 대상의 마지막 하위 디렉토리 뒤에 놓습니다.
+     * @param {DragEvent} event - 드롭 이벤트 객체
+     * @param {HTMLElement} target - 드롭 대상 디렉토리 요소
+     * @returns {{parentId: (string|null), afterId?: string, beforeId?: string}} 이동 요청 본문
+     */
+    getDropPlacement(event, target) {
+        const header = target.querySelector('.directory-header') || target;
+        const rect = header.getBoundingClientRect();
+        const offset = (event.clientY - rect.top) / rect.height;
+        const parent = target.parentElement ? target.parentElement.closest('.directory') : null;
+        const parentId = parent ? parent.dataset.id : null;
+
+        if (offset < this.EDGE_RATIO) {
+            return { parentId, beforeId: target.dataset.id };
+        }
+        if (offset > 1 - this.EDGE_RATIO) {
+            return { parentId, afterId: target.dataset.id };
+        }
+        // 끌고 있는 디렉토리 자신은 기준 이웃이 될 수 없으므로 건너뜀
+        const children = target.querySelector(':scope > .children');
+        const siblings = children
+            ? [...children.querySelectorAll(':scope > .directory')]
+                .filter(child => child.dataset.id !== String(this.draggedDirectory.id))
+            : [];
+        const lastChild = siblings[siblings.length - 1];
+        return lastChild
+            ? { parentId: target.dataset.id, afterId: lastChild.dataset.id }
+            : { parentId: target.dataset.id };
+    },
+
     /**
      * 특정 디렉토리가 다른 디렉토리의 하위 디렉토리인지 확인
      * @param {string} parentId - 상위 디렉토리 ID
@@ -138,24 +179,22 @@ export const DirectoryDragDrop = {
     /**
      * 서버에 디렉토리 이동 요청을 보내는 메소드
      * @param {string} sourceId - 이동할 디렉토리 ID
-     * @param {string} targetId - 대상 디렉토리 ID
-     * @returns {Promise} 이동 요청 결과
+     * @param {{parentId: (string|null), afterId?: string, beforeId?: string}} placement - 새 부모와 기준 이웃
+     * @returns {Promise} 이동 요청 결과 (응답 본문 없음)
      */
-    async moveDirectory(sourceId, targetId) {
+    async moveDirectory(sourceId, placement) {
         try {
             const response = await fetch(`/api/directories/${sourceId}/move`, {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json'
                 },
-                body: JSON.stringify({ parentId: targetId })
+                body: JSON.stringify(placement)
             });
 
             if (!response.ok) {
                 throw new Error('디렉토리 이동 실패');
             }
-
-            return response.json();
         } catch (error) {
             console.error('디렉토리 이동 중 오류:', error);
             throw error;
@@ -5,13 +5,79 @@
  * 1. 디렉토리 생성
  * 2. 디렉토리 수정
  * 3. 디렉토리 삭제
- * 4. 디렉토리 트리 새로고침
+ * 4. 디렉토리 트리 새로고침 (처음에는 열 단위 형식으로 전체 트리를 받고, 이후에는 변경 내역만 받아 반영)
  */
 
+import { DirectoryColumnar } from './directoryColumnar.js';
 import { DirectoryRender } from './directoryRender.js';
 import { DirectoryState } from './directoryState.js';
 import { showNotification } from './notification.js';
 
+/**
+ * 현재 화면에 반영된 디렉토리 트리와 마지막으로 반영한 변경 순번
+ */
+let roots = [];
+let lastSequence = null;
+
+/**
+ * 변경 내역을 트리에 순서대로 반영합니다.
+ * 같은 항목을 여러 번 적용해도 결과가 같도록 덮어쓰기 방식으로 처리합니다.
+ * @param {Array} changes - 서버가 돌려준 변경 항목 목록
+ * @returns {boolean} 모두 반영했으면 true (부모를 찾지 못하면 false)
+ */
+function applyChanges(changes) {
+    const index = new Map();
+    const stack = [...roots];
+    while (stack.length > 0) {
+        const node = stack.pop();
+        index.set(node.id, node);
+        stack.push(...(node.children || []));
+    }
+    const siblingsOf = parentId => parentId == null ? roots : index.get(parentId)?.children;
+
+    for (const change of changes) {
+        const existing = index.get(change.id);
+        if (existing) {
+            const siblings = siblingsOf(existing.parentId);
+            const position = siblings ? siblings.indexOf(existing) : -1;
+            if (position >= 0) siblings.splice(position, 1);
+        }
+        if (change.op === 'DELETED') {
+            const removed = existing ? [existing] : [];
+            while (removed.length > 0) {
+                const node = removed.pop();
+                index.delete(node.id);
+                removed.push(...(node.children || []));
+            }
+            continue;
+        }
+
+        const node = existing || { id: change.id, children: [] };
+        node.name = change.name;
+        node.parentId = change.parentId;
+        node.sortOrder = change.sortOrder;
+        if (existing && existing.path !== change.path) {
+            // 하위 디렉토리 경로는 이전 경로 접두사를 새 경로로 바꿔 반영
+            const descendants = [...node.children];
+            while (descendants.length > 0) {
+                const child = descendants.pop();
+                if (child.path?.startsWith(node.path)) {
+                    child.path = change.path + child.path.substring(node.path.length);
+                }
+                descendants.push(...(child.children || []));
+            }
+        }
+        node.path = change.path;
+        index.set(node.id, node);
+
+        const siblings = siblingsOf(change.parentId);
+        if (!siblings) return false;
+        siblings.push(node);
+        siblings.sort((a, b) => (a.sortOrder - b.sortOrder) || (a.id - b.id));
+    }
+    return true;
+}
+
 export const DirectoryOperations = {
     /**
      * 새 디렉토리 생성
@@ -30,7 +96,7 @@ export const DirectoryOperations = {
 
             if (!response.ok) throw new Error('디렉토리 생성 실패');
 
-            await this.refreshDirectoryTree();
+            await this.refreshDirectoryTree(response.headers.get('X-Directory-Sequence'));
             showNotification('디렉토리가 생성되었습니다.', 'success');
             return true;
         } catch (error) {
@@ -81,8 +147,11 @@ export const DirectoryOperations = {
 
             if (!response.ok) throw new Error('디렉토리 삭제 실패');
 
-            await this.refreshDirectoryTree();
-            showNotification('디렉토리가 삭제되었습니다.', 'success');
+            // 서버가 하위 디렉토리까지 삭제한 개수를 돌려주므로 트리를 다시 받지 않고 해당 노드만 제거
+            const { deletedCount } = await response.json();
+            const item = document.querySelector(`.directory-item[data-id="${id}"]`);
+            item?.closest('.directory-wrapper')?.remove();
+            showNotification(`디렉토리 ${deletedCount}개가 삭제되었습니다.`, 'success');
             return true;
         } catch (error) {
             console.error('디렉토리 삭제 오류:', error);
@@ -92,15 +161,34 @@ export const DirectoryOperations = {
     },
 
     /**
-     * 디렉토리 트리 데이터를 서버에서 새로 받아와 화면에 렌더링
+     * 마지막으로 반영한 이후의 변경 내역만 서버에서 받아와 화면에 렌더링
+     * 처음에는 전체 트리를 열 단위 바이너리 형식으로 받고,
+     * 서버 저널로 이어갈 수 없으면(truncated) 함께 온 전체 트리로 대체
      * 기존의 펼침/접힘 상태를 유지
+     * @param {?string} minSequence - 방금 보낸 변경 요청 응답의 X-Directory-Sequence (전체 트리에 반영되어 있어야 하는 순번)
      */
-    async refreshDirectoryTree() {
+    async refreshDirectoryTree(minSequence = null) {
         try {
-            const response = await fetch('/api/directories/tree');
-            if (!response.ok) throw new Error('디렉토리 트리 로드 실패');
-            
-            DirectoryRender.setDirectories(await response.json());
+            if (lastSequence == null) {
+                const tree = await DirectoryColumnar.fetchTree(true, minSequence);
+                roots = tree.roots;
+                lastSequence = tree.journalSequence;
+            } else {
+                const response = await fetch(`/api/directories/changes?since=${lastSequence}`);
+                if (!response.ok) throw new Error('디렉토리 트리 로드 실패');
+
+                const { latestSequence, truncated, changes, snapshot } = await response.json();
+                if (truncated) {
+                    roots = snapshot;
+                } else if (!applyChanges(changes)) {
+                    // 알 수 없는 부모를 만나면 전체 트리를 다시 받도록 순번을 버림
+                    lastSequence = null;
+                    return this.refreshDirectoryTree(minSequence);
+                }
+                lastSequence = latestSequence;
+            }
+
+            DirectoryRender.setDirectories(roots);
             DirectoryRender.renderDirectoryTree();
             DirectoryState.restoreExpandedState();
         } catch (error) {
@@ -0,0 +1,91 @@
+package com.dropand.controller;
+
+import com.dropand.config.SqlStatementCounter;
+import com.dropand.config.SqlStatementScope;
+import com.dropand.domain.Directory;
+import com.dropand.service.DirectoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 주요 API가 실행하는 SQL 수를 고정하는 테스트
+ * 수가 바뀌면 N+1 등 의도하지 않은 조회가 생긴 것이므로, 의도한 변경일 때만 기대값을 고칩니다.
+ */
+@SpringBootTest(properties = {
+    "logging.level.com.dropand=WARN",
+    "logging.level.org.springframework=WARN",
+    "logging.level.org.hibernate=WARN",
+    "spring.jpa.show-sql=false",
+    "dropand.sql-budget.mode=fail"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class DirectoryQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Test
+    void treeIsServedFromSnapshot() throws Exception {
+        assertEquals(0, statements(get("/api/directories/tree")));
+    }
+
+    @Test
+    void children() throws Exception {
+        Directory parent = directoryService.createDirectory("children", null);
+        directoryService.createDirectory("a", parent.getId());
+        directoryService.createDirectory("b", parent.getId());
+
+        // 부모, 자식 목록, 응답에 담을 자식들의 하위 목록 (IN 목록 한 번)
+        assertEquals(3, statements(get("/api/directories/" + parent.getId() + "/children")));
+        assertEquals(3, statements(get("/api/directories/" + parent.getId() + "/children?limit=10")));
+    }
+
+    @Test
+    void move() throws Exception {
+        Directory source = directoryService.createDirectory("move-source", null);
+        Directory target = directoryService.createDirectory("move-target", null);
+        Directory moved = directoryService.createDirectory("moved", source.getId());
+        directoryService.createDirectory("moved-child", moved.getId());
+
+        // 대상, 새 부모, 경로 중복 확인, 맨 끝 정렬 값, 디렉토리 갱신, 하위 경로 일괄 갱신 (하위 디렉토리 수와 무관)
+        assertEquals(6, statements(post("/api/directories/" + moved.getId() + "/move")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"parentId\": " + target.getId() + "}")));
+    }
+
+    @Test
+    void deleteSubtree() throws Exception {
+        Directory deleted = directoryService.createDirectory("delete", null);
+        Directory child = directoryService.createDirectory("child", deleted.getId());
+        directoryService.createDirectory("grandchild", child.getId());
+
+        // 대상 조회, 하위 트리 조회, 깊이별 삭제 한 번씩
+        assertEquals(5, statements(delete("/api/directories/" + deleted.getId())));
+    }
+
+    /**
+     * 요청을 실행하고 요청 스레드에서 실행된 SQL 수를 반환합니다.
+     */
+    private long statements(RequestBuilder request) throws Exception {
+        try (SqlStatementScope scope = SqlStatementCounter.open("test")) {
+            mockMvc.perform(request).andExpect(status().isOk());
+            return scope.getStatements();
+        }
+    }
+}
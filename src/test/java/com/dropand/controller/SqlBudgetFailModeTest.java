@@ -0,0 +1,108 @@
+package com.dropand.controller;
+
+import com.dropand.config.SqlBudgetExceededException;
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryNodeDto;
+import com.dropand.repository.DirectoryRepository;
+import com.dropand.service.DirectoryMetrics;
+import com.dropand.service.DirectoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * dropand.sql-budget.mode=fail에서 예산 초과가 어떻게 드러나는지 확인하는 테스트
+ */
+@SpringBootTest(properties = {
+    "logging.level.com.dropand=WARN",
+    "logging.level.org.springframework=WARN",
+    "logging.level.org.hibernate=WARN",
+    "spring.jpa.show-sql=false",
+    "dropand.sql-budget.mode=fail",
+    "dropand.sql-budget.operation-max=5",
+    "dropand.sql-budget.request-max=2"
+})
+@AutoConfigureMockMvc
+@WithMockUser
+class SqlBudgetFailModeTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DirectoryRepository directoryRepository;
+
+    @Autowired
+    private DirectoryMetrics metrics;
+
+    @Test
+    void writeOverBudgetIsRolledBack() {
+        Directory source = directoryService.createDirectory("source", null);
+        Directory target = directoryService.createDirectory("target", null);
+        Directory moved = directoryService.createDirectory("moved", source.getId());
+
+        // 이동은 6문장이므로 작업 한도 5를 넘음
+        assertThrows(SqlBudgetExceededException.class,
+            () -> directoryService.moveDirectory(moved.getId(), target.getId(), null, null, null));
+
+        DirectoryNodeDto stored = directoryRepository.findNodeById(moved.getId()).orElseThrow();
+        assertEquals(source.getId(), stored.getParentId());
+        assertEquals("/source/moved", stored.getPath());
+    }
+
+    @Test
+    void retriedWriteIsBudgetedPerAttempt() {
+        // 충돌로 실패한 시도 뒤에 다시 시도하는 쓰기 작업과 같은 흐름
+        // 시도마다 4문장이므로 합계 8은 작업 한도 5를 넘지만, 각 시도는 한도 안이므로 통과
+        metrics.record("retry", () -> {
+            assertThrows(OptimisticLockingFailureException.class, () -> metrics.recordAttempt(() -> {
+                runStatements(4);
+                throw new OptimisticLockingFailureException("충돌");
+            }));
+            metrics.recordAttempt(() -> {
+                runStatements(4);
+                metrics.checkSqlBudget();
+                return null;
+            });
+        });
+    }
+
+    @Test
+    void readRequestOverBudgetFails() {
+        Directory parent = directoryService.createDirectory("read", null);
+        directoryService.createDirectory("child", parent.getId());
+
+        // 하위 목록 조회는 3문장이므로 요청 한도 2를 넘고, 응답 전이므로 오류가 됨
+        assertThrows(SqlBudgetExceededException.class,
+            () -> mockMvc.perform(get("/api/directories/" + parent.getId() + "/children")));
+    }
+
+    @Test
+    void writeRequestOverRequestBudgetIsOnlyLogged() throws Exception {
+        // 생성 요청은 요청 한도 2를 넘지만 이미 커밋된 변경이므로 정상 응답
+        mockMvc.perform(post("/api/directories")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"logged\", \"parentId\": null}"))
+            .andExpect(status().isOk());
+    }
+
+    private void runStatements(int count) {
+        for (int i = 0; i < count; i++) {
+            directoryRepository.count();
+        }
+    }
+}
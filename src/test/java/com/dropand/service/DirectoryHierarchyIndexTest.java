@@ -0,0 +1,234 @@
+package com.dropand.service;
+
+import com.dropand.dto.DirectoryChangeDto;
+import com.dropand.dto.DirectoryNodeDto;
+import com.dropand.dto.DirectoryTreeDto;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 계층 색인이 임의의 생성/이동/순서 변경/삭제 뒤에도 트리 스냅샷과 같은 구조를 유지하는지 확인하는 테스트
+ *
+ * DB 없이 메모리 모델에 작업을 적용하고, 같은 작업을 변경 저널 항목으로 색인에 반영합니다.
+ * 합성 트리(2000개)에서 3000번의 작업을 실행하며 100번마다, 그리고 스냅샷으로 다시 만든 뒤에
+ * 모델로 만든 스냅샷과 부모, 자식 순서, 형제 위치, 깊이, 조상 목록, 조상 판별, 하위 트리 크기, 전체 수를 비교합니다.
+ * 힙 배열과 힙 밖(direct ByteBuffer) 저장소 모두 같은 작업으로 확인합니다.
+ */
+class DirectoryHierarchyIndexTest {
+
+    private static final int INITIAL_NODES = 2000;
+    private static final int OPERATIONS = 3000;
+    private static final int CHECK_INTERVAL = 100;
+    private static final int MAX_SORT_ORDER = 20;
+
+    /**
+     * 디렉토리 ID별 현재 상태 (ID, 부모 ID, 정렬 순서만 사용)
+     */
+    private final Map<Long, DirectoryNodeDto> nodes = new LinkedHashMap<>();
+
+    private final DirectoryChangeJournal changeJournal = new DirectoryChangeJournal();
+    private DirectoryTreeSnapshot previous;
+    private long nextId = 1;
+
+    @ParameterizedTest(name = "off-heap={0}")
+    @ValueSource(booleans = {false, true})
+    void staysConsistentWithSnapshotUnderRandomChanges(boolean offHeap) {
+        Random random = new Random(7);
+        for (int i = 0; i < INITIAL_NODES; i++) {
+            create(random);
+        }
+        DirectoryHierarchyIndex index = new DirectoryHierarchyIndex(changeJournal, offHeap);
+        index.rebuild(snapshot());
+
+        List<DirectoryChangeDto> skipped = List.of();
+        for (int i = 0; i < OPERATIONS; i++) {
+            List<DirectoryChangeDto> changes = new ArrayList<>();
+            // 여러 항목이 한 번에 커밋되는 경우(일괄 순서 변경 등)도 함께 확인
+            int batch = random.nextInt(5) == 0 ? 3 : 1;
+            for (int j = 0; j < batch; j++) {
+                changes.add(randomChange(random));
+            }
+            List<DirectoryChangeDto> appended = changeJournal.append(changes);
+            if (skipped.isEmpty() && random.nextInt(20) == 0) {
+                // 반영하지 않고 넘긴 항목은 다음 반영 때 저널에서 이어 읽어야 함
+                skipped = appended;
+            } else {
+                index.apply(appended, this::snapshot);
+                skipped = List.of();
+            }
+            if (i % CHECK_INTERVAL == CHECK_INTERVAL - 1 && skipped.isEmpty()) {
+                assertMatches(index, snapshot(), random, "작업 " + (i + 1) + "회 후");
+            }
+        }
+        if (!skipped.isEmpty()) {
+            index.apply(skipped, this::snapshot);
+        }
+        assertMatches(index, snapshot(), random, "작업 완료 후");
+
+        index.rebuild(snapshot());
+        assertMatches(index, snapshot(), random, "스냅샷으로 다시 만든 후");
+    }
+
+    /**
+     * 모델에 임의의 작업 하나를 적용하고 그 변경 저널 항목을 반환합니다.
+     */
+    private DirectoryChangeDto randomChange(Random random) {
+        List<Long> ids = new ArrayList<>(nodes.keySet());
+        DirectoryNodeDto target = nodes.get(ids.get(random.nextInt(ids.size())));
+        switch (random.nextInt(5)) {
+            case 0 -> {
+                Long parentId = random.nextInt(10) == 0 ? null : ids.get(random.nextInt(ids.size()));
+                if (parentId == null || !isAncestorOrSelf(target.getId(), parentId)) {
+                    return place(DirectoryChangedEvent.Type.MOVED, target.getId(), parentId, random);
+                }
+                return place(DirectoryChangedEvent.Type.REORDERED, target.getId(), target.getParentId(), random);
+            }
+            case 1 -> {
+                return place(DirectoryChangedEvent.Type.REORDERED, target.getId(), target.getParentId(), random);
+            }
+            case 2 -> {
+                if (random.nextInt(4) == 0 && nodes.size() > 1) {
+                    return delete(target);
+                }
+                return create(random);
+            }
+            default -> {
+                return create(random);
+            }
+        }
+    }
+
+    private DirectoryChangeDto create(Random random) {
+        Long parentId = nodes.isEmpty() || random.nextInt(10) == 0
+            ? null : new ArrayList<>(nodes.keySet()).get(random.nextInt(nodes.size()));
+        return place(DirectoryChangedEvent.Type.CREATED, nextId++, parentId, random);
+    }
+
+    private DirectoryChangeDto place(DirectoryChangedEvent.Type type, long id, Long parentId, Random random) {
+        DirectoryNodeDto before = nodes.get(id);
+        int sortOrder = random.nextInt(MAX_SORT_ORDER);
+        nodes.put(id, new DirectoryNodeDto(id, parentId, "d" + id, "/d" + id, sortOrder, 0L));
+        return DirectoryChangedEvent.change(type, id, "d" + id, before == null ? null : before.getParentId(), parentId,
+            sortOrder, before == null ? null : before.getPath(), "/d" + id);
+    }
+
+    private DirectoryChangeDto delete(DirectoryNodeDto target) {
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (DirectoryNodeDto node : nodes.values()) {
+            if (node.getParentId() != null) {
+                children.computeIfAbsent(node.getParentId(), key -> new ArrayList<>()).add(node.getId());
+            }
+        }
+        Deque<Long> stack = new ArrayDeque<>(List.of(target.getId()));
+        while (!stack.isEmpty()) {
+            Long id = stack.pop();
+            nodes.remove(id);
+            stack.addAll(children.getOrDefault(id, List.of()));
+        }
+        return DirectoryChangedEvent.change(DirectoryChangedEvent.Type.DELETED, target.getId(), target.getName(),
+            target.getParentId(), null, target.getSortOrder(), target.getPath(), null);
+    }
+
+    private boolean isAncestorOrSelf(long ancestorId, Long id) {
+        for (Long cursor = id; cursor != null; cursor = nodes.get(cursor).getParentId()) {
+            if (cursor == ancestorId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 현재 모델로 스냅샷을 만듭니다. (저장소 조회와 같이 정렬 순서, ID 순으로 정렬)
+     */
+    private DirectoryTreeSnapshot snapshot() {
+        List<DirectoryNodeDto> sorted = new ArrayList<>(nodes.values());
+        sorted.sort(Comparator.comparing(DirectoryNodeDto::getSortOrder).thenComparing(DirectoryNodeDto::getId));
+        long version = previous == null ? 1 : previous.getVersion() + 1;
+        previous = DirectoryTreeSnapshot.build(version, changeJournal.getLatestSequence(), sorted, previous);
+        return previous;
+    }
+
+    private static void assertMatches(DirectoryHierarchyIndex index, DirectoryTreeSnapshot snapshot, Random random,
+                                      String when) {
+        List<DirectoryTreeDto> preorder = new ArrayList<>();
+        Deque<DirectoryTreeDto> stack = new ArrayDeque<>();
+        for (int i = snapshot.getRoots().size() - 1; i >= 0; i--) {
+            stack.push(snapshot.getRoots().get(i));
+        }
+        while (!stack.isEmpty()) {
+            DirectoryTreeDto directory = stack.pop();
+            preorder.add(directory);
+            for (int i = directory.getChildren().size() - 1; i >= 0; i--) {
+                stack.push(directory.getChildren().get(i));
+            }
+        }
+
+        // 스냅샷 트리를 역순으로 훑어 하위 트리 크기를 셈 (색인과 무관한 기준값)
+        Map<Long, Integer> subtreeSizes = new HashMap<>(preorder.size() * 2);
+        for (int i = preorder.size() - 1; i >= 0; i--) {
+            DirectoryTreeDto directory = preorder.get(i);
+            int size = 1;
+            for (DirectoryTreeDto child : directory.getChildren()) {
+                size += subtreeSizes.get(child.getId());
+            }
+            subtreeSizes.put(directory.getId(), size);
+        }
+
+        long[] buffer = new long[preorder.size() + 1];
+        for (DirectoryTreeDto directory : preorder) {
+            long id = directory.getId();
+
+            long parentId = directory.getParentId() == null ? 0 : directory.getParentId();
+            assertEquals(parentId, index.getParentId(id), when + " 부모 - ID: " + id);
+
+            long[] expectedChildren = directory.getChildren().stream().mapToLong(DirectoryTreeDto::getId).toArray();
+            int childCount = index.getChildIds(id, buffer);
+            assertArrayEquals(expectedChildren, Arrays.copyOf(buffer, childCount), when + " 자식 순서 - ID: " + id);
+
+            List<DirectoryTreeDto> siblings = directory.getParentId() == null
+                ? snapshot.getRoots() : snapshot.getChildren(directory.getParentId(), 1);
+            int siblingIndex = 0;
+            while (!siblings.get(siblingIndex).getId().equals(directory.getId())) {
+                siblingIndex++;
+            }
+            assertEquals(siblingIndex, index.getSiblingIndex(id), when + " 형제 위치 - ID: " + id);
+
+            long[] expectedAncestors = snapshot.getAncestorIds(id).stream().mapToLong(Long::longValue).toArray();
+            int ancestorCount = index.getAncestorIds(id, buffer);
+            assertArrayEquals(expectedAncestors, Arrays.copyOf(buffer, ancestorCount), when + " 조상 목록 - ID: " + id);
+            assertEquals(expectedAncestors.length + 1, index.getDepth(id), when + " 깊이 - ID: " + id);
+
+            assertEquals(subtreeSizes.get(id), index.getSubtreeSize(id), when + " 하위 트리 크기 - ID: " + id);
+
+            // 조상(참)과 임의의 디렉토리(대부분 거짓)를 스냅샷의 구간 판별과 비교
+            for (long ancestorId : expectedAncestors) {
+                assertTrue(index.isAncestor(ancestorId, id), when + " 조상 판별 - " + ancestorId + " > " + id);
+            }
+            for (int i = 0; i < 3; i++) {
+                long otherId = preorder.get(random.nextInt(preorder.size())).getId();
+                assertEquals(snapshot.isAncestor(otherId, id), index.isAncestor(otherId, id),
+                    when + " 조상 판별 - " + otherId + " > " + id);
+                assertEquals(snapshot.isAncestor(id, otherId), index.isAncestor(id, otherId),
+                    when + " 조상 판별 - " + id + " > " + otherId);
+            }
+        }
+        assertEquals(preorder.size(), snapshot.getSize(), when + " 스냅샷 디렉토리 수");
+        assertEquals(preorder.size(), index.getSize(), when + " 전체 디렉토리 수");
+    }
+}
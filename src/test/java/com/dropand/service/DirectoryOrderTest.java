@@ -0,0 +1,94 @@
+package com.dropand.service;
+
+import com.dropand.domain.Directory;
+import com.dropand.dto.DirectoryOrderDto;
+import com.dropand.repository.DirectoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 일괄 순서/위치 변경(PUT /order)이 최종 상태 기준으로 경로 중복을 판단하는지 확인하는 테스트
+ */
+@SpringBootTest(properties = {
+    "logging.level.com.dropand=WARN",
+    "logging.level.org.springframework=WARN",
+    "logging.level.org.hibernate=WARN",
+    "spring.jpa.show-sql=false"
+})
+class DirectoryOrderTest {
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DirectoryRepository directoryRepository;
+
+    @Test
+    void swapsSameNamedDirectoriesBetweenParents() {
+        Directory left = directoryService.createDirectory("swap-left", null);
+        Directory right = directoryService.createDirectory("swap-right", null);
+        Directory fromLeft = directoryService.createDirectory("a", left.getId());
+        Directory fromRight = directoryService.createDirectory("a", right.getId());
+        Directory child = directoryService.createDirectory("k", fromLeft.getId());
+
+        directoryService.updateDirectoryOrder(List.of(
+            order(fromLeft.getId(), right.getId(), 1),
+            order(fromRight.getId(), left.getId(), 1)));
+
+        assertPath("/swap-right/a", fromLeft);
+        assertPath("/swap-left/a", fromRight);
+        assertPath("/swap-right/a/k", child);
+    }
+
+    @Test
+    void movesAlongChainOfOccupiedPaths() {
+        Directory first = directoryService.createDirectory("chain-1", null);
+        Directory second = directoryService.createDirectory("chain-2", null);
+        Directory third = directoryService.createDirectory("chain-3", null);
+        Directory fromFirst = directoryService.createDirectory("a", first.getId());
+        Directory fromSecond = directoryService.createDirectory("a", second.getId());
+        Directory child = directoryService.createDirectory("k", fromSecond.getId());
+
+        directoryService.updateDirectoryOrder(List.of(
+            order(fromFirst.getId(), second.getId(), 1),
+            order(fromSecond.getId(), third.getId(), 1)));
+
+        assertPath("/chain-2/a", fromFirst);
+        assertPath("/chain-3/a", fromSecond);
+        assertPath("/chain-3/a/k", child);
+    }
+
+    @Test
+    void rejectsDuplicateFinalPaths() {
+        Directory left = directoryService.createDirectory("dup-left", null);
+        Directory right = directoryService.createDirectory("dup-right", null);
+        Directory target = directoryService.createDirectory("dup-target", null);
+        Directory fromLeft = directoryService.createDirectory("a", left.getId());
+        Directory fromRight = directoryService.createDirectory("a", right.getId());
+
+        assertThrows(DirectoryConflictException.class, () -> directoryService.updateDirectoryOrder(List.of(
+            order(fromLeft.getId(), target.getId(), 1),
+            order(fromRight.getId(), target.getId(), 2))));
+
+        assertPath("/dup-left/a", fromLeft);
+        assertPath("/dup-right/a", fromRight);
+    }
+
+    private void assertPath(String expected, Directory directory) {
+        assertEquals(expected, directoryRepository.findNodeById(directory.getId()).orElseThrow().getPath());
+    }
+
+    private static DirectoryOrderDto order(Long id, Long parentId, int sortOrder) {
+        DirectoryOrderDto order = new DirectoryOrderDto();
+        order.setId(id);
+        order.setParentId(parentId);
+        order.setSortOrder(sortOrder);
+        return order;
+    }
+}